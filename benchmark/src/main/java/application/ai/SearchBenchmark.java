@@ -0,0 +1,96 @@
+package application.ai;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import domain.represent.Bitboard;
+import domain.represent.Playboard;
+import domain.represent.Positions;
+import foundation.exception.GameDrawException;
+import foundation.exception.GameLostException;
+import foundation.exception.GameWonException;
+
+/**
+ * <p>Benchmarks the evaluation heuristics and searches of fixed depth by the {@link ComputationalUnit ComputationalUnit}
+ * on the corpus of game situations of a phase (see {@link Positions Positions}).</p>
+ * <p>Every search starts with an empty transposition table, as the results of former invocations would make the later ones
+ * faster than a search in a game.</p>
+ * @author Julian Betz
+ * @version 1.00
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+	/**
+	 * <p>The memory budget of the transposition table in megabytes, small enough to be allocated before every search.</p>
+	 */
+	private static final int TABLE_SIZE = 4;
+	@Param({"early", "mid", "end"})
+	private String phase;
+	private Playboard[] boards;
+	private Bitboard[] bitboards;
+
+	/**
+	 * <p>The computational unit of a search, created anew before every invocation of {@link SearchBenchmark#nextMove
+	 * nextMove}. Kept apart from the corpus so that the other benchmarks are neither parameterized by the depth nor charged
+	 * with the allocation of the transposition table.</p>
+	 */
+	@State(Scope.Thread)
+	public static class Search {
+		@Param({"4", "6"})
+		private int depth;
+		private ComputationalUnit ai;
+
+		@Setup(Level.Invocation)
+		public void setUp() {
+			ai = new ComputationalUnit(TABLE_SIZE);
+			ai.setMaxDepth(depth);
+		}
+	}
+
+	@Setup
+	public void setUp() {
+		boards = Positions.of(phase);
+		bitboards = new Bitboard[boards.length];
+		for (int i = 0; i < boards.length; i++)
+			bitboards[i] = new Bitboard(boards[i]);
+	}
+
+	@Benchmark
+	public void nextMove(Search search, Blackhole blackhole) {
+		for (int i = 0; i < boards.length; i++) {
+			try {
+				blackhole.consume(search.ai.nextMove(boards[i], Positions.colour(i)));
+			}
+			catch (GameWonException | GameDrawException | GameLostException exc) {
+				blackhole.consume(exc);
+			}
+		}
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	public int evaluate() {
+		int estimation = 0;
+		for (int i = 0; i < bitboards.length; i++)
+			estimation += ComputationalUnit.evaluate(bitboards[i], Positions.colour(i));
+		return estimation;
+	}
+}
@@ -0,0 +1,119 @@
+package domain.represent;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import foundation.data.Move;
+import foundation.data.MultiPrioritySet;
+import foundation.exception.GameLostException;
+
+/**
+ * <p>Benchmarks the operations of the {@link Playboard Playboard} and the {@link Bitboard Bitboard} used by the search.
+ * Every invocation runs over all game situations of the corpus of a phase (see {@link Positions Positions}).</p>
+ * @author Julian Betz
+ * @version 1.00
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayboardBenchmark {
+	@Param({"early", "mid", "end"})
+	private String phase;
+	private Playboard[] boards;
+	private Bitboard[] bitboards;
+	/**
+	 * <p>One possible move per game situation, carried out and reversed by the benchmarks of {@code updateByAI}.</p>
+	 */
+	private Move[] moves;
+	private int[] buffer;
+
+	@Setup
+	public void setUp() throws GameLostException {
+		boards = Positions.of(phase);
+		bitboards = new Bitboard[boards.length];
+		moves = new Move[boards.length];
+		for (int i = 0; i < boards.length; i++) {
+			bitboards[i] = new Bitboard(boards[i]);
+			ArrayList<Move> possible = boards[i].possibleMoves(Positions.colour(i));
+			moves[i] = possible.get(possible.size() / 2);
+		}
+		buffer = new int[Bitboard.MAX_MOVES];
+	}
+
+	@Benchmark
+	public void possibleMoves(Blackhole blackhole) throws GameLostException {
+		for (int i = 0; i < boards.length; i++)
+			blackhole.consume(boards[i].possibleMoves(Positions.colour(i)));
+	}
+
+	@Benchmark
+	public void possibleMovesSet(Blackhole blackhole) throws GameLostException {
+		for (int i = 0; i < boards.length; i++)
+			blackhole.consume(boards[i].possibleMoves(new MultiPrioritySet<Move>(), new MultiPrioritySet<Move>(),
+					Positions.colour(i)));
+	}
+
+	@Benchmark
+	public int generateMoves() {
+		int count = 0;
+		for (int i = 0; i < bitboards.length; i++)
+			count += bitboards[i].generateMoves(Positions.colour(i), buffer, 0);
+		return count;
+	}
+
+	@Benchmark
+	public void updateByAI(Blackhole blackhole) {
+		for (int i = 0; i < boards.length; i++) {
+			boards[i].updateByAI(moves[i], false);
+			blackhole.consume(boards[i]);
+			boards[i].updateByAI(moves[i], true);
+		}
+	}
+
+	@Benchmark
+	public void makeUnmake(Blackhole blackhole) {
+		for (int i = 0; i < boards.length; i++) {
+			boards[i].make(moves[i]);
+			blackhole.consume(boards[i]);
+			boards[i].unmake();
+		}
+	}
+
+	@Benchmark
+	public void deepCopy(Blackhole blackhole) {
+		for (Playboard board : boards)
+			blackhole.consume(board.deepCopy());
+	}
+
+	@Benchmark
+	public int numberOfMills() {
+		int mills = 0;
+		for (Playboard board : boards)
+			mills += board.numberOfMills(true) + board.numberOfMills(false);
+		return mills;
+	}
+
+	@Benchmark
+	public int allMenOnBoard() {
+		int men = 0;
+		for (Playboard board : boards)
+			men += board.allMenOnBoard(true, false) + board.allMenOnBoard(false, false);
+		return men;
+	}
+}
@@ -0,0 +1,83 @@
+package domain.represent;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import foundation.data.Move;
+import foundation.exception.GameLostException;
+
+/**
+ * <p>The fixed corpus of game situations the benchmarks run on. The game situations are taken from games of random moves
+ * with a fixed seed, so every run measures the same ones.</p>
+ * <p>A game situation belongs to the early phase while men are set, to the middle phase once all men are set and both
+ * players have lost at most three men, and to the endgame otherwise.</p>
+ * @author Julian Betz
+ * @version 1.00
+ */
+public final class Positions {
+	/**
+	 * <p>The number of game situations per phase.</p>
+	 */
+	public static final int SIZE = 8;
+
+	private Positions() {
+	}
+
+	/**
+	 * @param phase {@code "early"}, {@code "mid"} or {@code "end"}
+	 * @return the game situations of the phase, white to move at even and black at odd indices
+	 * @throws IllegalArgumentException if the phase is unknown
+	 */
+	public static Playboard[] of(String phase) {
+		if (!phase.equals("early") && !phase.equals("mid") && !phase.equals("end"))
+			throw new IllegalArgumentException("Unknown phase: " + phase);
+		Playboard[] boards = new Playboard[SIZE];
+		Random random = new Random(phase.hashCode());
+		for (int i = 0; i < SIZE;) {
+			//Play a random game and choose one of its game situations of the phase
+			ArrayList<Playboard.State> candidates = new ArrayList<Playboard.State>();
+			Playboard board = new Playboard();
+			board.testSetter("empty");
+			boolean colour = true;
+			try {
+				for (int moves = 0; moves < 200; moves++) {
+					ArrayList<Move> possible = board.possibleMoves(colour);
+					if (possible.isEmpty())
+						break;
+					if (colour == colour(i) && phase.equals(phase(board)))
+						candidates.add(board.snapshot());
+					board.updateByAI(possible.get(random.nextInt(possible.size())), false);
+					colour = !colour;
+				}
+			}
+			catch (GameLostException exc) {
+				//The game is over
+			}
+			if (candidates.isEmpty())
+				continue;
+			boards[i] = new Playboard();
+			boards[i].restore(candidates.get(random.nextInt(candidates.size())));
+			i++;
+		}
+		return boards;
+	}
+
+	/**
+	 * @param index the index of a game situation of the corpus
+	 * @return the colour of the player to move
+	 */
+	public static boolean colour(int index) {
+		return (index & 1) == 0;
+	}
+
+	/**
+	 * @param board a playboard
+	 * @return the phase of the game situation
+	 */
+	private static String phase(Playboard board) {
+		int[] pile = board.getPile();
+		if (pile[0] > 0 || pile[2] > 0)
+			return "early";
+		return pile[1] <= 3 && pile[3] <= 3 ? "mid" : "end";
+	}
+}
@@ -0,0 +1,81 @@
+package foundation.data;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Measures the throughput of a set with two orders shared by several threads, comparing the
+ * {@link ConcurrentMultiPrioritySet ConcurrentMultiPrioritySet} to a {@link MultiPrioritySet MultiPrioritySet} guarded by a
+ * single lock. Every operation integrates, removes or looks up a random element of a fixed range; the set stays about half
+ * full.</p>
+ * <p>Run with {@code -t} to vary the number of threads, e.g. {@code -t 1}, {@code -t 4} and {@code -t 8}.</p>
+ * @author Julian Betz
+ * @version 1.00
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class ConcurrentMultiPrioritySetBenchmark {
+	@Param({"1024"})
+	private int range;
+	private ConcurrentMultiPrioritySet<Integer> concurrent;
+	private MultiPrioritySet<Integer> locked;
+
+	@Setup
+	public void setUp() {
+		ArrayList<Comparator<Integer>> comparators = new ArrayList<Comparator<Integer>>(2);
+		comparators.add((Integer a, Integer b) -> a.compareTo(b));
+		comparators.add((Integer a, Integer b) -> Integer.compare(a % 7, b % 7));
+		concurrent = new ConcurrentMultiPrioritySet<Integer>(comparators);
+		locked = new MultiPrioritySet<Integer>(comparators);
+		//Maintain the second order in the locked set as well
+		locked.iterator(1);
+		for (int i = 0; i < range; i += 2) {
+			concurrent.add(i);
+			locked.add(i);
+		}
+	}
+
+	@Benchmark
+	public Object concurrent() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		Integer element = random.nextInt(range);
+		switch (random.nextInt(4)) {
+		case 0: return concurrent.integrate(element);
+		case 1: return concurrent.remove(element);
+		default: return concurrent.contains(element);
+		}
+	}
+
+	@Benchmark
+	public Object locked() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		Integer element = random.nextInt(range);
+		synchronized (locked) {
+			switch (random.nextInt(4)) {
+			case 0: return locked.integrate(element);
+			case 1: return locked.remove(element);
+			default: return locked.contains(element);
+			}
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package foundation.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Benchmarks the {@link MultiPrioritySet MultiPrioritySet} with two orders, the way the AI uses it for move lists: an
+ * identity order and a coarse estimation order with many ties.</p>
+ * @author Julian Betz
+ * @version 1.00
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultiPrioritySetBenchmark {
+	@Param({"32", "1024"})
+	private int size;
+	private ArrayList<Comparator<Integer>> comparators;
+	private Integer[] elements;
+	/**
+	 * <p>The elements in random order and in the order of the first comparator.</p>
+	 */
+	private ArrayList<Integer> shuffled, sorted;
+	/**
+	 * <p>A set filled with all elements, used by the benchmarks that do not measure the construction.</p>
+	 */
+	private MultiPrioritySet<Integer> filled;
+
+	@Setup
+	public void setUp() {
+		comparators = new ArrayList<Comparator<Integer>>(2);
+		comparators.add((Integer a, Integer b) -> a.compareTo(b));
+		comparators.add((Integer a, Integer b) -> Integer.compare(a % 7, b % 7));
+		elements = new Integer[size];
+		for (int i = 0; i < size; i++)
+			elements[i] = i;
+		Random random = new Random(0);
+		for (int i = size - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			Integer element = elements[i];
+			elements[i] = elements[j];
+			elements[j] = element;
+		}
+		shuffled = new ArrayList<Integer>(Arrays.asList(elements));
+		sorted = new ArrayList<Integer>(shuffled);
+		Collections.sort(sorted);
+		filled = new MultiPrioritySet<Integer>(comparators);
+		for (Integer element : elements)
+			filled.add(element);
+	}
+
+	@Benchmark
+	public MultiPrioritySet<Integer> add() {
+		MultiPrioritySet<Integer> set = new MultiPrioritySet<Integer>(comparators);
+		for (Integer element : elements)
+			set.add(element);
+		return set;
+	}
+
+	@Benchmark
+	public MultiPrioritySet<Integer> of() {
+		return MultiPrioritySet.of(shuffled, comparators);
+	}
+
+	@Benchmark
+	public MultiPrioritySet<Integer> ofSorted() {
+		return MultiPrioritySet.of(sorted, comparators);
+	}
+
+	@Benchmark
+	public int contains() {
+		int count = 0;
+		for (Integer element : elements)
+			if (filled.contains(element))
+				count++;
+		return count;
+	}
+
+	@Benchmark
+	public int iterate() {
+		int sum = 0;
+		for (Iterator<Integer> it = filled.iterator(1); it.hasNext();)
+			sum += it.next();
+		return sum;
+	}
+
+	@Benchmark
+	public MultiPrioritySet<Integer> removeAdd() {
+		for (int i = 0; i < elements.length; i += 2)
+			filled.remove(elements[i]);
+		for (int i = 0; i < elements.length; i += 2)
+			filled.add(elements[i]);
+		return filled;
+	}
+}
@@ -0,0 +1,64 @@
+package foundation.data;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Measures the cost of forking a set with two orders and changing one element in the fork, comparing a version derived from
+ * a {@link PersistentMultiPrioritySet PersistentMultiPrioritySet} to a copy of a {@link MultiPrioritySet MultiPrioritySet}.</p>
+ * @author Julian Betz
+ * @version 1.00
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersistentMultiPrioritySetBenchmark {
+	@Param({"32", "1024"})
+	private int size;
+	private ArrayList<Comparator<Integer>> comparators;
+	private PersistentMultiPrioritySet<Integer> persistent;
+	private MultiPrioritySet<Integer> mutable;
+
+	@Setup
+	public void setUp() {
+		comparators = new ArrayList<Comparator<Integer>>(2);
+		comparators.add((Integer a, Integer b) -> a.compareTo(b));
+		comparators.add((Integer a, Integer b) -> Integer.compare(a % 7, b % 7));
+		ArrayList<Integer> elements = new ArrayList<Integer>(size);
+		for (int i = 0; i < size; i++)
+			elements.add(i * 2);
+		persistent = PersistentMultiPrioritySet.of(elements, comparators);
+		mutable = MultiPrioritySet.of(elements, comparators);
+		mutable.iterator(1);
+	}
+
+	@Benchmark
+	public PersistentMultiPrioritySet<Integer> derive() {
+		return persistent.with(size + 1).without(0);
+	}
+
+	@Benchmark
+	public MultiPrioritySet<Integer> copy() {
+		MultiPrioritySet<Integer> copy = MultiPrioritySet.of(mutable, comparators);
+		copy.iterator(1);
+		copy.add(size + 1);
+		copy.remove(0);
+		return copy;
+	}
+}
@@ -1,33 +1,151 @@
 package application.ai;
 
+import domain.represent.Bitboard;
 import domain.represent.Playboard;
 import foundation.data.Move;
-import foundation.data.MultiPrioritySet;
 import foundation.exception.*;
 
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * <p>The class charged with the choice of the next move.</p>
  * <p>Tries to find an optimal action in the given situation of the game up to a certain limit of accuracy (i.e. a number of
  * consecutive moves of both players). In order to reduce computation time heuristics are used when this limit is reached.</p>
+ * <p>Results of the search are kept in a {@link TranspositionTable TranspositionTable} so that game situations reached by
+ * different orders of moves are only searched once.</p>
+ * <p>The search may use several threads sharing the transposition table (see {@link #setThreads(int) setThreads}). Game
+ * situations contained in an {@link OpeningBook OpeningBook} are not searched at all.</p>
+ * <p>While the opponent is thinking, the game situations after the most likely replies can be searched in advance (see
+ * {@link #ponder(Playboard, boolean) ponder}).</p>
+ * <p>The principal variation of a search, i.e. the sequence of moves expected to be carried out by both players, is kept
+ * until the next search. If the next game situation lies on it (usually after the own move and the expected reply), the next
+ * search searches the rest of it first. The move ordering heuristics are kept anyway (see {@link MoveOrdering
+ * MoveOrdering}).</p>
+ * <p>Every search collects {@link SearchStats statistics}, which are passed to the registered
+ * {@link SearchListener SearchListeners} and kept until the next search (see {@link #getStatistics() getStatistics}).</p>
  * @author Julian Betz
- * @version 1.03
+ * @version 1.12
  */
 public class ComputationalUnit {
+	/**
+	 * <p>The default memory budget of the transposition table in megabytes.</p>
+	 */
+	public static final int TABLE_SIZE = 32;
+	/**
+	 * <p>The maximal depth of a search with a time limit.</p>
+	 */
+	private static final int MAX_DEPTH = 64;
+	/**
+	 * <p>The branching factor assumed before it can be measured.</p>
+	 */
+	private static final double BRANCHING = 4.0;
+	/**
+	 * <p>The number of nodes visited between two checks of the time limit, minus one.</p>
+	 */
+	private static final int CHECK_INTERVAL = 0x3FF;
+	/**
+	 * <p>The bound beyond which estimations mark games whose outcome is known.</p>
+	 */
+	private static final int DECIDED = Integer.MAX_VALUE - 128;
+	/**
+	 * <p>The number of replies of the opponent searched in advance by {@link #ponder(Playboard, boolean) ponder}.</p>
+	 */
+	private static final int PREDICTIONS = 3;
 	private int maxDepth;
-	private final ArrayList<Comparator<Move>> comparators;
+	private final TranspositionTable table;
+	/**
+	 * <p>The number of threads used by a search.</p>
+	 */
+	private int threads;
+	/**
+	 * <p>The threads helping the main search by filling the transposition table, created on first use.</p>
+	 */
+	private ExecutorService helpers;
+	/**
+	 * <p>Indicates that the helper threads of the current search have to terminate.</p>
+	 */
+	private volatile boolean stopped;
+	/**
+	 * <p>The tasks of the helper threads of the current search.</p>
+	 */
+	private ArrayList<Future<?>> running;
+	/**
+	 * <p>The move orderings of the threads, kept from one search to the next. The last one belongs to the thread pondering.</p>
+	 */
+	private MoveOrdering[] orderings;
+	/**
+	 * <p>The database of endgames probed by the search or {@code null}.</p>
+	 */
+	private Tablebase tablebase;
+	/**
+	 * <p>The opening book consulted before every search or {@code null}.</p>
+	 */
+	private OpeningBook book;
+	/**
+	 * <p>The thread searching on the opponent's time, created on first use.</p>
+	 */
+	private ExecutorService ponderer;
+	/**
+	 * <p>The task of the thread pondering or {@code null} if it is not pondering.</p>
+	 */
+	private Future<?> pondering;
+	/**
+	 * <p>The results of pondering, indexed by the hashes of the game situations searched in advance.</p>
+	 */
+	private final ConcurrentHashMap<Long, Pondered> pondered;
+	/**
+	 * <p>The principal variation of the last search.</p>
+	 */
+	private int[] line;
+	/**
+	 * <p>The hashes of the game situations on the principal variation of the last search, starting with its root.</p>
+	 */
+	private long[] lineKeys;
+	/**
+	 * <p>The searches of the helper threads of the current search.</p>
+	 */
+	private final ArrayList<Search> workers;
+	/**
+	 * <p>The listeners notified about the progress of every search.</p>
+	 */
+	private final ArrayList<SearchListener> listeners;
+	/**
+	 * <p>The statistics of the last search or {@code null} if the last move was not searched.</p>
+	 */
+	private SearchStats statistics;
 	
 	/**
 	 * <p>Creates a new {@code ComputationalUnit} ready to compute future moves.</p>
-	 * <p>Sets the depth of the search to {@code 4}.</p>
+	 * <p>Sets the depth of the search to {@code 4} and the memory budget of the transposition table to {@value #TABLE_SIZE}
+	 * megabytes.</p>
 	 */
 	public ComputationalUnit() {
+		this(TABLE_SIZE);
+	}
+	
+	/**
+	 * <p>Creates a new {@code ComputationalUnit} ready to compute future moves.</p>
+	 * <p>Sets the depth of the search to {@code 4}.</p>
+	 * @param tableSize the memory budget of the transposition table in megabytes
+	 * @throws IllegalArgumentException if {@code tableSize<0}
+	 */
+	public ComputationalUnit(int tableSize) {
 		maxDepth = 4;
-		comparators = new ArrayList<Comparator<Move>>(2);
-		comparators.add((Move a, Move b) -> a.compareTo(b));
-		comparators.add((Move a, Move b) -> b.getEstimation() - a.getEstimation());
+		threads = 1;
+		orderings = new MoveOrdering[2];
+		table = new TranspositionTable(tableSize);
+		pondered = new ConcurrentHashMap<Long, Pondered>();
+		line = new int[0];
+		lineKeys = new long[0];
+		workers = new ArrayList<Search>();
+		listeners = new ArrayList<SearchListener>();
 	}
 	
 	public synchronized void setMaxDepth(int depth) {
@@ -38,138 +156,781 @@ public class ComputationalUnit {
 		return maxDepth;
 	}
 	
+	/**
+	 * <p>Sets the number of threads used by a search. All threads but one are helper threads searching the same game situation
+	 * at slightly different depths. They share their results through the transposition table, which lets the main search
+	 * finish sooner (lazy symmetric multiprocessing).</p>
+	 * <p>The default is {@code 1}, i.e. a search without helper threads.</p>
+	 * @param threads the number of threads
+	 * @throws IllegalArgumentException if {@code threads<1}
+	 */
+	public synchronized void setThreads(int threads) {
+		if (threads < 1)
+			throw new IllegalArgumentException("At least one thread is needed");
+		stopPondering();
+		if (helpers != null && threads != this.threads) {
+			helpers.shutdown();
+			helpers = null;
+		}
+		this.threads = threads;
+		orderings = Arrays.copyOf(orderings, threads + 1);
+	}
+	
+	public synchronized int getThreads() {
+		return threads;
+	}
+	
+	/**
+	 * <p>Sets the database of endgames to be probed by the search. Game situations contained in it are not searched any further,
+	 * but estimated by their exact values. If the current game situation is contained, the move is chosen from the database
+	 * without searching.</p>
+	 * @param tablebase the database or {@code null} to search without one
+	 */
+	public synchronized void setTablebase(Tablebase tablebase) {
+		this.tablebase = tablebase;
+	}
+	
+	public synchronized Tablebase getTablebase() {
+		return tablebase;
+	}
+	
+	/**
+	 * <p>Sets the opening book consulted before every search. If the current game situation is contained, the move of the book
+	 * is returned without searching.</p>
+	 * @param book the opening book or {@code null} to search from the first move on
+	 */
+	public synchronized void setOpeningBook(OpeningBook book) {
+		this.book = book;
+	}
+	
+	public synchronized OpeningBook getOpeningBook() {
+		return book;
+	}
+	
+	/**
+	 * <p>Registers a listener to be notified about the progress of every search.</p>
+	 * @param listener the listener
+	 */
+	public synchronized void addSearchListener(SearchListener listener) {
+		listeners.add(listener);
+	}
+	
+	public synchronized void removeSearchListener(SearchListener listener) {
+		listeners.remove(listener);
+	}
+	
+	/**
+	 * @return the statistics of the last search or {@code null} if the last move was taken from the opening book, the
+	 * tablebase or the results of pondering without searching
+	 */
+	public synchronized SearchStats getStatistics() {
+		return statistics;
+	}
+	
 	/**
 	 * <p>Computes an optimal move (up to the limit of accuracy defined by {@code maxDepth}) for the current game situation
 	 * presented by the specified playboard. After reaching the limit, evaluation heuristics are used.</p>
 	 * <p>The maximal search depth is set to {@code max(2, depth)}.</p>
 	 * <p>Time complexity is highly reduced due to the method's implementation as a NegaScout algorithm.
-	 * At the same time, space complexity is minimized by removing references to irrelevant nodes.</p>
+	 * <p>The search itself is carried out on a {@link Bitboard Bitboard} created from the specified playboard. The playboard
+	 * is not modified and no {@code Move} objects are created but the one returned.</p>
 	 * @param board the playboard presenting the current game situation
 	 * @param color the color of the men owned
 	 * @return an optimal move for the current game situation
 	 * @throws GameWonException if no moves can be carried out after the next move and the game will not end in a draw 
 	 * @throws GameDrawException if the game ends in a draw
 	 * @throws GameLostException if no moves can be carried out and the game does not end in a draw
+	 * @see #nextMove(Playboard, boolean, Duration)
 	 */
 	public synchronized Move nextMove(Playboard board, boolean color) throws GameWonException, GameDrawException, GameLostException {
 		maxDepth = maxDepth < 2 ? 2 : maxDepth;
-		board = board.deepCopy();
-		SearchTree tree = new SearchTree();
-		SearchTree.Node node = tree.getRoot();
-		MultiPrioritySet<Move> priority = new MultiPrioritySet<Move>(comparators);
-		//Initialize the search by identifying all moves directly executable in the current situation, throw GameLostException if the game was lost
-		node.addAll(board.possibleMoves(new MultiPrioritySet<Move>(comparators), new MultiPrioritySet<Move>(comparators), color), 1);
-		if (!node.hasChild())
-			throw new GameDrawException("No move can be carried out");
-		//Launch the search
-		SearchTree.Node child = node.pop();
-		board.updateByAI(child.getMove(), false);
+		Bitboard position = new Bitboard(board);
+		statistics = null;
+		Pondered result = takePondered(position, color);
+		if (result != null && (result.depth >= maxDepth || result.exact))
+			return position.toMove(result.move);
+		int move = lookUp(position, color);
+		return position.toMove(move != OpeningBook.NO_MOVE ? move : search(position, color, maxDepth));
+	}
+	
+	/**
+	 * <p>Searches the specified game situation up to the specified depth.</p>
+	 * @param position the bitboard presenting the current game situation, not modified
+	 * @param color the color of the men owned
+	 * @param depth the maximal depth of the search
+	 * @return the code of an optimal move for the current game situation
+	 * @throws GameWonException if no moves can be carried out after the next move and the game will not end in a draw 
+	 * @throws GameDrawException if the game ends in a draw
+	 * @throws GameLostException if no moves can be carried out and the game does not end in a draw
+	 */
+	synchronized int search(Bitboard position, boolean color, int depth) throws GameWonException, GameDrawException, GameLostException {
+		table.newSearch();
+		int[] continuation = reroot(position, color);
+		Search search = new Search(new Bitboard(position), color, depth, Long.MAX_VALUE, 0);
+		search.maxDepth = depth;
+		search.line = continuation;
+		startHelpers(position, color, depth, continuation);
+		int move;
+		long[] iterationNodes = new long[1], iterationTimes = new long[1];
 		try {
-			child.addAll(board.possibleMoves(priority, new MultiPrioritySet<Move>(comparators), !color), 1);
-		}
-		catch (GameLostException exc) {
-			throw new GameWonException("The game will be won after the next move", child.getMove());
-		}
-		Move nextMove = child.getMove();
-		int beta = Integer.MAX_VALUE;
-		int alpha = -negaScout(board, child, -beta, Integer.MAX_VALUE, color, !color, priority);
-		board.updateByAI(child.getMove(), true);
-		while (node.hasChild()) {
-			child = node.pop();
-			board.updateByAI(child.getMove(), false);
-			try {
-				child.addAll(board.possibleMoves(priority, new MultiPrioritySet<Move>(comparators), !color), 1);
+			long begin = System.nanoTime();
+			move = search.searchRoot(-1);
+			iterationTimes[0] = System.nanoTime() - begin;
+			iterationNodes[0] = search.nodes;
+			remember(position, color, move, depth);
+			report(search, position, depth, iterationNodes, iterationTimes, 1, false);
+		}
+		finally {
+			stopHelpers();
+		}
+		report(search, position, depth, iterationNodes, iterationTimes, 1, true);
+		return move;
+	}
+	
+	/**
+	 * <p>Computes an optimal move for the current game situation presented by the specified playboard within the specified
+	 * amount of time.</p>
+	 * <p>The search is deepened by one move at a time, starting with a depth of {@code 2}. Every iteration searches the best
+	 * move of the previous iteration first. The next iteration is only started if it is predicted to finish in time, using
+	 * the effective branching factor (i.e. the ratio of the numbers of nodes visited by the last two iterations) observed so far.
+	 * If the time is up during an iteration nevertheless, the iteration is aborted and the result of the last completed
+	 * iteration is returned. The first iteration is always completed.</p>
+	 * <p>The depth set by {@link #setMaxDepth(int) setMaxDepth} is not used and not changed by this method. If more than one
+	 * thread is used, the helper threads run their own iterations meanwhile.</p>
+	 * <p>If the game situation has been searched in advance by {@link #ponder(Playboard, boolean) ponder}, the deepening
+	 * continues with the move and depth reached there, and the time limit applies to the first iteration as well.</p>
+	 * @param board the playboard presenting the current game situation
+	 * @param color the color of the men owned
+	 * @param budget the time available for the computation
+	 * @return an optimal move for the current game situation
+	 * @throws GameWonException if no moves can be carried out after the next move and the game will not end in a draw 
+	 * @throws GameDrawException if the game ends in a draw
+	 * @throws GameLostException if no moves can be carried out and the game does not end in a draw
+	 * @see #nextMove(Playboard, boolean)
+	 */
+	public synchronized Move nextMove(Playboard board, boolean color, Duration budget) throws GameWonException, GameDrawException, GameLostException {
+		long start = System.nanoTime();
+		long end = start + Math.min(budget.toNanos(), Long.MAX_VALUE - start);
+		Bitboard position = new Bitboard(board);
+		statistics = null;
+		Pondered result = takePondered(position, color);
+		if (result != null && (result.exact || Math.abs(result.score) > DECIDED))
+			return position.toMove(result.move);
+		int nextMove = lookUp(position, color);
+		if (nextMove != OpeningBook.NO_MOVE)
+			return position.toMove(nextMove);
+		table.newSearch();
+		int[] continuation = reroot(position, color);
+		Search search = new Search(position, color, MAX_DEPTH, Long.MAX_VALUE, 0);
+		search.line = continuation;
+		int first = 2, completed = 0;
+		if (result != null) {
+			//Continue where pondering stopped, a move is known already
+			nextMove = result.move;
+			first = result.depth + 1;
+			search.deadline = end;
+		}
+		long[] iterationNodes = new long[MAX_DEPTH], iterationTimes = new long[MAX_DEPTH];
+		int iterations = 0;
+		startHelpers(position, color, MAX_DEPTH, continuation);
+		try {
+			for (search.maxDepth = first; search.maxDepth <= MAX_DEPTH; search.maxDepth++) {
+				long begin = System.nanoTime();
+				long visited = search.nodes;
+				int move = search.searchRoot(nextMove);
+				if (search.aborted)
+					break;
+				nextMove = move;
+				completed = search.maxDepth;
+				long now = System.nanoTime();
+				iterationNodes[iterations] = search.nodes - visited;
+				iterationTimes[iterations++] = now - begin;
+				remember(position, color, nextMove, completed);
+				report(search, position, first, iterationNodes, iterationTimes, iterations, false);
+				search.deadline = end; //Only the first iteration may exceed the budget
+				if (Math.abs(search.score) > DECIDED || search.exact)
+					break; //The outcome of the game is known
+				double branching = iterations > 1 && iterationNodes[iterations - 2] > 0 ? Math.max(1.0,
+						(double) iterationNodes[iterations - 1] / iterationNodes[iterations - 2]) : BRANCHING;
+				if (now + (now - begin) * branching > end)
+					break; //The next iteration is not expected to finish in time
 			}
-			catch (GameLostException exc) {
-				throw new GameWonException("The game will be won after the next move", child.getMove());
+		}
+		finally {
+			stopHelpers();
+		}
+		report(search, position, first, iterationNodes, iterationTimes, iterations, true);
+		return position.toMove(nextMove);
+	}
+	
+	/**
+	 * <p>Starts searching the game situations after the most likely replies of the opponent in the background, so that a
+	 * later call of {@code nextMove} on one of them can use the results. The replies are predicted by the
+	 * {@link MoveOrdering MoveOrdering} of the last search, which knows the best reply found in the
+	 * {@link TranspositionTable TranspositionTable} as well as the replies that refuted other moves.</p>
+	 * <p>Pondering goes on until the next call of {@code nextMove}, {@code ponder} or {@link #stopPondering() stopPondering}.
+	 * It uses a single thread of its own.</p>
+	 * @param board the playboard presenting the game situation after the last move of the men owned, not modified
+	 * @param color the color of the men owned
+	 */
+	public synchronized void ponder(Playboard board, boolean color) {
+		stopPondering();
+		pondered.clear();
+		Bitboard position = new Bitboard(board);
+		int[] replies = new int[Bitboard.MAX_MOVES];
+		int count = predict(position, color, replies);
+		if (count == 0)
+			return; //The game is over
+		table.newSearch();
+		int predictions = Math.min(PREDICTIONS, count);
+		Search[] searches = new Search[predictions];
+		long[] keys = new long[predictions];
+		for (int i = 0; i < predictions; i++) {
+			Bitboard successor = new Bitboard(position);
+			successor.make(replies[i]);
+			keys[i] = successor.getHash(color);
+			searches[i] = new Search(successor, color, MAX_DEPTH, Long.MAX_VALUE, threads);
+		}
+		if (ponderer == null)
+			ponderer = Executors.newSingleThreadExecutor((Runnable runnable) -> {
+				Thread thread = new Thread(runnable, "ComputationalUnit ponderer");
+				thread.setDaemon(true);
+				return thread;
+			});
+		stopped = false;
+		pondering = ponderer.submit(() -> {
+			//Deepen the searches of all replies alternately, so the results are useful whenever pondering is stopped
+			boolean[] done = new boolean[predictions];
+			for (int depth = 2; depth <= MAX_DEPTH; depth++) {
+				boolean open = false;
+				for (int i = 0; i < predictions; i++) {
+					if (done[i])
+						continue;
+					Search search = searches[i];
+					search.maxDepth = depth;
+					Pondered previous = pondered.get(keys[i]);
+					try {
+						int move = search.searchRoot(previous != null ? previous.move : -1);
+						if (search.aborted)
+							return;
+						pondered.put(keys[i], new Pondered(move, depth, search.score, search.exact));
+						done[i] = search.exact || Math.abs(search.score) > DECIDED;
+					}
+					catch (GameWonException | GameDrawException | GameLostException exc) {
+						done[i] = true; //nextMove will notice without searching
+					}
+					open |= !done[i];
+				}
+				if (!open)
+					return;
 			}
-			int estimation = -negaScout(board, child, -alpha - 1, -alpha, color, !color, priority);
-			if (alpha < estimation && estimation < beta)
-				estimation = -negaScout(board, child, -beta, -estimation, color, !color, priority);
-			if (alpha < estimation) {
-				alpha = estimation;
-				nextMove = child.getMove();
+		});
+	}
+	
+	/**
+	 * <p>Generates the replies of the opponent, the most likely ones first.</p>
+	 * @param position the bitboard presenting the game situation after the last move of the men owned
+	 * @param color the color of the men owned
+	 * @param replies the buffer to write the codes of the replies to
+	 * @return the number of replies
+	 */
+	synchronized int predict(Bitboard position, boolean color, int[] replies) {
+		int count = position.isLost(!color) ? 0 : position.generateMoves(!color, replies, 0);
+		if (count == 0)
+			return 0;
+		long entry = table.probe(position.getHash(!color));
+		MoveOrdering ordering = orderings[0] != null ? orderings[0] : new MoveOrdering(1);
+		ordering.order(replies, count, 1, entry != 0 ? TranspositionTable.move(entry) : -1, -1);
+		return count;
+	}
+	
+	/**
+	 * <p>Stops pondering and waits for the thread pondering to terminate. The results are kept for the next call of
+	 * {@code nextMove}.</p>
+	 */
+	public synchronized void stopPondering() {
+		if (pondering == null)
+			return;
+		stopped = true;
+		try {
+			pondering.get();
+		}
+		catch (InterruptedException exc) {
+			Thread.currentThread().interrupt();
+		}
+		catch (ExecutionException exc) {
+			exc.getCause().printStackTrace();
+		}
+		pondering = null;
+	}
+	
+	/**
+	 * <p>Stops pondering and returns its result for the specified game situation. All other results are discarded.</p>
+	 * @param position the bitboard presenting the current game situation
+	 * @param color the color of the men owned
+	 * @return the result or {@code null} if the game situation has not been searched in advance
+	 */
+	private Pondered takePondered(Bitboard position, boolean color) {
+		stopPondering();
+		Pondered result = pondered.get(position.getHash(color));
+		pondered.clear();
+		return result;
+	}
+	
+	/**
+	 * @param position the bitboard presenting the current game situation
+	 * @param color the color of the men owned
+	 * @return the code of the move of the opening book or {@link OpeningBook#NO_MOVE} if there is none
+	 */
+	private int lookUp(Bitboard position, boolean color) {
+		return book == null ? OpeningBook.NO_MOVE : book.probe(position, color);
+	}
+	
+	/**
+	 * <p>Starts the helper threads of a search. Every helper thread runs an iterative deepening search on its own copy of the
+	 * game situation, every second one starting one move deeper than the main search.</p>
+	 * @param position the bitboard presenting the current game situation
+	 * @param color the color of the men owned
+	 * @param depth the maximal depth to search
+	 * @param continuation the moves to search first (see {@link #reroot(Bitboard, boolean) reroot})
+	 */
+	private void startHelpers(Bitboard position, boolean color, int depth, int[] continuation) {
+		stopped = false;
+		workers.clear();
+		if (threads == 1)
+			return;
+		if (helpers == null) {
+			helpers = Executors.newFixedThreadPool(threads - 1, (Runnable runnable) -> {
+				Thread thread = new Thread(runnable, "ComputationalUnit helper");
+				thread.setDaemon(true);
+				return thread;
+			});
+			running = new ArrayList<Future<?>>(threads - 1);
+		}
+		for (int i = 1; i < threads; i++) {
+			Search helper = new Search(new Bitboard(position), color, depth, Long.MAX_VALUE, i);
+			helper.line = continuation;
+			workers.add(helper);
+			int first = 2 + (i & 1);
+			running.add(helpers.submit(() -> {
+				try {
+					for (helper.maxDepth = first; helper.maxDepth <= depth && !helper.aborted; helper.maxDepth++)
+						helper.searchRoot(-1);
+				}
+				catch (GameWonException | GameDrawException | GameLostException exc) {
+					//The main search will notice as well
+				}
+			}));
+		}
+	}
+	
+	/**
+	 * <p>Looks up the specified game situation on the principal variation of the last search.</p>
+	 * @param position the bitboard presenting the game situation of the next search
+	 * @param color the color of the men owned
+	 * @return the rest of the principal variation from the game situation on, empty if it does not lie on it
+	 */
+	private int[] reroot(Bitboard position, boolean color) {
+		long key = position.getHash(color);
+		for (int i = 0; i < lineKeys.length; i++)
+			if (lineKeys[i] == key)
+				return Arrays.copyOfRange(line, i, line.length);
+		return new int[0];
+	}
+	
+	/**
+	 * <p>Keeps the principal variation of a search, following the best moves stored in the transposition table from the
+	 * game situation searched on.</p>
+	 * @param position the bitboard presenting the game situation searched on, not modified
+	 * @param color the color of the men owned
+	 * @param move the code of the move chosen by the search
+	 * @param depth the depth of the search
+	 */
+	private void remember(Bitboard position, boolean color, int move, int depth) {
+		Bitboard board = new Bitboard(position);
+		int[] buffer = new int[Bitboard.MAX_MOVES];
+		line = new int[depth];
+		lineKeys = new long[depth + 1];
+		lineKeys[0] = board.getHash(color);
+		boolean player = color;
+		int length = 0;
+		while (true) {
+			line[length++] = move;
+			board.make(move);
+			player = !player;
+			lineKeys[length] = board.getHash(player);
+			if (length == depth || board.isLost(player))
+				break;
+			long entry = table.probe(lineKeys[length]);
+			move = entry != 0 ? TranspositionTable.move(entry) : -1;
+			int count = move < 0 ? 0 : board.generateMoves(player, buffer, 0), i = 0;
+			while (i < count && buffer[i] != move)
+				i++;
+			if (i == count)
+				break; //There is no best move or it belongs to another game situation with the same hash
+		}
+		line = Arrays.copyOf(line, length);
+		lineKeys = Arrays.copyOf(lineKeys, length + 1);
+	}
+	
+	/**
+	 * <p>Evaluates the game situation presented by the specified bitboard using heuristics.</p>
+	 * @param board the bitboard
+	 * @param color the color of the men owned
+	 * @return an estimation {@code e} of the advantageousness of the game situation for the men owned so that
+	 * {@code Integer.MIN_VALUE < e < Integer.MAX_VALUE}
+	 */
+	static int evaluate(Bitboard board, boolean color) {
+		return board.allMenOnBoard(color) - board.allMenOnBoard(!color) + 3 * (board.numberOfMills(color)
+				- board.numberOfMills(!color));
+	}
+	
+	/**
+	 * <p>Passes the statistics of a search to the listeners. The principal variation is taken from {@code line}.</p>
+	 * @param search the main search
+	 * @param position the bitboard presenting the game situation searched on, not modified
+	 * @param first the depth of the first iteration
+	 * @param iterationNodes the numbers of nodes visited by the completed iterations
+	 * @param iterationTimes the durations of the completed iterations in nanoseconds
+	 * @param iterations the number of completed iterations
+	 * @param completed true if the whole search is completed and the helper threads have terminated, false if only an
+	 * iteration is completed
+	 */
+	private void report(Search search, Bitboard position, int first, long[] iterationNodes, long[] iterationTimes,
+			int iterations, boolean completed) {
+		if (!completed && listeners.isEmpty())
+			return; //Nobody is interested in the statistics of the iteration
+		long nodes = search.nodes, leaves = search.leaves, cutoffs = search.cutoffs, researches = search.researches;
+		int threads = 1;
+		if (completed)
+			for (Search helper : workers) {
+				nodes += helper.nodes;
+				leaves += helper.leaves;
+				cutoffs += helper.cutoffs;
+				researches += helper.researches;
+				threads++;
+			}
+		ArrayList<Move> principalVariation = new ArrayList<Move>(line.length);
+		if (iterations > 0) {
+			Bitboard board = new Bitboard(position);
+			for (int move : line) {
+				principalVariation.add(board.toMove(move));
+				board.make(move);
 			}
-			board.updateByAI(child.getMove(), true);
-		}
-		return nextMove;
-	}
-	
-	/**
-	 * <p>A NegaScout algorithm based on the one proposed by Alexander Reinefeld (1989). It identifies the most advantageous path in the search tree by
-	 * recursively computing the estimation of the specified node's subtree's value.</p>
-	 * @param board the playboard presenting the simulated game situation
-	 * @param node the node in the search tree corresponding the simulated game situation
-	 * @param alpha the lower search bound
-	 * @param beta the upper search bound
-	 * @param color the color of the initial player's men
-	 * @param currentPlayer the color of the current player's men
-	 * @param comparables the set of moves already tested while computing the estimation for sibling nodes (used for implementation of the killer
-	 * heuristic)
-	 * @return the estimation of the node's subtree's advantageousness
-	 */
-	private int negaScout(Playboard board, SearchTree.Node node, int alpha, int beta, boolean color, boolean currentPlayer, MultiPrioritySet<Move> comparables) {
-		if (!node.hasChild()) {
-			if (board.allMenOnBoard(true, false) == 3 && board.allMenOnBoard(false, false) == 3)
-				return 0; //Handle a draw situation
-			return currentPlayer ^ color ? -evaluate(board, color) : evaluate(board, color);
-		}
-		MultiPrioritySet<Move> priority = new MultiPrioritySet<Move>(comparators);
-		SearchTree.Node child = node.pop();
-		board.updateByAI(child.getMove(), false);
-		boolean branch = child.getDepth() < maxDepth;
-		if (branch) {
+		}
+		SearchStats stats = new SearchStats(first, Arrays.copyOf(iterationNodes, iterations), Arrays.copyOf(iterationTimes,
+				iterations), nodes, leaves, cutoffs, researches, threads, search.score, principalVariation);
+		if (completed)
+			statistics = stats;
+		for (SearchListener listener : listeners) {
+			if (completed)
+				listener.searchCompleted(stats);
+			else
+				listener.iterationCompleted(stats);
+		}
+	}
+	
+	/**
+	 * <p>Returns the move ordering of the specified thread, aged for a new search.</p>
+	 * @param thread the index of the thread, {@code 0} for the main search, {@code threads} for the thread pondering
+	 * @param depth the maximal depth of the search
+	 * @return the move ordering
+	 */
+	private MoveOrdering ordering(int thread, int depth) {
+		if (orderings[thread] == null || !orderings[thread].supports(depth))
+			orderings[thread] = new MoveOrdering(Math.max(depth, MAX_DEPTH));
+		else
+			orderings[thread].newSearch();
+		return orderings[thread];
+	}
+	
+	/**
+	 * <p>Stops the helper threads of a search and waits for them to terminate.</p>
+	 */
+	private void stopHelpers() {
+		stopped = true;
+		if (running == null)
+			return;
+		for (Future<?> future : running) {
 			try {
-				child.addAll(board.possibleMoves(priority, new MultiPrioritySet<Move>(comparators), !currentPlayer), 1);
-				int estimation = -negaScout(board, child, -beta, -alpha, color, !currentPlayer, priority);
-				Move move = comparables.integrate(child.getMove());
-				comparables.remove(move);
-				move.raiseEstimation(estimation); //Killer-heuristic update
-				comparables.add(move);
-				alpha = alpha > estimation ? alpha : estimation;
+				future.get();
 			}
-			catch (GameLostException exc) {
-				alpha = Integer.MAX_VALUE;
+			catch (InterruptedException exc) {
+				Thread.currentThread().interrupt();
+			}
+			catch (ExecutionException exc) {
+				exc.getCause().printStackTrace();
 			}
 		}
-		if (alpha >= beta)
-			node.clear(); //Pruning
-		board.updateByAI(child.getMove(), true);
-		while (node.hasChild()) {
-			child = node.pop();
-			board.updateByAI(child.getMove(), false);
-			if (branch) {
-				try {
-					child.addAll(board.possibleMoves(priority, new MultiPrioritySet<Move>(comparators), !currentPlayer), 1);
+		running.clear();
+	}
+	
+	/**
+	 * <p>A single search on its own copy of the game situation. The main search and every helper thread own one.</p>
+	 * <p>Moves are handled as codes (see {@link Bitboard#encode(Move) Bitboard.encode}) written into one preallocated array
+	 * per ply, so that the search does not allocate any objects.</p>
+	 * @author Julian Betz
+	 * @version 1.03
+	 */
+	private class Search {
+		private final Bitboard board;
+		private final boolean color;
+		private final MoveOrdering ordering;
+		private final Tablebase tablebase;
+		private int maxDepth;
+		/**
+		 * <p>The buffers the possible moves are generated into, one per ply.</p>
+		 */
+		private final int[][] moves;
+		/**
+		 * <p>The moves expected to be carried out from the root on, searched first.</p>
+		 */
+		private int[] line;
+		/**
+		 * <p>The number of moves of {@code line} leading to the game situation currently searched, if it lies on
+		 * {@code line}.</p>
+		 */
+		private int followed;
+		/**
+		 * <p>The point in time (in terms of {@link System#nanoTime()}) at which the search has to be aborted.</p>
+		 */
+		private long deadline;
+		/**
+		 * <p>Indicates that the search was aborted because the time was up or the search was stopped.</p>
+		 */
+		private boolean aborted;
+		/**
+		 * <p>The number of nodes visited by the search.</p>
+		 */
+		private long nodes;
+		/**
+		 * <p>The number of leaves evaluated by the search.</p>
+		 */
+		private long leaves;
+		/**
+		 * <p>The number of cutoffs of the search.</p>
+		 */
+		private long cutoffs;
+		/**
+		 * <p>The number of moves searched again with the full window after the null window search failed high.</p>
+		 */
+		private long researches;
+		/**
+		 * <p>The estimation of the move returned by the last call of {@link #searchRoot(int) searchRoot}.</p>
+		 */
+		private int score;
+		/**
+		 * <p>Indicates that the move returned by the last call of {@link #searchRoot(int) searchRoot} was chosen from the
+		 * tablebase, so searching deeper will not change it.</p>
+		 */
+		private boolean exact;
+		
+		/**
+		 * <p>Creates a search on the specified game situation.</p>
+		 * @param board the bitboard presenting the current game situation, owned by the search from now on
+		 * @param color the color of the men owned
+		 * @param depth the maximal depth the search will be carried out to
+		 * @param deadline the point in time at which the search has to be aborted
+		 * @param thread the index of the thread carrying out the search, {@code 0} for the main search, {@code threads} for the
+		 * thread pondering
+		 */
+		private Search(Bitboard board, boolean color, int depth, long deadline, int thread) {
+			this.board = board;
+			this.color = color;
+			this.deadline = deadline;
+			tablebase = ComputationalUnit.this.tablebase;
+			ordering = ordering(thread, depth);
+			moves = new int[depth + 1][Bitboard.MAX_MOVES];
+			line = new int[0];
+		}
+		
+		/**
+		 * <p>Searches all moves directly executable in the current situation up to the depth of {@code maxDepth}.</p>
+		 * @param preferred the code of the move to search first or {@code -1}
+		 * @return the code of an optimal move for the current game situation, or of any move if the search was aborted
+		 * @throws GameWonException if no moves can be carried out after the next move and the game will not end in a draw 
+		 * @throws GameDrawException if the game ends in a draw
+		 * @throws GameLostException if no moves can be carried out and the game does not end in a draw
+		 */
+		private int searchRoot(int preferred) throws GameWonException, GameDrawException, GameLostException {
+			if (board.isLost(color))
+				throw new GameLostException("less then 3 men", color);
+			int[] buffer = moves[0];
+			int count = board.generateMoves(color, buffer, 0);
+			if (count == 0)
+				throw new GameDrawException("No move can be carried out");
+			if (probe(color) != Tablebase.UNKNOWN)
+				return choose(buffer, count);
+			if (preferred < 0 && line.length > 0)
+				preferred = line[0];
+			ordering.order(buffer, count, 0, preferred, -1);
+			int nextMove = buffer[0];
+			int alpha = -Integer.MAX_VALUE, beta = Integer.MAX_VALUE;
+			for (int i = 0; i < count && !aborted; i++) {
+				int move = buffer[i];
+				board.make(move);
+				if (board.isLost(!color)) {
+					board.unmake(move);
+					throw new GameWonException("The game will be won after the next move", board.toMove(move));
+				}
+				followed = line.length > 0 && move == line[0] ? 1 : 0;
+				int estimation;
+				if (i == 0)
+					estimation = -negaScout(1, -beta, -alpha, !color, move);
+				else {
+					estimation = -negaScout(1, -alpha - 1, -alpha, !color, move);
+					if (alpha < estimation && estimation < beta) {
+						researches++;
+						estimation = -negaScout(1, -beta, -estimation, !color, move);
+					}
+				}
+				board.unmake(move);
+				if (i == 0 || alpha < estimation) {
+					alpha = estimation;
+					nextMove = move;
+				}
+			}
+			score = alpha;
+			return nextMove;
+		}
+		
+		/**
+		 * <p>A NegaScout algorithm based on the one proposed by Alexander Reinefeld (1989). It identifies the most advantageous path
+		 * in the search tree by recursively computing the estimation of the current game situation's subtree's value.</p>
+		 * @param ply the number of moves carried out since the root of the search
+		 * @param alpha the lower search bound
+		 * @param beta the upper search bound
+		 * @param currentPlayer the color of the current player's men
+		 * @param previous the code of the move leading to the game situation
+		 * @return the estimation of the game situation's subtree's advantageousness
+		 * @see TranspositionTable
+		 */
+		private int negaScout(int ply, int alpha, int beta, boolean currentPlayer, int previous) {
+			if (board.isLost(currentPlayer))
+				return -Integer.MAX_VALUE;
+			int value = probe(currentPlayer);
+			if (value != Tablebase.UNKNOWN)
+				return Tablebase.score(value); //The exact value replaces search and evaluation
+			int[] buffer = moves[ply];
+			int count = ply < maxDepth ? board.generateMoves(currentPlayer, buffer, 0) : 0;
+			if (count == 0) {
+				if (board.allMenOnBoard(true) == 3 && board.allMenOnBoard(false) == 3)
+					return 0; //Handle a draw situation
+				leaves++;
+				return currentPlayer ^ color ? -evaluate(board, color) : evaluate(board, color);
+			}
+			if (aborted || stopped || (++nodes & CHECK_INTERVAL) == 0 && System.nanoTime() > deadline) {
+				aborted = true;
+				return 0; //The result will be discarded
+			}
+			//Look up the results of former visits of the game situation
+			long key = board.getHash(currentPlayer);
+			int draft = maxDepth - ply;
+			int alphaOrig = alpha, bestMove = -1;
+			long entry = table.probe(key);
+			if (entry != 0 && TranspositionTable.depth(entry) >= draft) {
+				int score = TranspositionTable.score(entry);
+				int bound = TranspositionTable.bound(entry);
+				if (bound == TranspositionTable.EXACT || bound == TranspositionTable.LOWER && score >= beta
+						|| bound == TranspositionTable.UPPER && score <= alpha)
+					return score;
+			}
+			//Search the best move of former visits first, or the one of the principal variation of the last search
+			int preferred = entry != 0 ? TranspositionTable.move(entry) : -1;
+			boolean onLine = followed == ply && ply < line.length;
+			if (onLine && preferred < 0)
+				preferred = line[ply];
+			ordering.order(buffer, count, ply, preferred, previous);
+			for (int i = 0; i < count; i++) {
+				int move = buffer[i];
+				if (onLine)
+					followed = move == line[ply] ? ply + 1 : ply;
+				board.make(move);
+				int estimation;
+				if (i == 0)
+					estimation = -negaScout(ply + 1, -beta, -alpha, !currentPlayer, move);
+				else {
+					estimation = -negaScout(ply + 1, -alpha - 1, -alpha, !currentPlayer, move);
+					if (alpha < estimation && estimation < beta) {
+						researches++;
+						estimation = -negaScout(ply + 1, -beta, -estimation, !currentPlayer, move);
+					}
+				}
+				board.unmake(move);
+				if (aborted)
+					break; //The estimation of an aborted subtree is a placeholder
+				if (alpha < estimation) {
+					alpha = estimation;
+					bestMove = move;
+				}
+				if (alpha >= beta) {
+					cutoffs++;
+					ordering.cutoff(move, ply, draft, previous);
+					break; //Pruning
+				}
+			}
+			if (aborted)
+				return 0;
+			table.store(key, draft, alpha <= alphaOrig ? TranspositionTable.UPPER : alpha >= beta ? TranspositionTable.LOWER
+					: TranspositionTable.EXACT, alpha, bestMove);
+			return alpha;
+		}
+		
+		/**
+		 * <p>Chooses the move leading to the fastest win, a draw or the slowest loss according to the tablebase.</p>
+		 * @param buffer the codes of the moves possible in the current game situation
+		 * @param count the number of moves
+		 * @return the code of the move chosen
+		 * @throws GameWonException if the game will be won after the next move
+		 */
+		private int choose(int[] buffer, int count) throws GameWonException {
+			int nextMove = buffer[0];
+			score = -Integer.MAX_VALUE;
+			for (int i = 0; i < count; i++) {
+				int move = buffer[i];
+				board.make(move);
+				if (board.isLost(!color)) {
+					board.unmake(move);
+					throw new GameWonException("The game will be won after the next move", board.toMove(move));
 				}
-				catch (GameLostException exc) {
-					alpha = Integer.MAX_VALUE;
+				int estimation = -Tablebase.score(probe(!color));
+				board.unmake(move);
+				if (score < estimation) {
+					score = estimation;
+					nextMove = move;
 				}
 			}
-			int estimation = -negaScout(board, child, -alpha - 1, -alpha, color, !currentPlayer, priority);
-			if (alpha < estimation && estimation < beta)
-				estimation = -negaScout(board, child, -beta, -estimation, color, !currentPlayer, priority);
-			Move move = comparables.integrate(child.getMove());
-			comparables.remove(move);
-			move.raiseEstimation(estimation); //Killer-heuristic update
-			comparables.add(move);
-			alpha = alpha > estimation ? alpha : estimation;
-			if (alpha >= beta)
-				node.clear(); //Pruning
-			board.updateByAI(child.getMove(), true);
+			exact = true;
+			return nextMove;
+		}
+		
+		/**
+		 * @param currentPlayer the color of the current player's men
+		 * @return the value of the current game situation in the tablebase or {@link Tablebase#UNKNOWN} if it is not contained
+		 */
+		private int probe(boolean currentPlayer) {
+			if (tablebase == null || !board.allMenSet())
+				return Tablebase.UNKNOWN;
+			return tablebase.probe(board.getMen(currentPlayer), board.getMen(!currentPlayer));
 		}
-		return alpha;
 	}
 	
 	/**
-	 * <p>Evaluates the game situation presented by the playboard using heuristics.</p>
-	 * @param board the playboard the information about the game situation is stored in
-	 * @param color the color of the men owned
-	 * @return an estimation {@code e} of the advantageousness of the game situation so that {@code Integer.MIN_VALUE < e <
-	 * Integer.MAX_VALUE}
+	 * <p>The result of the last iteration completed by pondering on a game situation.</p>
+	 * @author Julian Betz
+	 * @version 1.00
 	 */
-	private int evaluate(Playboard board, boolean color) {
-		return board.allMenOnBoard(color, false) - board.allMenOnBoard(!color, false) + 3 * (board.numberOfMills(color)
-				- board.numberOfMills(!color));
+	private static final class Pondered {
+		private final int move;
+		private final int depth;
+		private final int score;
+		private final boolean exact;
+		
+		private Pondered(int move, int depth, int score, boolean exact) {
+			this.move = move;
+			this.depth = depth;
+			this.score = score;
+			this.exact = exact;
+		}
 	}
 }
@@ -0,0 +1,135 @@
+package application.ai;
+
+import domain.represent.Bitboard;
+
+/**
+ * <p>Decides in which order the moves of a game situation are searched. The earlier a good move is searched, the more often
+ * the remaining moves can be pruned.</p>
+ * <p>The best move of former visits (taken from the {@link TranspositionTable TranspositionTable}) is searched first, followed
+ * by all moves closing a mill. The remaining moves are ordered by the following heuristics, all of them looked up in plain
+ * arrays:</p>
+ * <ul>
+ * <li>two killer moves per ply, i.e. the last moves that caused a cutoff in a sibling game situation,</li>
+ * <li>the countermove, i.e. the last move that caused a cutoff in reply to the previous move, and</li>
+ * <li>the history of every move, i.e. how often and how deep moving a man from one field to another caused a cutoff.</li>
+ * </ul>
+ * <p>Information collected in former searches is aged by {@link #newSearch() newSearch}: killer moves are forgotten as the
+ * plies do not correspond anymore, and the history is halved so that recent cutoffs count more.</p>
+ * <p>An instance must only be used by a single thread at a time.</p>
+ * @author Julian Betz
+ * @version 1.00
+ */
+class MoveOrdering {
+	/**
+	 * <p>The scores of the move of the transposition table, moves closing a mill, killer moves and countermoves. The history
+	 * scores of all other moves stay below {@code COUNTER}.</p>
+	 */
+	private static final int PREFERRED = 1 << 30, CAPTURE = 1 << 29, KILLER = 1 << 28, COUNTER = 1 << 27;
+	/**
+	 * <p>The two killer moves of every ply, {@code 0} if there is none.</p>
+	 */
+	private final int[][] killers;
+	/**
+	 * <p>The history scores, indexed by colour, field (or pile) the man is picked up from and field the man is set to.</p>
+	 */
+	private final int[][][] history;
+	/**
+	 * <p>The countermoves, indexed by the field (or pile) the man is picked up from and the field the man is set to by the
+	 * previous move.</p>
+	 */
+	private final int[][] counters;
+	/**
+	 * <p>The scores of the moves being ordered, one buffer per ply.</p>
+	 */
+	private final int[][] scores;
+
+	/**
+	 * <p>Creates an ordering without any information about former searches.</p>
+	 * @param depth the maximal number of plies of a search
+	 */
+	MoveOrdering(int depth) {
+		killers = new int[depth + 1][2];
+		history = new int[2][32][32];
+		counters = new int[32][32];
+		scores = new int[depth + 1][Bitboard.MAX_MOVES];
+	}
+
+	/**
+	 * @param depth a number of plies
+	 * @return true if this ordering can be used by a search of the specified depth
+	 */
+	boolean supports(int depth) {
+		return killers.length > depth;
+	}
+
+	/**
+	 * <p>Ages the information collected so far before a new search is started.</p>
+	 */
+	void newSearch() {
+		for (int[] killer : killers) {
+			killer[0] = 0;
+			killer[1] = 0;
+		}
+		for (int[][] colour : history)
+			for (int[] from : colour)
+				for (int to = 0; to < from.length; to++)
+					from[to] >>= 1;
+	}
+
+	/**
+	 * <p>Sorts the specified moves so that the most promising move comes first.</p>
+	 * @param moves the codes of the moves
+	 * @param count the number of moves
+	 * @param ply the number of moves carried out since the root of the search
+	 * @param preferred the code of the best move of former visits or {@code -1}
+	 * @param previous the code of the move leading to the game situation or {@code -1} at the root
+	 */
+	void order(int[] moves, int count, int ply, int preferred, int previous) {
+		int[] score = scores[ply];
+		int counter = previous < 0 ? 0 : counters[Bitboard.from(previous)][Bitboard.to(previous)];
+		for (int i = 0; i < count; i++) {
+			int move = moves[i];
+			int value;
+			if (move == preferred)
+				value = PREFERRED;
+			else if (Bitboard.capture(move) != Bitboard.NO_CAPTURE)
+				value = CAPTURE;
+			else if (move == killers[ply][0])
+				value = KILLER + 1;
+			else if (move == killers[ply][1])
+				value = KILLER;
+			else if (move == counter)
+				value = COUNTER;
+			else
+				value = history[Bitboard.colour(move) ? 0 : 1][Bitboard.from(move)][Bitboard.to(move)];
+			//Insertion sort, the number of moves is small
+			int j = i;
+			for (; j > 0 && score[j - 1] < value; j--) {
+				score[j] = score[j - 1];
+				moves[j] = moves[j - 1];
+			}
+			score[j] = value;
+			moves[j] = move;
+		}
+	}
+
+	/**
+	 * <p>Records that the specified move caused a cutoff. Moves closing a mill are ordered first anyway and thus not recorded.</p>
+	 * @param move the code of the move
+	 * @param ply the number of moves carried out since the root of the search before the move
+	 * @param draft the remaining depth of the search below the game situation the move was carried out in
+	 * @param previous the code of the move leading to that game situation or {@code -1} at the root
+	 */
+	void cutoff(int move, int ply, int draft, int previous) {
+		if (Bitboard.capture(move) != Bitboard.NO_CAPTURE)
+			return;
+		if (killers[ply][0] != move) {
+			killers[ply][1] = killers[ply][0];
+			killers[ply][0] = move;
+		}
+		if (previous >= 0)
+			counters[Bitboard.from(previous)][Bitboard.to(previous)] = move;
+		int[] entry = history[Bitboard.colour(move) ? 0 : 1][Bitboard.from(move)];
+		entry[Bitboard.to(move)] = Math.min(entry[Bitboard.to(move)] + draft * draft, COUNTER - 1);
+	}
+}
@@ -0,0 +1,223 @@
+package application.ai;
+
+import domain.represent.Bitboard;
+import domain.represent.Playboard;
+import foundation.exception.GameDrawException;
+import foundation.exception.GameLostException;
+import foundation.exception.GameWonException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>A collection of precomputed moves for the first plies of the phase of setting men, starting with the empty board.
+ * These game situations are the most expensive ones to search as every man may be set to almost every field.</p>
+ * <p>A game situation is identified by its Zobrist hash (see {@link Bitboard#getHash(boolean) Bitboard.getHash}), which
+ * includes the player to move. The book stores the hashes in ascending order, each followed by the code of the move to
+ * carry out, so a move is found by binary search. As a hash may collide with the one of a game situation not contained, the
+ * move found is only returned if it can be carried out.</p>
+ * <p>The book is created by {@link #build(Path, int, int) build} (also available as {@link #main(String[]) main}) and read
+ * as a whole by {@link #open(Path) open}.</p>
+ * @author Julian Betz
+ * @version 1.00
+ */
+public class OpeningBook {
+	/**
+	 * <p>The value returned by {@link #probe(Bitboard, boolean) probe} if the game situation is not contained in the book.</p>
+	 */
+	public static final int NO_MOVE = -1;
+	/**
+	 * <p>The number of plies and the depth of the searches of a book built by {@link #main(String[]) main} by default.</p>
+	 */
+	public static final int DEFAULT_PLIES = 4, DEFAULT_DEPTH = 8;
+	/**
+	 * <p>The number of plies of the phase of setting men.</p>
+	 */
+	private static final int MAX_PLIES = 18;
+	/**
+	 * <p>Identifies the file format.</p>
+	 */
+	private static final long MAGIC = 0x4E4D4D424F4F4B31L;
+	/**
+	 * <p>The number of bytes preceding the first entry in a file.</p>
+	 */
+	private static final int HEADER = 16;
+	/**
+	 * <p>The number of bytes of an entry: the hash and the code of the move.</p>
+	 */
+	private static final int ENTRY = 10;
+	/**
+	 * <p>The hashes of the game situations in ascending order.</p>
+	 */
+	private final long[] keys;
+	/**
+	 * <p>The codes of the moves, in the order of {@code keys}.</p>
+	 */
+	private final short[] moves;
+
+	/**
+	 * @param keys the hashes of the game situations in ascending order
+	 * @param moves the codes of the moves
+	 */
+	private OpeningBook(long[] keys, short[] moves) {
+		this.keys = keys;
+		this.moves = moves;
+	}
+
+	/**
+	 * <p>Reads a book stored by {@link #build(Path, int, int) build}.</p>
+	 * @param file the file the book is stored in
+	 * @return the book
+	 * @throws IOException if the file cannot be read or is no book
+	 */
+	public static OpeningBook open(Path file) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+		if (buffer.remaining() < HEADER || buffer.getLong() != MAGIC)
+			throw new IOException("Not an opening book: " + file);
+		int size = buffer.getInt();
+		buffer.getInt();
+		if (size < 0 || buffer.remaining() != (long) size * ENTRY)
+			throw new IOException("Corrupt opening book: " + file);
+		long[] keys = new long[size];
+		short[] moves = new short[size];
+		for (int i = 0; i < size; i++) {
+			keys[i] = buffer.getLong();
+			moves[i] = buffer.getShort();
+			if (i > 0 && keys[i - 1] >= keys[i])
+				throw new IOException("Corrupt opening book: " + file);
+		}
+		return new OpeningBook(keys, moves);
+	}
+
+	/**
+	 * @return the number of game situations contained
+	 */
+	public int size() {
+		return keys.length;
+	}
+
+	/**
+	 * <p>Looks up the move to carry out in the specified game situation.</p>
+	 * @param board the bitboard presenting the game situation
+	 * @param colour the colour of the player to move
+	 * @return the code of the move (see {@link Bitboard#encode(foundation.data.Move) Bitboard.encode}) or {@link #NO_MOVE} if
+	 * the game situation is not contained
+	 */
+	public int probe(Bitboard board, boolean colour) {
+		int i = Arrays.binarySearch(keys, board.getHash(colour));
+		if (i < 0)
+			return NO_MOVE;
+		int move = moves[i] & 0xFFFF;
+		int[] buffer = new int[Bitboard.MAX_MOVES];
+		int count = board.generateMoves(colour, buffer, 0);
+		for (int j = 0; j < count; j++)
+			if (buffer[j] == move)
+				return move;
+		return NO_MOVE; //The hash collides with the one of another game situation
+	}
+
+	/**
+	 * <p>Creates a book covering the specified number of plies from the empty board and stores it in the specified file.</p>
+	 * <p>The book holds the moves of both colours, whichever of them starts. For the player the book is built for, only the game
+	 * situations reached by moves of the book are contained, but every reply of the opponent is. The game situations are
+	 * processed ply by ply, the ones of a ply being searched in parallel, every thread with its own
+	 * {@link ComputationalUnit ComputationalUnit}.</p>
+	 * @param file the file to store the book in, replaced if it exists
+	 * @param plies the number of plies covered
+	 * @param depth the depth of the searches
+	 * @throws IOException if the file cannot be written
+	 * @throws IllegalArgumentException if {@code plies} is not between {@code 1} and {@value #MAX_PLIES} or if
+	 * {@code depth<2}
+	 */
+	public static void build(Path file, int plies, int depth) throws IOException {
+		if (plies < 1 || plies > MAX_PLIES)
+			throw new IllegalArgumentException("The number of plies must be between 1 and " + MAX_PLIES);
+		if (depth < 2)
+			throw new IllegalArgumentException("The depth must be at least 2");
+		Playboard empty = new Playboard();
+		empty.testSetter("empty");
+		Map<Long, Integer> entries = new ConcurrentHashMap<Long, Integer>();
+		ThreadLocal<ComputationalUnit> units = ThreadLocal.withInitial(() -> new ComputationalUnit());
+		for (boolean first : new boolean[] {true, false})
+			for (boolean colour : new boolean[] {true, false}) {
+				List<Bitboard> positions = new ArrayList<Bitboard>();
+				positions.add(new Bitboard(empty));
+				for (int ply = 0; ply < plies && !positions.isEmpty(); ply++) {
+					boolean toMove = first ^ (ply & 1) == 1;
+					List<Bitboard> next = new ArrayList<Bitboard>();
+					if (toMove == colour) {
+						positions.parallelStream().forEach((Bitboard position) -> {
+							try {
+								entries.put(position.getHash(toMove), units.get().search(position, toMove, depth));
+							}
+							catch (GameWonException | GameDrawException | GameLostException exc) {
+								//The game is decided, there is nothing left to look up
+							}
+						});
+						for (Bitboard position : positions) {
+							Integer move = entries.get(position.getHash(toMove));
+							if (move != null)
+								next.add(successor(position, move));
+						}
+					}
+					else {
+						int[] buffer = new int[Bitboard.MAX_MOVES];
+						HashSet<Long> reached = new HashSet<Long>();
+						for (Bitboard position : positions) {
+							int count = position.generateMoves(toMove, buffer, 0);
+							for (int i = 0; i < count; i++) {
+								Bitboard successor = successor(position, buffer[i]);
+								if (reached.add(successor.getHash(!toMove)))
+									next.add(successor);
+							}
+						}
+					}
+					positions = next;
+				}
+			}
+		TreeMap<Long, Integer> sorted = new TreeMap<Long, Integer>(entries);
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER + sorted.size() * ENTRY).putLong(MAGIC).putInt(sorted.size()).putInt(0);
+		for (Map.Entry<Long, Integer> entry : sorted.entrySet())
+			buffer.putLong(entry.getKey()).putShort((short) (int) entry.getValue());
+		Files.write(file, buffer.array());
+	}
+
+	/**
+	 * @param position a bitboard, not modified
+	 * @param move the code of a move possible on the bitboard
+	 * @return a new bitboard presenting the game situation after the move
+	 */
+	private static Bitboard successor(Bitboard position, int move) {
+		Bitboard successor = new Bitboard(position);
+		successor.make(move);
+		return successor;
+	}
+
+	/**
+	 * <p>Stores the book created with the number of plies and the depth specified as second and third argument (default
+	 * {@value #DEFAULT_PLIES} and {@value #DEFAULT_DEPTH}) in the file specified as first argument.</p>
+	 * @param args the file and optionally the number of plies and the depth
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.err.println("Usage: OpeningBook <file> [plies] [depth]");
+			return;
+		}
+		int plies = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PLIES;
+		int depth = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_DEPTH;
+		long start = System.nanoTime();
+		build(Paths.get(args[0]), plies, depth);
+		System.out.println("Built in " + (System.nanoTime() - start) / 1000000000 + " s");
+	}
+}
@@ -0,0 +1,23 @@
+package application.ai;
+
+/**
+ * <p>Is notified about the progress of the searches of a {@link ComputationalUnit ComputationalUnit}.</p>
+ * <p>The methods are called by the thread carrying out the search, which waits for them to return. They should therefore
+ * return quickly.</p>
+ * @author Julian Betz
+ * @version 1.00
+ * @see ComputationalUnit#addSearchListener(SearchListener)
+ */
+public interface SearchListener {
+	/**
+	 * <p>Called whenever an iteration of a search is completed.</p>
+	 * @param stats the statistics of the search up to the iteration
+	 */
+	void iterationCompleted(SearchStats stats);
+
+	/**
+	 * <p>Called when a search is completed, after the helper threads have terminated.</p>
+	 * @param stats the statistics of the whole search
+	 */
+	void searchCompleted(SearchStats stats);
+}
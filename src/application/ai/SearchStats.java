@@ -0,0 +1,173 @@
+package application.ai;
+
+import foundation.data.Move;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>The statistics of a search carried out by a {@link ComputationalUnit ComputationalUnit}, either of a completed iteration
+ * (passed to a {@link SearchListener SearchListener}) or of a whole search (see
+ * {@link ComputationalUnit#getStatistics() getStatistics}).</p>
+ * <p>Every thread of a search counts into fields of its own without any synchronization. The counters of the helper threads
+ * are only added when the search is completed, so the statistics of an iteration cover the main search only.</p>
+ * <p>Nodes are the game situations whose moves were searched, leaves the ones estimated by the evaluation heuristics. A
+ * cutoff is counted whenever the remaining moves of a game situation are pruned, a re-search whenever the null window search
+ * of a move failed high and the move had to be searched again with the full window.</p>
+ * @author Julian Betz
+ * @version 1.00
+ */
+public final class SearchStats {
+	private final int firstDepth;
+	private final long[] iterationNodes;
+	private final long[] iterationTimes;
+	private final long nodes;
+	private final long leaves;
+	private final long cutoffs;
+	private final long researches;
+	private final int threads;
+	private final int score;
+	private final List<Move> principalVariation;
+
+	/**
+	 * @param firstDepth the depth of the first iteration
+	 * @param iterationNodes the numbers of nodes visited by the completed iterations
+	 * @param iterationTimes the durations of the completed iterations in nanoseconds
+	 * @param nodes the number of nodes visited
+	 * @param leaves the number of leaves evaluated
+	 * @param cutoffs the number of cutoffs
+	 * @param researches the number of re-searches
+	 * @param threads the number of threads the counters are summed up over
+	 * @param score the estimation of the move chosen by the last completed iteration
+	 * @param principalVariation the moves expected to be carried out by both players
+	 */
+	SearchStats(int firstDepth, long[] iterationNodes, long[] iterationTimes, long nodes, long leaves, long cutoffs,
+			long researches, int threads, int score, List<Move> principalVariation) {
+		this.firstDepth = firstDepth;
+		this.iterationNodes = iterationNodes;
+		this.iterationTimes = iterationTimes;
+		this.nodes = nodes;
+		this.leaves = leaves;
+		this.cutoffs = cutoffs;
+		this.researches = researches;
+		this.threads = threads;
+		this.score = score;
+		this.principalVariation = Collections.unmodifiableList(principalVariation);
+	}
+
+	/**
+	 * @return the depth of the deepest completed iteration or {@code 0} if no iteration was completed
+	 */
+	public int getDepth() {
+		return iterationNodes.length == 0 ? 0 : firstDepth + iterationNodes.length - 1;
+	}
+
+	/**
+	 * @param depth the depth of a completed iteration
+	 * @return the number of nodes visited by the main search in the iteration
+	 * @throws IllegalArgumentException if no iteration of the specified depth was completed
+	 */
+	public long getNodes(int depth) {
+		return iterationNodes[iteration(depth)];
+	}
+
+	/**
+	 * @param depth the depth of a completed iteration
+	 * @return the time spent on the iteration
+	 * @throws IllegalArgumentException if no iteration of the specified depth was completed
+	 */
+	public Duration getTime(int depth) {
+		return Duration.ofNanos(iterationTimes[iteration(depth)]);
+	}
+
+	/**
+	 * @return the time spent on all completed iterations
+	 */
+	public Duration getTime() {
+		long time = 0;
+		for (long iteration : iterationTimes)
+			time += iteration;
+		return Duration.ofNanos(time);
+	}
+
+	/**
+	 * @return the effective branching factor, i.e. the ratio of the numbers of nodes visited by the last two completed
+	 * iterations, or {@code NaN} if less than two iterations were completed
+	 */
+	public double getBranchingFactor() {
+		int last = iterationNodes.length - 1;
+		if (last < 1 || iterationNodes[last - 1] == 0)
+			return Double.NaN;
+		return (double) iterationNodes[last] / iterationNodes[last - 1];
+	}
+
+	/**
+	 * @return the number of nodes visited by all threads
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * @return the number of leaves evaluated by all threads
+	 */
+	public long getLeaves() {
+		return leaves;
+	}
+
+	/**
+	 * @return the number of cutoffs of all threads
+	 */
+	public long getCutoffs() {
+		return cutoffs;
+	}
+
+	/**
+	 * @return the number of re-searches of all threads
+	 */
+	public long getResearches() {
+		return researches;
+	}
+
+	/**
+	 * @return the number of threads the counters are summed up over
+	 */
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * @return the estimation of the move chosen by the last completed iteration
+	 */
+	public int getScore() {
+		return score;
+	}
+
+	/**
+	 * @return the moves expected to be carried out by both players, starting with the move chosen
+	 */
+	public List<Move> getPrincipalVariation() {
+		return principalVariation;
+	}
+
+	/**
+	 * @param depth the depth of a completed iteration
+	 * @return the index of the iteration
+	 * @throws IllegalArgumentException if no iteration of the specified depth was completed
+	 */
+	private int iteration(int depth) {
+		if (depth < firstDepth || depth > getDepth())
+			throw new IllegalArgumentException("No iteration of depth " + depth + " was completed");
+		return depth - firstDepth;
+	}
+
+	@Override
+	public String toString() {
+		return "depth " + getDepth() + ", score " + score + ", " + nodes + " nodes, " + leaves + " leaves, " + cutoffs
+				+ " cutoffs, " + researches + " re-searches, branching factor " + String.format("%.2f", getBranchingFactor())
+				+ ", " + getTime().toMillis() + " ms on " + threads + " thread(s), nodes per iteration "
+				+ Arrays.toString(iterationNodes) + ", principal variation " + principalVariation;
+	}
+}
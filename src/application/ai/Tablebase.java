@@ -0,0 +1,425 @@
+package application.ai;
+
+import domain.represent.Bitboard;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/**
+ * <p>A database holding the exact values of all game situations of the phase of moving men with up to a certain number of
+ * men per player.</p>
+ * <p>A game situation is identified by the men of the player to move ({@code m} men) and the men of the opponent
+ * ({@code n} men). As all men have been set, the piles follow from these numbers. For every pair {@code (m, n)} there is a
+ * table holding one byte per game situation. The index of a game situation is the rank of the player's men among all
+ * combinations of {@code m} out of {@code 24} fields, multiplied by the number of combinations of {@code n} out of the
+ * remaining {@code 24-m} fields, plus the rank of the opponent's men among those combinations. This way, the tables
+ * contain no gaps and need no further compression to be probed in constant time.</p>
+ * <p>A value of {@code 0} marks a draw, a value {@code d>0} a win in {@code d} moves and a value {@code d<0} a loss in
+ * {@code -d} moves of both players.</p>
+ * <p>The database is created by {@link #generate(Path, int) generate} (also available as {@link #main(String[]) main}) and
+ * stored in a file that is memory-mapped by {@link #open(Path) open}, so only the pages probed are loaded into memory.</p>
+ * <p>The rules equal the ones of {@link Bitboard#generateMovingMoves(int, int, int[], int) Bitboard.generateMovingMoves}:
+ * a player with less than three men has lost, the game ends in a draw if both players have three men left or if the player
+ * to move cannot move.</p>
+ * @author Julian Betz
+ * @version 1.00
+ */
+public class Tablebase {
+	/**
+	 * <p>The value returned by {@link #probe(int, int) probe} if the game situation is not contained in the database.</p>
+	 */
+	public static final int UNKNOWN = Byte.MIN_VALUE;
+	/**
+	 * <p>The minimal and maximal number of men per player that may be covered by a database.</p>
+	 */
+	public static final int MIN_MEN = 3, MAX_MEN = 5;
+	/**
+	 * <p>The number of men per player covered by default.</p>
+	 */
+	public static final int DEFAULT_MEN = 4;
+	/**
+	 * <p>Identifies the file format.</p>
+	 */
+	private static final long MAGIC = 0x4E4D4D5442310000L;
+	/**
+	 * <p>The number of bytes preceding the first table in a file.</p>
+	 */
+	private static final int HEADER = 16;
+	/**
+	 * <p>The binomial coefficients {@code BINOMIAL[n][k]} up to {@code n=24}.</p>
+	 */
+	private static final long[][] BINOMIAL = new long[25][25];
+
+	static {
+		for (int n = 0; n <= 24; n++) {
+			BINOMIAL[n][0] = 1;
+			for (int k = 1; k <= n; k++)
+				BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + BINOMIAL[n - 1][k];
+		}
+	}
+
+	private final int maxMen;
+	/**
+	 * <p>The tables indexed by the number of men of the player to move and the number of men of the opponent.</p>
+	 */
+	private final ByteBuffer[][] tables;
+
+	/**
+	 * @param maxMen the maximal number of men per player covered
+	 * @param tables the tables
+	 */
+	private Tablebase(int maxMen, ByteBuffer[][] tables) {
+		this.maxMen = maxMen;
+		this.tables = tables;
+	}
+
+	/**
+	 * <p>Opens a database stored by {@link #generate(Path, int) generate}.</p>
+	 * @param file the file the database is stored in
+	 * @return the database
+	 * @throws IOException if the file cannot be read or is no database
+	 */
+	public static Tablebase open(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER);
+			while (header.hasRemaining() && channel.read(header) >= 0);
+			header.flip();
+			if (header.remaining() < HEADER || header.getLong() != MAGIC)
+				throw new IOException("Not a tablebase: " + file);
+			int maxMen = header.getInt();
+			if (maxMen < MIN_MEN || maxMen > MAX_MEN || channel.size() != offset(maxMen + 1, MIN_MEN, maxMen))
+				throw new IOException("Corrupt tablebase: " + file);
+			ByteBuffer[][] tables = new ByteBuffer[maxMen + 1][maxMen + 1];
+			for (int m = MIN_MEN; m <= maxMen; m++)
+				for (int n = MIN_MEN; n <= maxMen; n++)
+					tables[m][n] = channel.map(FileChannel.MapMode.READ_ONLY, offset(m, n, maxMen), size(m, n));
+			return new Tablebase(maxMen, tables);
+		}
+	}
+
+	/**
+	 * @return the maximal number of men per player covered
+	 */
+	public int getMaxMen() {
+		return maxMen;
+	}
+
+	/**
+	 * <p>Looks up the value of a game situation of the phase of moving men.</p>
+	 * @param own the men of the player to move as a mask (see {@link Bitboard#getMen(boolean) Bitboard.getMen})
+	 * @param opponent the men of the opponent as a mask
+	 * @return the value of the game situation for the player to move or {@link #UNKNOWN} if it is not covered
+	 */
+	public int probe(int own, int opponent) {
+		int m = Integer.bitCount(own), n = Integer.bitCount(opponent);
+		if (m < MIN_MEN || n < MIN_MEN || m > maxMen || n > maxMen || tables[m][n] == null)
+			return UNKNOWN;
+		return tables[m][n].get((int) index(own, opponent, m, n));
+	}
+
+	/**
+	 * <p>Converts a value of the database into an estimation as used by the search. Wins are estimated the higher the sooner
+	 * they are reached and losses the lower the sooner they are reached. All estimations of wins and losses are beyond
+	 * {@code +-(Integer.MAX_VALUE-128)}.</p>
+	 * @param value a value returned by {@link #probe(int, int) probe}, not {@link #UNKNOWN}
+	 * @return the estimation of the game situation for the player to move
+	 */
+	public static int score(int value) {
+		if (value > 0)
+			return Integer.MAX_VALUE - 1 - value;
+		if (value < 0)
+			return -Integer.MAX_VALUE + 1 - value;
+		return 0;
+	}
+
+	/**
+	 * <p>Creates a database covering all game situations with up to the specified number of men per player and stores it in the
+	 * specified file.</p>
+	 * <p>The tables are solved by retrograde analysis in the order of the total number of men, as closing a mill leads to a
+	 * game situation with one man less. The two tables of the same numbers of men are solved together in passes: the
+	 * {@code d}-th pass marks all game situations as won in {@code d} moves that have a successor lost in {@code d-1} moves and
+	 * all game situations as lost in {@code d} moves whose successors are all won in at most {@code d-1} moves. As a pass
+	 * only relies on results of former passes, all game situations of a pass are computed in parallel. Game situations not
+	 * decided when a pass changes nothing anymore are draws.</p>
+	 * <p>Only the two tables being solved are kept in memory. Tables already solved are written to the file and memory-mapped
+	 * from there.</p>
+	 * @param file the file to store the database in, replaced if it exists
+	 * @param maxMen the maximal number of men per player
+	 * @throws IOException if the file cannot be written
+	 * @throws IllegalArgumentException if {@code maxMen} is not between {@value #MIN_MEN} and {@value #MAX_MEN}
+	 */
+	public static void generate(Path file, int maxMen) throws IOException {
+		if (maxMen < MIN_MEN || maxMen > MAX_MEN)
+			throw new IllegalArgumentException("The number of men must be between " + MIN_MEN + " and " + MAX_MEN);
+		try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+			FileChannel channel = raf.getChannel();
+			raf.setLength(0);
+			raf.setLength(offset(maxMen + 1, MIN_MEN, maxMen));
+			ByteBuffer header = ByteBuffer.allocate(HEADER).putLong(MAGIC).putInt(maxMen);
+			header.rewind();
+			channel.write(header, 0);
+			ByteBuffer[][] tables = new ByteBuffer[maxMen + 1][maxMen + 1];
+			Tablebase tablebase = new Tablebase(maxMen, tables);
+			for (int total = 2 * MIN_MEN; total <= 2 * maxMen; total++) {
+				for (int m = Math.max(MIN_MEN, total - maxMen); 2 * m <= total; m++) {
+					int n = total - m;
+					tablebase.solveTables(m, n);
+					for (int[] pair : new int[][] {{m, n}, {n, m}}) {
+						ByteBuffer table = tables[pair[0]][pair[1]];
+						table.rewind();
+						long position = offset(pair[0], pair[1], maxMen);
+						while (table.hasRemaining())
+							position += channel.write(table, position);
+						tables[pair[0]][pair[1]] = channel.map(FileChannel.MapMode.READ_ONLY, offset(pair[0], pair[1], maxMen),
+								size(pair[0], pair[1]));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * <p>Creates a database in memory covering the game situations with up to the specified number of men per player and in
+	 * total, without storing it. Game situations with more men in total are not covered.</p>
+	 * @param maxMen the maximal number of men per player
+	 * @param maxTotal the maximal number of men of both players
+	 * @return the database
+	 * @throws IllegalArgumentException if {@code maxMen} is not between {@value #MIN_MEN} and {@value #MAX_MEN}
+	 */
+	static Tablebase generate(int maxMen, int maxTotal) {
+		if (maxMen < MIN_MEN || maxMen > MAX_MEN)
+			throw new IllegalArgumentException("The number of men must be between " + MIN_MEN + " and " + MAX_MEN);
+		Tablebase tablebase = new Tablebase(maxMen, new ByteBuffer[maxMen + 1][maxMen + 1]);
+		for (int total = 2 * MIN_MEN; total <= Math.min(2 * maxMen, maxTotal); total++)
+			for (int m = Math.max(MIN_MEN, total - maxMen); 2 * m <= total; m++)
+				tablebase.solveTables(m, total - m);
+		return tablebase;
+	}
+
+	/**
+	 * <p>Allocates and solves the tables of {@code (m, n)} and {@code (n, m)} men, all tables with less men being solved
+	 * already.</p>
+	 * @param m the number of men of one player
+	 * @param n the number of men of the other player
+	 */
+	private void solveTables(int m, int n) {
+		tables[m][n] = ByteBuffer.wrap(new byte[(int) size(m, n)]);
+		tables[n][m] = m == n ? tables[m][n] : ByteBuffer.wrap(new byte[(int) size(n, m)]);
+		byte[] first = tables[m][n].array(), second = tables[n][m].array();
+		java.util.Arrays.fill(first, (byte) UNKNOWN);
+		java.util.Arrays.fill(second, (byte) UNKNOWN);
+		int horizon = 0;
+		for (int a = MIN_MEN; a <= maxMen; a++)
+			for (int b = MIN_MEN; b <= maxMen; b++)
+				if (a + b < m + n && tables[a][b] != null)
+					horizon = Math.max(horizon, maxDistance(tables[a][b]));
+		AtomicBoolean changed = new AtomicBoolean();
+		for (int pass = 1;; pass++) {
+			if (pass > Byte.MAX_VALUE)
+				throw new IllegalStateException("The distances exceed the range of a byte");
+			changed.set(false);
+			int d = pass;
+			solvePass(m, n, d, changed);
+			if (m != n)
+				solvePass(n, m, d, changed);
+			if (!changed.get() && pass > horizon + 1)
+				break;
+		}
+		for (byte[] table : new byte[][] {first, second})
+			for (int i = 0; i < table.length; i++)
+				if (table[i] == UNKNOWN)
+					table[i] = 0;
+	}
+
+	/**
+	 * <p>Carries out a single pass over the table of {@code (m, n)} men.</p>
+	 * @param m the number of men of the player to move
+	 * @param n the number of men of the opponent
+	 * @param pass the number of the pass, i.e. the distance of the results of this pass
+	 * @param changed set if a result was found
+	 */
+	private void solvePass(int m, int n, int pass, AtomicBoolean changed) {
+		byte[] table = tables[m][n].array();
+		int[] owns = combinations(24, m), opponents = combinations(24 - m, n);
+		IntStream.range(0, owns.length).parallel().forEach((int rank) -> {
+			int[] moves = new int[Bitboard.MAX_MOVES];
+			boolean found = false;
+			int own = owns[rank];
+			long base = (long) rank * opponents.length;
+			for (int j = 0; j < opponents.length; j++) {
+				if (table[(int) (base + j)] != UNKNOWN)
+					continue;
+				int value = solve(own, expand(opponents[j], ~own & (1 << 24) - 1), m, n, pass, moves);
+				if (value != UNKNOWN) {
+					table[(int) (base + j)] = (byte) value;
+					found = true;
+				}
+			}
+			if (found)
+				changed.set(true);
+		});
+	}
+
+	/**
+	 * <p>Tries to decide a single game situation in the specified pass.</p>
+	 * @param own the men of the player to move
+	 * @param opponent the men of the opponent
+	 * @param m the number of men of the player to move
+	 * @param n the number of men of the opponent
+	 * @param pass the number of the pass
+	 * @param moves a buffer for the moves
+	 * @return the value of the game situation or {@link #UNKNOWN} if it is not decided in this pass
+	 */
+	private int solve(int own, int opponent, int m, int n, int pass, int[] moves) {
+		if (m == MIN_MEN && n == MIN_MEN)
+			return 0;
+		int count = Bitboard.generateMovingMoves(own, opponent, moves, 0);
+		if (count == 0)
+			return 0; //The player to move cannot move
+		boolean lost = true;
+		int longest = 0;
+		for (int i = 0; i < count; i++) {
+			int move = moves[i];
+			int moved = own & ~(1 << Bitboard.from(move)) | 1 << Bitboard.to(move);
+			int value;
+			if (Bitboard.capture(move) == Bitboard.NO_CAPTURE)
+				value = tables[n][m].get((int) index(opponent, moved, n, m));
+			else if (n == MIN_MEN)
+				return 1; //The opponent has lost, decided in the first pass
+			else {
+				int rest = opponent & ~(1 << Bitboard.capture(move));
+				value = tables[n - 1][m].get((int) index(rest, moved, n - 1, m));
+			}
+			if (value == UNKNOWN || value == 0)
+				lost = false;
+			else if (value < 0) {
+				if (1 - value == pass)
+					return pass;
+				lost = false;
+			}
+			else
+				longest = Math.max(longest, value);
+		}
+		return lost && longest + 1 == pass ? -pass : UNKNOWN;
+	}
+
+	/**
+	 * @param table a solved table
+	 * @return the maximal distance of a win or loss in the table
+	 */
+	private static int maxDistance(ByteBuffer table) {
+		int max = 0;
+		for (int i = 0; i < table.capacity(); i++)
+			max = Math.max(max, Math.abs(table.get(i)));
+		return max;
+	}
+
+	/**
+	 * <p>Stores the database created with the number of men per player specified as second argument (default
+	 * {@value #DEFAULT_MEN}) in the file specified as first argument.</p>
+	 * @param args the file and optionally the number of men
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.err.println("Usage: Tablebase <file> [men per player]");
+			return;
+		}
+		int men = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MEN;
+		long start = System.nanoTime();
+		generate(Paths.get(args[0]), men);
+		System.out.println("Generated in " + (System.nanoTime() - start) / 1000000000 + " s");
+	}
+
+	/**
+	 * @param m the number of men of the player to move
+	 * @param n the number of men of the opponent
+	 * @return the number of game situations in the table of {@code (m, n)} men
+	 */
+	static long size(int m, int n) {
+		return BINOMIAL[24][m] * BINOMIAL[24 - m][n];
+	}
+
+	/**
+	 * @param m the number of men of the player to move
+	 * @param n the number of men of the opponent
+	 * @param maxMen the maximal number of men per player in the file
+	 * @return the position of the table of {@code (m, n)} men in the file
+	 */
+	private static long offset(int m, int n, int maxMen) {
+		long offset = HEADER;
+		for (int a = MIN_MEN; a <= maxMen; a++)
+			for (int b = MIN_MEN; b <= maxMen; b++) {
+				if (a == m && b == n)
+					return offset;
+				offset += size(a, b);
+			}
+		return offset;
+	}
+
+	/**
+	 * @param own the men of the player to move
+	 * @param opponent the men of the opponent
+	 * @param m the number of men of the player to move
+	 * @param n the number of men of the opponent
+	 * @return the index of the game situation in the table of {@code (m, n)} men
+	 */
+	static long index(int own, int opponent, int m, int n) {
+		//Remove the fields occupied by the player to move from the opponent's mask
+		int compressed = 0;
+		for (int left = opponent; left != 0; left &= left - 1) {
+			int field = Integer.numberOfTrailingZeros(left);
+			compressed |= 1 << field - Integer.bitCount(own & (1 << field) - 1);
+		}
+		return rank(own) * BINOMIAL[24 - m][n] + rank(compressed);
+	}
+
+	/**
+	 * @param mask a combination of fields
+	 * @return the rank of the combination among all combinations of the same size in colexicographic order
+	 */
+	private static long rank(int mask) {
+		long rank = 0;
+		int k = 1;
+		for (int left = mask; left != 0; left &= left - 1)
+			rank += BINOMIAL[Integer.numberOfTrailingZeros(left)][k++];
+		return rank;
+	}
+
+	/**
+	 * @param n the number of fields
+	 * @param k the number of fields chosen
+	 * @return all combinations of {@code k} out of {@code n} fields as masks in colexicographic order
+	 */
+	private static int[] combinations(int n, int k) {
+		int[] rtn = new int[(int) BINOMIAL[n][k]];
+		int mask = (1 << k) - 1;
+		for (int i = 0; i < rtn.length; i++) {
+			rtn[i] = mask;
+			//Gosper's hack: the next larger number with the same number of bits
+			int lowest = mask & -mask, ripple = mask + lowest;
+			mask = ((ripple ^ mask) >>> 2) / lowest | ripple;
+		}
+		return rtn;
+	}
+
+	/**
+	 * @param compressed a combination of fields, numbered among the free fields only
+	 * @param free the free fields
+	 * @return the combination of fields numbered among all fields
+	 */
+	private static int expand(int compressed, int free) {
+		int rtn = 0;
+		for (int left = free; compressed != 0; left &= left - 1, compressed >>>= 1)
+			if ((compressed & 1) != 0)
+				rtn |= Integer.lowestOneBit(left);
+		return rtn;
+	}
+}
@@ -0,0 +1,165 @@
+package application.ai;
+
+/**
+ * <p>A fixed-size hash table storing results of the search for game situations that have already been visited.</p>
+ * <p>Game situations are identified by their Zobrist hash (see {@link domain.represent.Bitboard#getHash(boolean)
+ * Bitboard.getHash}). Every entry stores the remaining depth of the search below the game situation, the kind of bound the
+ * score represents, the score itself and the code of the best move found.</p>
+ * <p>The table is organized in buckets of two entries. The first entry of a bucket is replaced only by results of a deeper
+ * search or by results of a newer search, the second entry is replaced always. This way, valuable results of deep searches
+ * survive while recent results are still available.</p>
+ * <p>All data is stored in two arrays of primitive values so that the table does not allocate any memory after its
+ * construction.</p>
+ * <p>The table may be shared by several threads without locking. Instead of the hash itself, the hash xor the data of an
+ * entry is stored, so an entry torn by concurrent writes does not match any hash and is ignored by {@link #probe(long)
+ * probe}. Concurrent writes may lose entries, which only costs search time.</p>
+ * @author Julian Betz
+ * @version 1.01
+ */
+class TranspositionTable {
+	/**
+	 * <p>The kinds of bounds a score may represent. {@code EXACT} marks a score inside the search window, {@code LOWER} a score
+	 * that caused a cutoff and {@code UPPER} a score that did not exceed the lower search bound.</p>
+	 */
+	static final int EXACT = 1, LOWER = 2, UPPER = 3;
+	/**
+	 * <p>The number of bytes needed by a single entry.</p>
+	 */
+	private static final int ENTRY_SIZE = 16;
+	private final long[] keys;
+	private final long[] data;
+	private final int mask;
+	/**
+	 * <p>The age of the current search, used to identify entries of former searches.</p>
+	 */
+	private int age;
+
+	/**
+	 * <p>Constructs a table using at most the specified amount of memory.</p>
+	 * <p>The number of entries is the largest power of two fitting into the memory budget, but at least {@code 2}.</p>
+	 * @param megabytes the memory budget in megabytes
+	 * @throws IllegalArgumentException if {@code megabytes<0}
+	 */
+	TranspositionTable(int megabytes) {
+		if (megabytes < 0)
+			throw new IllegalArgumentException("The memory budget must not be negative");
+		long entries = Long.highestOneBit(Math.max(2, ((long) megabytes << 20) / ENTRY_SIZE));
+		entries = Math.min(entries, 1 << 30);
+		keys = new long[(int) entries];
+		data = new long[(int) entries];
+		mask = (int) entries - 1;
+		age = 0;
+	}
+
+	/**
+	 * <p>Marks all entries stored so far as belonging to a former search. They are still used, but replaced first.</p>
+	 */
+	void newSearch() {
+		age = (age + 1) & 0x3F;
+	}
+
+	/**
+	 * <p>Removes all entries from the table.</p>
+	 */
+	void clear() {
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = 0;
+			data[i] = 0;
+		}
+	}
+
+	/**
+	 * <p>Returns the entry stored for the specified hash.</p>
+	 * @param key the hash of the game situation
+	 * @return the entry found or {@code 0} if the table does not contain an entry for the hash
+	 * @see #depth(long)
+	 * @see #bound(long)
+	 * @see #score(long)
+	 * @see #move(long)
+	 */
+	long probe(long key) {
+		int i = (int) key & mask & ~1;
+		long entry = data[i];
+		if ((keys[i] ^ entry) == key && entry != 0)
+			return entry;
+		entry = data[i + 1];
+		if ((keys[i + 1] ^ entry) == key && entry != 0)
+			return entry;
+		return 0;
+	}
+
+	/**
+	 * <p>Stores a result of the search for the specified hash.</p>
+	 * @param key the hash of the game situation
+	 * @param depth the remaining depth of the search below the game situation
+	 * @param bound the kind of bound the score represents
+	 * @param score the score of the game situation
+	 * @param move the code of the best move found or {@code -1} if none is known
+	 */
+	void store(long key, int depth, int bound, int score, int move) {
+		int i = (int) key & mask & ~1;
+		long first = data[i], second = data[i + 1];
+		long firstKey = keys[i] ^ first, secondKey = keys[i + 1] ^ second;
+		long entry = (score & 0xFFFFFFFFL) | (long) (move & 0xFFFF) << 32 | (long) Math.min(depth, 0xFF) << 48
+				| (long) bound << 56 | (long) age << 58;
+		//Keep the best move known if no new one was found
+		if (move < 0 && (firstKey == key || secondKey == key)) {
+			long old = firstKey == key ? first : second;
+			entry = entry & ~(0xFFFFL << 32) | old & 0xFFFFL << 32;
+		}
+		if (firstKey == key || first == 0 || age(first) != age || depth(first) <= depth) {
+			if (firstKey != key) {
+				//Move the deep entry to the second position instead of losing it
+				keys[i + 1] = firstKey ^ first;
+				data[i + 1] = first;
+			}
+			keys[i] = key ^ entry;
+			data[i] = entry;
+		}
+		else {
+			keys[i + 1] = key ^ entry;
+			data[i + 1] = entry;
+		}
+	}
+
+	/**
+	 * @param entry an entry returned by {@link #probe(long) probe}
+	 * @return the remaining depth of the search below the game situation
+	 */
+	static int depth(long entry) {
+		return (int) (entry >>> 48) & 0xFF;
+	}
+
+	/**
+	 * @param entry an entry returned by {@link #probe(long) probe}
+	 * @return the kind of bound the score represents
+	 */
+	static int bound(long entry) {
+		return (int) (entry >>> 56) & 0x3;
+	}
+
+	/**
+	 * @param entry an entry returned by {@link #probe(long) probe}
+	 * @return the score of the game situation
+	 */
+	static int score(long entry) {
+		return (int) entry;
+	}
+
+	/**
+	 * @param entry an entry returned by {@link #probe(long) probe}
+	 * @return the code of the best move or {@code -1} if none is known
+	 */
+	static int move(long entry) {
+		int move = (int) (entry >>> 32) & 0xFFFF;
+		return move == 0xFFFF ? -1 : move;
+	}
+
+	/**
+	 * @param entry an entry of the table
+	 * @return the age of the search that stored the entry
+	 */
+	private static int age(long entry) {
+		return (int) (entry >>> 58) & 0x3F;
+	}
+}
@@ -3,12 +3,18 @@ package application.control;
 import ui.view.*;
 import domain.represent.Playboard;
 import domain.nao.NAO_Handler;
-import application.ai.AIPerformance;
 import application.ai.ComputationalUnit;
+import application.ai.OpeningBook;
+import application.ai.Tablebase;
 import foundation.data.Move;
 import foundation.monitor.PerformanceManager;
 
 import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 
 import com.aldebaran.qi.Future;
 import com.aldebaran.qi.Session;
@@ -69,10 +75,20 @@ public class Controller extends Thread
 	 */
 	private PerformanceManager performance_management;
 	/**
-	 * The class which customizes the AI performance depending on the game progress
-	 * @see AIPerformance
+	 * The time the AI may use to compute the next move.
+	 * @see ComputationalUnit#nextMove(Playboard, boolean, Duration)
 	 */
-	private AIPerformance ai_performance;
+	private static final Duration THINKING_TIME = Duration.ofSeconds(30);
+	/**
+	 * The file containing the endgame database, created by <Code>Tablebase.main</Code>. The AI plays without it if it is missing.
+	 * @see application.ai.Tablebase
+	 */
+	private static final Path TABLEBASE = Paths.get("res", "tablebase.nmm");
+	/**
+	 * The file containing the opening book, created by <Code>OpeningBook.main</Code>. The AI searches from the first move on if it is missing.
+	 * @see application.ai.OpeningBook
+	 */
+	private static final Path OPENING_BOOK = Paths.get("res", "openings.nmm");
 
 	/**
 	 * Constructs the central controlling unit.
@@ -94,6 +110,29 @@ public class Controller extends Thread
 		nao_handler = new NAO_Handler(this);
 		playboard = new Playboard();
 		ai = new ComputationalUnit();
+		ai.setThreads(Runtime.getRuntime().availableProcessors());
+		if (Files.exists(TABLEBASE))
+		{
+			try
+			{
+				ai.setTablebase(Tablebase.open(TABLEBASE));
+			}
+			catch (IOException e)
+			{
+				System.err.println("The endgame database could not be opened: " + e.getMessage());
+			}
+		}
+		if (Files.exists(OPENING_BOOK))
+		{
+			try
+			{
+				ai.setOpeningBook(OpeningBook.open(OPENING_BOOK));
+			}
+			catch (IOException e)
+			{
+				System.err.println("The opening book could not be opened: " + e.getMessage());
+			}
+		}
 		performance_management = new PerformanceManager();
 	}
 	
@@ -153,7 +192,6 @@ public class Controller extends Thread
 	public void startAnalysis()
 	{
 		new AnalyzeAndMove(true).start();
-		new AIPerformanceThread().start();
 	}
 	
 	/**
@@ -258,15 +296,6 @@ public class Controller extends Thread
 		else connected = false;
 	}
 	
-	/**
-	 * Creates the AIPerformance object.
-	 * @see AIPerformance
-	 */
-	public void createAIPerformance()
-	{
-		ai_performance = new AIPerformance(playboard, gui_handler.getOwnColor());
-	}
-	
 	/**
 	 * @return a <Code>boolean</Code> value with the status of the connection (true = connected, false otherwise).
 	 * @see Controller#connected
@@ -349,8 +378,9 @@ public class Controller extends Thread
 	 * This move consists of two phases.<br>
 	 * 1. Updating the <Code>playboard</Code> & calculating the next useful move in the AI,<br>
 	 * 2. NAO executing the calculated move.<br>
+	 * Afterwards the AI ponders on the opponent's likely replies until the next move is started.
 	 * @see Playboard#update_NAO(Boolean[],boolean,boolean)
-	 * @see ComputationalUnit#nextMove(Playboard, boolean, boolean)
+	 * @see ComputationalUnit#nextMove(Playboard, boolean, Duration)
 	 * @see NAO_Handler#execute(Move)
 	 */
 	private void nextMove()
@@ -363,10 +393,15 @@ public class Controller extends Thread
 		try
 		{
 			System.out.println("Starting AI computation: Evaluating possible moves");
-			move = ai.nextMove(playboard, gui_handler.getOwnColor());
+			move = ai.nextMove(playboard, gui_handler.getOwnColor(), THINKING_TIME);
 			System.out.println("Computation completed");
+			if (ai.getStatistics() != null)
+			{
+				System.out.println("Search statistics: " + ai.getStatistics());
+			}
 			playboard.updateByAI(move, false);
 			this.sendPlayboard();
+			ai.ponder(playboard, gui_handler.getOwnColor());
 		}
 		catch(foundation.exception.GameWonException gwe)
 		{
@@ -493,24 +528,6 @@ public class Controller extends Thread
 		}
 	}
 	
-	/**
-	 * Starts the <Code>AIPerformance</Code> <Code>Thread</Code>
-	 * @author Nick Weber, Mike Siefert
-	 * @version 2.0
-	 * @see AIPerformance
-	 * @see Thread
-	 */
-	private class AIPerformanceThread extends Thread
-	{	private int newDepth=2;
-		@Override
-		public void run()
-		{	ai_performance.updatePlayboard(playboard);
-			newDepth = ai_performance.getAIDepth();
-			ai.setMaxDepth(newDepth);
-			System.out.println("New AI Depth was successfully set up to " + newDepth + ".");
-		}
-	}
-	
 	/**
 	 * A <Code>Thread</Code> that constantly updates a <Code>JLabel</Code> with the current memory & cpu performance
 	 * @author Nick Weber
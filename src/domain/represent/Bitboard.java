@@ -0,0 +1,487 @@
+package domain.represent;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import foundation.data.Move;
+import foundation.data.MultiPrioritySet;
+import foundation.exception.GameLostException;
+
+/**
+ * <p>A compact representation of a game situation that is meant to be used by the search of the AI only.</p>
+ * <p>The men of both players are stored as two 24-bit masks (bit {@code i} corresponds to the field of index {@code i} of a
+ * {@link Playboard Playboard}) and the four piles are reduced to counters. In contrast to the {@code Playboard} there is
+ * no graph of {@link Field Field} objects to be followed. Instead, neighbourhood and mills are looked up in precomputed
+ * masks.</p>
+ * <p>The rules applied equal the ones of {@link Playboard#possibleMoves(MultiPrioritySet, MultiPrioritySet, boolean)
+ * Playboard.possibleMoves}. Moves handed out are built from the {@code Field} objects of the playboard this bitboard was
+ * created from, so they may be applied to that playboard directly.</p>
+ * <p>For the search, moves are encoded as integers (see {@link #encode(Move) encode}) and generated into arrays supplied by
+ * the caller (see {@link #generateMoves(boolean, int[], int) generateMoves}), so that no objects are allocated while searching.
+ * {@code Move} objects are only built on request by {@link #toMove(int) toMove}.</p>
+ * <p>Every bitboard maintains a Zobrist hash of its men and piles that is updated incrementally by every move. The player to
+ * move is not part of the game situation stored and is thus folded into the hash by {@link #getHash(boolean) getHash}.</p>
+ * <p>The colours remain black and white: white == true == blue, black == false == red.</p>
+ * @author Julian Betz
+ * @version 1.02
+ * @see Playboard
+ */
+public class Bitboard {
+	/**
+	 * <p>The indices of the piles in the same numbering as used by {@link Playboard Playboard}.</p>
+	 */
+	static final int WHITE_INITIAL = 24, WHITE_BURNT = 25, BLACK_INITIAL = 26, BLACK_BURNT = 27;
+	/**
+	 * <p>The mask of all fields of the board.</p>
+	 */
+	static final int BOARD = (1 << 24) - 1;
+	/**
+	 * <p>The neighbours of every field as a mask.</p>
+	 */
+	static final int[] ADJACENT = new int[24];
+	/**
+	 * <p>All sixteen mills as masks of three fields each.</p>
+	 */
+	static final int[] MILLS = {
+			mask(0, 1, 2), mask(3, 4, 5), mask(6, 7, 8), mask(9, 10, 11), mask(12, 13, 14), mask(15, 16, 17),
+			mask(18, 19, 20), mask(21, 22, 23), mask(0, 9, 21), mask(3, 10, 18), mask(6, 11, 15), mask(1, 4, 7),
+			mask(16, 19, 22), mask(8, 12, 17), mask(5, 13, 20), mask(2, 14, 23)};
+	/**
+	 * <p>For every field the two masks of the other two fields completing a mill together with the field.</p>
+	 */
+	static final int[][] PARTNERS = new int[24][2];
+	/**
+	 * <p>An upper bound of the number of moves possible in any game situation: nine men with four targets each, every target
+	 * closing a mill and allowing to take away any of nine men.</p>
+	 */
+	public static final int MAX_MOVES = 9 * 4 * 9;
+	/**
+	 * <p>The field encoded in place of the man taken away by a move that does not close a mill.</p>
+	 */
+	public static final int NO_CAPTURE = 31;
+	/**
+	 * <p>The Zobrist keys of a man on a field, {@code MAN_KEYS[0]} for white and {@code MAN_KEYS[1]} for black.</p>
+	 */
+	private static final long[][] MAN_KEYS = new long[2][24];
+	/**
+	 * <p>The Zobrist keys of the number of men on a pile, indexed by pile index minus {@code 24} and number of men.</p>
+	 */
+	private static final long[][] PILE_KEYS = new long[4][10];
+	/**
+	 * <p>The Zobrist key marking white to be the player to move.</p>
+	 */
+	private static final long WHITE_KEY;
+
+	static {
+		int[][] neighbours = {{9, 1}, {0, 2, 4}, {1, 14}, {10, 4}, {3, 5, 7, 1}, {4, 13}, {11, 7}, {6, 8, 4}, {7, 12},
+				{21, 0, 10}, {18, 3, 11, 9}, {15, 6, 10}, {8, 17, 13}, {5, 20, 12, 14}, {2, 23, 13}, {16, 11}, {17, 15, 19},
+				{12, 16}, {19, 10}, {20, 18, 16, 22}, {13, 19}, {22, 9}, {23, 21, 19}, {14, 22}};
+		for (int i = 0; i < 24; i++)
+			ADJACENT[i] = mask(neighbours[i]);
+		int[] count = new int[24];
+		for (int mill : MILLS)
+			for (int i = 0; i < 24; i++)
+				if ((mill & 1 << i) != 0)
+					PARTNERS[i][count[i]++] = mill & ~(1 << i);
+		//A fixed seed keeps the hashes stable between runs
+		Random random = new Random(0x4E414FL);
+		for (long[] keys : MAN_KEYS)
+			for (int i = 0; i < keys.length; i++)
+				keys[i] = random.nextLong();
+		for (long[] keys : PILE_KEYS)
+			for (int i = 0; i < keys.length; i++)
+				keys[i] = random.nextLong();
+		WHITE_KEY = random.nextLong();
+	}
+
+	/**
+	 * <p>The fields of the playboard this bitboard was created from. They are only used to build {@code Move} objects.</p>
+	 */
+	private final Field[] fields;
+	/**
+	 * <p>The men on the board, {@code men[0]} for white and {@code men[1]} for black.</p>
+	 */
+	private final int[] men;
+	/**
+	 * <p>The number of men on the piles, indexed by pile index minus {@code 24}.</p>
+	 */
+	private final int[] piles;
+	/**
+	 * <p>Bit {@code 0} is set if white has set all men, bit {@code 1} if black has set all men.</p>
+	 */
+	private int phase;
+	/**
+	 * <p>The Zobrist hash of the men and piles.</p>
+	 */
+	private long hash;
+
+	/**
+	 * <p>Creates a bitboard presenting the same game situation as the specified playboard.</p>
+	 * @param board the playboard to convert
+	 */
+	public Bitboard(Playboard board) {
+		fields = new Field[28];
+		men = new int[2];
+		piles = new int[4];
+		for (int i = 0; i < 28; i++)
+			fields[i] = board.getField(i);
+		for (int i = 0; i < 24; i++) {
+			if (fields[i].manEqualsColour(true)) {
+				men[0] |= 1 << i;
+				hash ^= MAN_KEYS[0][i];
+			}
+			else if (fields[i].manEqualsColour(false)) {
+				men[1] |= 1 << i;
+				hash ^= MAN_KEYS[1][i];
+			}
+		}
+		for (int i = 0; i < 4; i++) {
+			piles[i] = fields[i + 24].getManCount();
+			hash ^= PILE_KEYS[i][piles[i]];
+		}
+		phase = (board.allMenSet(true) ? 1 : 0) | (board.allMenSet(false) ? 2 : 0);
+	}
+
+	/**
+	 * <p>Creates a copy of the specified bitboard that can be modified independently, e.g. by another thread.</p>
+	 * @param board the bitboard to copy
+	 */
+	public Bitboard(Bitboard board) {
+		fields = board.fields;
+		men = board.men.clone();
+		piles = board.piles.clone();
+		phase = board.phase;
+		hash = board.hash;
+	}
+
+	/**
+	 * <p>Creates a new playboard presenting the game situation of this bitboard.</p>
+	 * @return a playboard equal to this bitboard
+	 */
+	public Playboard toPlayboard() {
+		Playboard rtn = new Playboard();
+		Boolean[] board = new Boolean[24];
+		for (int i = 0; i < 24; i++) {
+			if ((men[0] & 1 << i) != 0)
+				board[i] = true;
+			else if ((men[1] & 1 << i) != 0)
+				board[i] = false;
+		}
+		rtn.updateByGUI(board, piles.clone());
+		rtn.setAllMenSet(true, (phase & 1) != 0);
+		rtn.setAllMenSet(false, (phase & 2) != 0);
+		return rtn;
+	}
+
+	/**
+	 * <p>Calculates all possible moves of the specified player. The contract equals the one of
+	 * {@link Playboard#possibleMoves(MultiPrioritySet, MultiPrioritySet, boolean) Playboard.possibleMoves}.</p>
+	 * @param input contains all moves created so far, new moves are integrated into it
+	 * @param output the set to add all possible moves to
+	 * @param colour the colour of the player to move
+	 * @return the output set with all moves
+	 * @throws GameLostException if the player has less than three men left
+	 */
+	public MultiPrioritySet<Move> possibleMoves(MultiPrioritySet<Move> input, MultiPrioritySet<Move> output, boolean colour) throws GameLostException {
+		if (isLost(colour))
+			throw new GameLostException("less then 3 men", colour);
+		int[] moves = new int[MAX_MOVES];
+		int count = generateMoves(colour, moves, 0);
+		ArrayList<Move> list = new ArrayList<Move>(count);
+		for (int i = 0; i < count; i++)
+			list.add(toMove(moves[i]));
+		output.addAll(input.integrateAll(list));
+		return output;
+	}
+
+	/**
+	 * <p>Checks whether the specified player has lost the game, i.e. has less than three men left.</p>
+	 * @param colour the colour of the player
+	 * @return true if the game is lost
+	 */
+	public boolean isLost(boolean colour) {
+		return piles[(colour ? BLACK_BURNT : WHITE_BURNT) - 24] > 6;
+	}
+
+	/**
+	 * <p>Writes the codes of all possible moves of the specified player into the specified array. The moves equal the ones
+	 * returned by {@link #possibleMoves(MultiPrioritySet, MultiPrioritySet, boolean) possibleMoves}, but whether the game is
+	 * lost has to be checked separately by {@link #isLost(boolean) isLost}.</p>
+	 * @param colour the colour of the player to move
+	 * @param moves the array to write the codes to, having space for at least {@value #MAX_MOVES} codes after {@code offset}
+	 * @param offset the index of the first code to write
+	 * @return the number of moves written
+	 */
+	public int generateMoves(boolean colour, int[] moves, int offset) {
+		int own = men[colour ? 0 : 1], opponent = men[colour ? 1 : 0];
+		if (piles[WHITE_BURNT - 24] == 6 && piles[BLACK_BURNT - 24] == 6)
+			return 0;
+		int base = colour ? 1 << 15 : 0, i = offset;
+		if ((phase & (colour ? 1 : 2)) != 0)
+			i = movingMoves(own, opponent, base, moves, i);
+		else {
+			int removable = opponent & ~millMen(opponent);
+			int initial = colour ? WHITE_INITIAL : BLACK_INITIAL;
+			for (int targets = BOARD & ~(own | opponent); targets != 0; targets &= targets - 1) {
+				int to = Integer.numberOfTrailingZeros(targets);
+				int code = base | initial | to << 5;
+				if (closesMill(own, to)) {
+					for (int r = removable; r != 0; r &= r - 1)
+						moves[i++] = code | Integer.numberOfTrailingZeros(r) << 10;
+				}
+				else
+					moves[i++] = code | NO_CAPTURE << 10;
+			}
+		}
+		return i - offset;
+	}
+
+	/**
+	 * <p>Writes the codes of all moves of a player who has set all men into the specified array. In contrast to
+	 * {@link #generateMoves(boolean, int[], int) generateMoves}, the codes do not contain the colour and the rule that the game
+	 * ends in a draw when both players have three men left is not applied.</p>
+	 * @param own the men of the player to move
+	 * @param opponent the men of the opponent
+	 * @param moves the array to write the codes to, having space for at least {@value #MAX_MOVES} codes after {@code offset}
+	 * @param offset the index of the first code to write
+	 * @return the number of moves written
+	 */
+	public static int generateMovingMoves(int own, int opponent, int[] moves, int offset) {
+		return movingMoves(own, opponent, 0, moves, offset) - offset;
+	}
+
+	/**
+	 * @param own the men of the player to move
+	 * @param opponent the men of the opponent
+	 * @param base the bits to add to every code
+	 * @param moves the array to write the codes to
+	 * @param i the index of the first code to write
+	 * @return the index after the last code written
+	 */
+	private static int movingMoves(int own, int opponent, int base, int[] moves, int i) {
+		int removable = opponent & ~millMen(opponent);
+		for (int left = own; left != 0; left &= left - 1) {
+			int from = Integer.numberOfTrailingZeros(left);
+			int rest = own & ~(1 << from);
+			for (int targets = ADJACENT[from] & ~(own | opponent); targets != 0; targets &= targets - 1) {
+				int to = Integer.numberOfTrailingZeros(targets);
+				int code = base | from | to << 5;
+				if (closesMill(rest, to)) {
+					for (int r = removable; r != 0; r &= r - 1)
+						moves[i++] = code | Integer.numberOfTrailingZeros(r) << 10;
+				}
+				else
+					moves[i++] = code | NO_CAPTURE << 10;
+			}
+		}
+		return i;
+	}
+
+	/**
+	 * <p>Builds the {@code Move} object corresponding to the specified code. The move consists of {@code Field} objects of the
+	 * playboard this bitboard was created from.</p>
+	 * @param move the code of the move
+	 * @return the move
+	 */
+	public Move toMove(int move) {
+		boolean colour = colour(move);
+		if (capture(move) == NO_CAPTURE)
+			return new Move(false, colour, fields[from(move)], true, colour, fields[to(move)]);
+		return new Move(false, colour, fields[from(move)], true, colour, fields[to(move)], false, !colour,
+				fields[capture(move)], true, !colour, fields[colour ? WHITE_BURNT : BLACK_BURNT]);
+	}
+
+	/**
+	 * <p>Carries out the move of the specified code.</p>
+	 * @param move the code of the move
+	 */
+	public void make(int move) {
+		boolean colour = colour(move);
+		apply(false, colour, from(move));
+		apply(true, colour, to(move));
+		if (capture(move) != NO_CAPTURE) {
+			apply(false, !colour, capture(move));
+			apply(true, !colour, colour ? WHITE_BURNT : BLACK_BURNT);
+		}
+	}
+
+	/**
+	 * <p>Takes back the move of the specified code, which must be the last move carried out.</p>
+	 * @param move the code of the move
+	 */
+	public void unmake(int move) {
+		boolean colour = colour(move);
+		if (capture(move) != NO_CAPTURE) {
+			apply(false, !colour, colour ? WHITE_BURNT : BLACK_BURNT);
+			apply(true, !colour, capture(move));
+		}
+		apply(false, colour, to(move));
+		apply(true, colour, from(move));
+	}
+
+	/**
+	 * <p>Carries out the specified move or takes it back.</p>
+	 * @param move the move to process
+	 * @param reverse true if the move is to be taken back
+	 * @see Playboard#updateByAI(Move, boolean)
+	 */
+	public void updateByAI(Move move, boolean reverse) {
+		for (int i = 0; i < move.length(); i++)
+			apply(move.getAction(i) ^ reverse, move.getColor(i), move.getField(i).getIndex());
+	}
+
+	/**
+	 * <p>Sets down or picks up a single man.</p>
+	 * @param set true to set down, false to pick up
+	 * @param colour the colour of the man
+	 * @param index the index of the field
+	 */
+	private void apply(boolean set, boolean colour, int index) {
+		if (index < 24) {
+			if (set)
+				men[colour ? 0 : 1] |= 1 << index;
+			else
+				men[colour ? 0 : 1] &= ~(1 << index);
+			hash ^= MAN_KEYS[colour ? 0 : 1][index];
+			return;
+		}
+		hash ^= PILE_KEYS[index - 24][piles[index - 24]];
+		piles[index - 24] += set ? 1 : -1;
+		hash ^= PILE_KEYS[index - 24][piles[index - 24]];
+		if (index == WHITE_INITIAL)
+			phase = piles[0] == 0 ? phase | 1 : phase & ~1;
+		else if (index == BLACK_INITIAL)
+			phase = piles[2] == 0 ? phase | 2 : phase & ~2;
+	}
+
+	/**
+	 * <p>Returns the Zobrist hash of the game situation with the specified player to move.</p>
+	 * @param colour the colour of the player to move
+	 * @return the hash of this bitboard
+	 */
+	public long getHash(boolean colour) {
+		return colour ? hash ^ WHITE_KEY : hash;
+	}
+
+	/**
+	 * <p>Encodes a move into a small integer that identifies the move uniquely.</p>
+	 * <p>Bits {@code 0-4} hold the field (or pile) the man is picked up from, bits {@code 5-9} the field it is set to, bits
+	 * {@code 10-14} the field of the man taken away or {@value #NO_CAPTURE} if no mill is closed and bit {@code 15} is set if
+	 * the move is one of white. The pile a man taken away is put on follows from the colour. No code equals {@code 0xFFFF}.</p>
+	 * @param move the move to encode
+	 * @return the code of the move
+	 */
+	public static int encode(Move move) {
+		int code = move.getField(0).getIndex() | move.getField(1).getIndex() << 5 | (move.getColor(0) ? 1 << 15 : 0);
+		return code | (move.length() == 4 ? move.getField(2).getIndex() : NO_CAPTURE) << 10;
+	}
+
+	/**
+	 * @param move the code of a move
+	 * @return the index of the field or pile the man is picked up from
+	 */
+	public static int from(int move) {
+		return move & 0x1F;
+	}
+
+	/**
+	 * @param move the code of a move
+	 * @return the index of the field the man is set to
+	 */
+	public static int to(int move) {
+		return move >>> 5 & 0x1F;
+	}
+
+	/**
+	 * @param move the code of a move
+	 * @return the index of the field of the man taken away or {@value #NO_CAPTURE} if no mill is closed
+	 */
+	public static int capture(int move) {
+		return move >>> 10 & 0x1F;
+	}
+
+	/**
+	 * @param move the code of a move
+	 * @return the colour of the player moving
+	 */
+	public static boolean colour(int move) {
+		return (move & 1 << 15) != 0;
+	}
+
+	/**
+	 * @param colour the colour of the player
+	 * @return the men of the player as a mask, bit {@code i} set if there is a man on the field of index {@code i}
+	 */
+	public int getMen(boolean colour) {
+		return men[colour ? 0 : 1];
+	}
+
+	/**
+	 * @return true if both players have set all men, i.e. the game is in the phase of moving men
+	 */
+	public boolean allMenSet() {
+		return phase == 3;
+	}
+
+	/**
+	 * @param colour the colour which shall be evaluated
+	 * @return all men of a given colour on the board
+	 * @see Playboard#allMenOnBoard(boolean, boolean)
+	 */
+	public int allMenOnBoard(boolean colour) {
+		return Integer.bitCount(men[colour ? 0 : 1]);
+	}
+
+	/**
+	 * @param colour the colour of the player whose mills are searched
+	 * @return how many mills the player of the given colour has built
+	 * @see Playboard#numberOfMills(boolean)
+	 */
+	public int numberOfMills(boolean colour) {
+		return Integer.bitCount(millMen(men[colour ? 0 : 1])) / 3;
+	}
+
+	/**
+	 * <p>Returns the men of the specified mask that are part of a mill within that mask.</p>
+	 * @param own the men of one player
+	 * @return the subset of men being part of a mill
+	 */
+	static int millMen(int own) {
+		int rtn = 0;
+		for (int mill : MILLS)
+			if ((own & mill) == mill)
+				rtn |= mill;
+		return rtn;
+	}
+
+	/**
+	 * <p>Checks whether a man set to the specified field closes a mill together with the specified men.</p>
+	 * @param own the men of the player moving, not including the man to be set
+	 * @param to the index of the field the man is set to
+	 * @return true if a mill is closed
+	 */
+	static boolean closesMill(int own, int to) {
+		return (own & PARTNERS[to][0]) == PARTNERS[to][0] || (own & PARTNERS[to][1]) == PARTNERS[to][1];
+	}
+
+	/**
+	 * @param fields the indices of the fields
+	 * @return the mask containing the specified fields
+	 */
+	private static int mask(int... fields) {
+		int rtn = 0;
+		for (int i : fields)
+			rtn |= 1 << i;
+		return rtn;
+	}
+
+	@Override
+	public String toString() {
+		StringBuffer sb = new StringBuffer("Bitboard white: ");
+		sb.append(Integer.toBinaryString(men[0] | 1 << 24).substring(1)).append(" black: ");
+		sb.append(Integer.toBinaryString(men[1] | 1 << 24).substring(1)).append(" piles:");
+		for (int i : piles)
+			sb.append(' ').append(i);
+		return sb.append(" phase: ").append(phase).toString();
+	}
+}
@@ -15,6 +15,11 @@ abstract public class Field implements Comparable<Field> {
 	 * every field has a index corresponding to its position in the array 'fields' in Playboard
 	 */
 	private final int index;
+	/**
+	 * the index of the man on this field in the tracking array of its colour (whitefields or blackfields in Playboard).
+	 * -1 if there is no man. Kept by the Playboard, so a man is found without scanning the tracking arrays.
+	 */
+	private int position=-1;
 
 	public Field(int i){
 		this.index=i;
@@ -24,6 +29,36 @@ abstract public class Field implements Comparable<Field> {
 		return index;
 	}
 	
+	/**
+	 * @return the index of the man in the tracking array of its colour, -1 if there is none
+	 */
+	int getPosition(){
+		return position;
+	}
+	
+	/**
+	 * remembers the index of a man set on this field
+	 * @param position the index in the tracking array of its colour
+	 */
+	void addPosition(int position){
+		this.position=position;
+	}
+	
+	/**
+	 * forgets the index of a man taken away from this field
+	 * @param position the index in the tracking array of its colour
+	 */
+	void removePosition(int position){
+		this.position=-1;
+	}
+	
+	/**
+	 * forgets all indices, used before they are recalculated
+	 */
+	void clearPositions(){
+		position=-1;
+	}
+	
 	Boolean getMan(){
 		return man;
 	}
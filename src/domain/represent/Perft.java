@@ -0,0 +1,215 @@
+package domain.represent;
+import java.util.ArrayList;
+import java.util.Random;
+import foundation.data.Move;
+import foundation.exception.GameLostException;
+/**
+ * counts the game situations reachable by a certain number of moves (perft), in order to validate and benchmark the
+ * generation of moves.
+ * the moves of the playboard (possibleMoves) are carried out by make/unmake, the ones of the bitboard (generateMoves)
+ * are counted as well, so both generators can be checked against each other.
+ * a game situation in which the game has ended before the depth is reached is not counted.
+ * main runs the driver on the testSetter scenarios and on random game situations and reports the nodes per second,
+ * single-threaded and in parallel at the root.
+ * @author Julian Betz
+ */
+public class Perft {
+	/**
+	 * the depth and the number of random game situations used by main by default
+	 */
+	public static final int DEFAULT_DEPTH=4, DEFAULT_RANDOM=8;
+	/**
+	 * the scenarios of testSetter used by main
+	 */
+	private static final String[] SCENARIOS={"empty","1","2","3","4","5","6"};
+
+	private Perft(){
+	}
+
+	/**
+	 * counts the game situations reachable from the current one by exactly depth moves, using possibleMoves.
+	 * the board is changed while counting, but restored afterwards.
+	 * @param board the playboard
+	 * @param colour the colour of the player to move
+	 * @param depth the number of moves
+	 * @return the number of game situations
+	 */
+	public static long perft(Playboard board, boolean colour, int depth){
+		if(depth==0)
+			return 1;
+		ArrayList<Move> moves;
+		try{
+			moves=board.possibleMoves(colour);
+		}
+		catch(GameLostException e){
+			return 0;
+		}
+		if(depth==1)
+			return moves.size();
+		long nodes=0;
+		for(Move move:moves){
+			board.make(move);
+			nodes+=perft(board, !colour, depth-1);
+			board.unmake();
+		}
+		return nodes;
+	}
+
+	/**
+	 * counts like perft(board, colour, depth), but every move of the current game situation is counted by another thread
+	 * on its own copy of the board.
+	 * @param board the playboard, not changed
+	 * @param colour the colour of the player to move
+	 * @param depth the number of moves
+	 * @return the number of game situations
+	 */
+	public static long parallelPerft(Playboard board, boolean colour, int depth){
+		if(depth<=1)
+			return perft(board, colour, depth);
+		ArrayList<Move> moves;
+		try{
+			moves=board.possibleMoves(colour);
+		}
+		catch(GameLostException e){
+			return 0;
+		}
+		Playboard.State state=board.snapshot();
+		return moves.parallelStream().mapToLong((Move move) -> {
+			Playboard copy=new Playboard();
+			copy.restore(state);
+			copy.make(move);
+			return perft(copy, !colour, depth-1);
+		}).sum();
+	}
+
+	/**
+	 * counts the game situations reachable from the current one by exactly depth moves, using generateMoves.
+	 * the board is changed while counting, but restored afterwards.
+	 * @param board the bitboard
+	 * @param colour the colour of the player to move
+	 * @param depth the number of moves
+	 * @return the number of game situations
+	 */
+	public static long perft(Bitboard board, boolean colour, int depth){
+		return perft(board, colour, depth, new int[depth+1][Bitboard.MAX_MOVES]);
+	}
+
+	/**
+	 * @param board the bitboard
+	 * @param colour the colour of the player to move
+	 * @param depth the number of moves
+	 * @param buffers one buffer of moves per remaining move
+	 * @return the number of game situations
+	 */
+	private static long perft(Bitboard board, boolean colour, int depth, int[][] buffers){
+		if(depth==0)
+			return 1;
+		if(board.isLost(colour))
+			return 0;
+		int[] moves=buffers[depth];
+		int count=board.generateMoves(colour, moves, 0);
+		if(depth==1)
+			return count;
+		long nodes=0;
+		for(int i=0;i<count;i++){
+			board.make(moves[i]);
+			nodes+=perft(board, !colour, depth-1, buffers);
+			board.unmake(moves[i]);
+		}
+		return nodes;
+	}
+
+	/**
+	 * creates a game situation by random moves from the empty board.
+	 * @param random the source of the moves
+	 * @param moves the number of moves
+	 * @return the playboard or null if the game ended before
+	 */
+	public static Playboard randomBoard(Random random, int moves){
+		Playboard board=new Playboard();
+		board.testSetter("empty");
+		boolean colour=true;
+		for(int i=0;i<moves;i++){
+			try{
+				ArrayList<Move> possible=board.possibleMoves(colour);
+				if(possible.isEmpty())
+					return null;
+				board.updateByAI(possible.get(random.nextInt(possible.size())), false);
+			}
+			catch(GameLostException e){
+				return null;
+			}
+			colour=!colour;
+		}
+		return board;
+	}
+
+	/**
+	 * runs the driver. the first argument is the depth, the second one the number of random game situations.
+	 * for every game situation, the numbers of nodes of the playboard, in parallel, and of the bitboard are printed
+	 * together with the nodes per second. a difference between the numbers is reported as a mismatch.
+	 * @param args the depth and the number of random game situations, both optional
+	 */
+	public static void main(String[] args){
+		int depth=args.length>0?Integer.parseInt(args[0]):DEFAULT_DEPTH;
+		int randoms=args.length>1?Integer.parseInt(args[1]):DEFAULT_RANDOM;
+		ArrayList<String> names=new ArrayList<String>();
+		ArrayList<Playboard> boards=new ArrayList<Playboard>();
+		ArrayList<Boolean> colours=new ArrayList<Boolean>();
+		for(String scenario:SCENARIOS){
+			Playboard board=new Playboard();
+			board.testSetter(scenario);
+			names.add("scenario "+scenario);
+			boards.add(board);
+			colours.add(true);
+		}
+		Random random=new Random(1);
+		for(int i=0;i<randoms;i++){
+			int moves=random.nextInt(40);
+			Playboard board=randomBoard(random, moves);
+			if(board!=null){
+				names.add("random after "+moves+" moves");
+				boards.add(board);
+				colours.add(moves%2==0);
+			}
+		}
+		long total=0, time=0, parallelTime=0, bitboardTime=0;
+		boolean mismatch=false;
+		for(int i=0;i<boards.size();i++){
+			Playboard board=boards.get(i);
+			boolean colour=colours.get(i);
+			long start=System.nanoTime();
+			long nodes=perft(board, colour, depth);
+			long single=System.nanoTime()-start;
+			start=System.nanoTime();
+			long parallelNodes=parallelPerft(board, colour, depth);
+			long parallel=System.nanoTime()-start;
+			start=System.nanoTime();
+			long bitboardNodes=perft(new Bitboard(board), colour, depth);
+			long bitboard=System.nanoTime()-start;
+			System.out.println(names.get(i)+": "+nodes+" nodes, "+rate(nodes, single)+" single, "+rate(nodes, parallel)
+					+" parallel, bitboard "+rate(bitboardNodes, bitboard));
+			if(nodes!=parallelNodes||nodes!=bitboardNodes){
+				System.out.println("  mismatch: parallel "+parallelNodes+", bitboard "+bitboardNodes);
+				mismatch=true;
+			}
+			total+=nodes;
+			time+=single;
+			parallelTime+=parallel;
+			bitboardTime+=bitboard;
+		}
+		System.out.println("total at depth "+depth+": "+total+" nodes, "+rate(total, time)+" single, "+rate(total, parallelTime)
+				+" parallel on "+Runtime.getRuntime().availableProcessors()+" processors, bitboard "+rate(total, bitboardTime));
+		if(mismatch)
+			System.exit(1);
+	}
+
+	/**
+	 * @param nodes a number of nodes
+	 * @param nanos the time needed to count them in nanoseconds
+	 * @return the nodes per second in a readable form
+	 */
+	private static String rate(long nodes, long nanos){
+		return String.format("%.0f nodes/s", nodes*1e9/Math.max(1, nanos));
+	}
+}
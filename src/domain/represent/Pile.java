@@ -13,6 +13,14 @@ class Pile extends Field{
 	 * the attribute of the field class does not exist. It is overwritten by an array of Booleans.
 	 */
 private Boolean[] man;
+/**
+ * the number of men on the pile, so they do not have to be counted
+ */
+private int count;
+/**
+ * a pile contains several men, so the positions in the tracking array are kept as a bit mask
+ */
+private int positions;
 protected Pile(int i){
 	super(i);
 	man = new Boolean[9];
@@ -26,40 +34,65 @@ protected Pile(int i){
 void setMan(Boolean bMan) throws ArrayIndexOutOfBoundsException{
 	if (bMan==null){
 		//pop()
-		if(man[man.length-1]!=null){
-			man[man.length-1]=null;
+		if(count==0){
+			System.err.println("You should never see this message sent by your facourite pile!");
 			return;
 		}
-		for (int i=0;i<man.length;i++){
-			if(man[i]==null){
-				try{
-					man[i-1]=null;
-					return;
-				}
-				catch(ArrayIndexOutOfBoundsException e){
-					//pile was empty
-				}
-			}
-		}
-		System.err.println("You should never see this message sent by your facourite pile!");
+		count--;
+		man[count]=null;
 	}
 	else{
 		//insert()
-		for(int i=0;i<man.length;i++){
-			if(man[i]==null){
-				man[i]=bMan;
-				return;
-			}
+		if(count==man.length){
+			System.out.println("Stack Overflow");
+			throw new ArrayIndexOutOfBoundsException("This pile was full");
 		}
-		System.out.println("Stack Overflow");
-		throw new ArrayIndexOutOfBoundsException("This pile was full");
+		man[count]=bMan;
+		count++;
 	}
 }
 
 protected void setMan(Boolean man, int position){
+	if(this.man[position]==null&&man!=null)
+		count++;
+	else if(this.man[position]!=null&&man==null)
+		count--;
 	this.man[position]=man;
 }
 
+/**
+ * the position of the man being taken away next is the highest one
+ * {@inheritDoc}
+ */
+@Override
+int getPosition(){
+	return positions==0?-1:31-Integer.numberOfLeadingZeros(positions);
+}
+
+/**
+ * {@inheritDoc}
+ */
+@Override
+void addPosition(int position){
+	positions|=1<<position;
+}
+
+/**
+ * {@inheritDoc}
+ */
+@Override
+void removePosition(int position){
+	positions&=~(1<<position);
+}
+
+/**
+ * {@inheritDoc}
+ */
+@Override
+void clearPositions(){
+	positions=0;
+}
+
 protected Boolean getMan(int position){
 	return new Boolean(man[position]);
 }
@@ -92,21 +125,13 @@ protected boolean partOfMill(boolean colour, int ide){
  * {@inheritDoc}
  */
 protected boolean isEmpty(){
-	if (man[0]==null)
-		return true;
-	else
-		return false;
+	return count==0;
 }
 /**
  * {@inheritDoc}
  */
 protected int getManCount(){
-	int rtn=0;
-	for (int i=0;i<man.length;i++){
-		if(man[i]!=null)
-			rtn++;
-	}
-	return rtn;
+	return count;
 }
 
 /**
@@ -116,6 +141,7 @@ protected void clear(){
 	for(int i=0;i<9;i++){
 		this.man[i]=null;
 	}
+	count=0;
 }
 
 public String toString(){
@@ -1,5 +1,6 @@
 package domain.represent;
 import java.util.ArrayList;
+import java.util.function.Consumer;
 import foundation.data.*;
 import foundation.exception.*;
 /**
@@ -26,6 +27,14 @@ public class Playboard {
 	 * and true means all men have been set.
 	 */
 	private boolean[] gamestate={false,false};
+	/**
+	 * the undo stack of make() and unmake(). For every move made, the move itself is stored as well as the indices
+	 * in the tracking arrays used by the move (4 bits each) and the gamestate before the move (bits 8 and 9).
+	 * the stack only grows if a game is longer than expected.
+	 */
+	private Move[] undoMoves = new Move[128];
+	private int[] undoData = new int[128];
+	private int undoTop=0;
 	/**
 	 * This method creates a new playboard with all men on their initial piles.
 	 * all connections to neighbours are set manually.
@@ -116,12 +125,31 @@ public class Playboard {
 			whitefields[i]=fields[24];
 			blackfields[i]=fields[26];
 		}
+		reindex();
 	}
 	
 	public Field getField(int index){
 		return fields[index];
 	}
 	
+	/**
+	 * used by the Bitboard to read the gamestate
+	 * @param colour the colour of the player
+	 * @return true if the player of the given colour has set all men
+	 */
+	boolean allMenSet(boolean colour){
+		return gamestate[colour?0:1];
+	}
+	
+	/**
+	 * used by the Bitboard to write the gamestate
+	 * @param colour the colour of the player
+	 * @param set true if the player of the given colour has set all men
+	 */
+	void setAllMenSet(boolean colour, boolean set){
+		gamestate[colour?0:1]=set;
+	}
+	
 	/**
 	 * to be invoked by the GUI
 	 * @return an array of 4 integers containing the number of men on the pile.
@@ -156,14 +184,15 @@ public class Playboard {
 	 */
 	private void updateByNAO(Boolean [] nao){
 		boolean trouble = false;
-		Playboard oldone = deepCopy();
+		int oldblack=allMenOnBoard(false, true);
+		int oldwhite=allMenOnBoard(true, true);
 		for (int i=0;i<24;i++){
 			if (fields[i].getMan()!=nao[i]){
 				fields[i].setMan(nao[i]);
 			}
 		}
-		int black=allMenOnBoard(false, true)-oldone.allMenOnBoard(false, true);
-		int white = allMenOnBoard(true, true)-oldone.allMenOnBoard(true,true);
+		int black=allMenOnBoard(false, true)-oldblack;
+		int white = allMenOnBoard(true, true)-oldwhite;
 		switch(black){
 		case 1:{
 			if(white==0){//black set
@@ -298,6 +327,7 @@ public class Playboard {
 			blackfields[a].setMan(false);
 			whitefields[a].setMan(true);
 		}
+		reindex();
 	}
 	
 	/**
@@ -319,7 +349,6 @@ public class Playboard {
 		//if impossible, throw exception
 		//else, do it
 		Move executed; 
-		Playboard oldone = this.deepCopy();
 		ArrayList<Integer> manSetFields = new ArrayList<Integer>();
 		ArrayList<Boolean> manSetColour = new ArrayList<Boolean>();
 		ArrayList<Integer> manRemovedFields = new ArrayList<Integer>();
@@ -415,7 +444,7 @@ public class Playboard {
 		//check if valid.
 		ArrayList<Move> weFreeAgain = new ArrayList<Move>();
 		try{
-			weFreeAgain = oldone.possibleMoves(colour);
+			weFreeAgain = possibleMoves(colour); //the board has not been changed yet
 		}
 		catch(GameLostException g){
 			g.printStackTrace();
@@ -436,43 +465,90 @@ public class Playboard {
 	 * @param reverse if the move is to be reversed, reverse shall be true
 	 */
 	public void updateByAI(Move move, boolean reverse){
-		if (reverse)
-			move=move.reverse();
-		int rememberme=-1;
-		for (int i=0;i<move.length();i++){
-			
-			if (move.getAction(i)){
-				if(move.getColor(i)){
-					whitefields[rememberme]=fields[move.getField(i).getIndex()];
-				}
-				else{
-					blackfields[rememberme]=fields[move.getField(i).getIndex()];
-				}
-				fields[move.getField(i).getIndex()].setMan(move.getColor(i));
-				
-			}
-				
-			
-			else{
-				fields[move.getField(i).getIndex()].setMan(null);
-				//System.out.println(fields[move.getField(i).getIndex()]);
-				if(move.getColor(i)){
-					for (int a=0;a<9;a++){
-						if(whitefields[a].getIndex()==move.getField(i).getIndex()){
-							rememberme=a;
-							}
-					}
-					
-				}
-				else{
-					for (int a=0;a<9;a++){
-						if(blackfields[a].getIndex()==move.getField(i).getIndex()){
-							rememberme=a;
-						}
-					}
-				}
-			}
-		}
+		apply(move, reverse);
+		updateGamestate();
+	}
+	
+	/**
+	 * carries out a move like updateByAI(move, false), but remembers it, so it can be taken back by unmake().
+	 * Unlike reversing a move, unmake() also restores the gamestate and the tracking arrays exactly.
+	 * Both methods run in constant time and do not create any objects (unless a game gets longer than 128 moves).
+	 * @param move the move to carry out
+	 */
+	public void make(Move move){
+		if(undoTop==undoMoves.length){
+			undoMoves=java.util.Arrays.copyOf(undoMoves, 2*undoTop);
+			undoData=java.util.Arrays.copyOf(undoData, 2*undoTop);
+		}
+		int state=(gamestate[0]?1:0)|(gamestate[1]?2:0);
+		undoMoves[undoTop]=move;
+		undoData[undoTop]=apply(move, false)|state<<8;
+		undoTop++;
+		updateGamestate();
+	}
+	
+	/**
+	 * takes back the last move carried out by make(move).
+	 * @throws IllegalStateException if there is no move to take back
+	 */
+	public void unmake(){
+		if(undoTop==0)
+			throw new IllegalStateException("no move to take back");
+		undoTop--;
+		Move move=undoMoves[undoTop];
+		int data=undoData[undoTop];
+		undoMoves[undoTop]=null;
+		for(int i=move.length()-2;i>=0;i-=2){
+			int position=data>>(2*i)&0xF;
+			Field to=fields[move.getField(i+1).getIndex()];
+			to.removePosition(position);
+			to.setMan(null);
+			track(move.getColor(i), position, fields[move.getField(i).getIndex()]);
+		}
+		gamestate[0]=(data&1<<8)!=0;
+		gamestate[1]=(data&2<<8)!=0;
+	}
+	
+	/**
+	 * moves the men of the move. Every man picked up is found via the position stored in its field,
+	 * so the tracking arrays do not have to be scanned.
+	 * @param move the move to carry out
+	 * @param reverse true if the move is to be reversed
+	 * @return the indices in the tracking arrays of the men moved, 4 bits each
+	 */
+	private int apply(Move move, boolean reverse){
+		int positions=0;
+		for(int i=0;i<move.length();i+=2){
+			Field from=fields[move.getField(reverse?i+1:i).getIndex()];
+			Field to=fields[move.getField(reverse?i:i+1).getIndex()];
+			int position=from.getPosition();
+			from.removePosition(position);
+			from.setMan(null);
+			track(move.getColor(i), position, to);
+			positions|=position<<(2*i);
+		}
+		return positions;
+	}
+	
+	/**
+	 * sets a man on a field and tracks it
+	 * @param colour the colour of the man
+	 * @param position the index of the man in the tracking array of its colour
+	 * @param field the field the man is set to
+	 */
+	private void track(boolean colour, int position, Field field){
+		if(colour)
+			whitefields[position]=field;
+		else
+			blackfields[position]=field;
+		field.addPosition(position);
+		field.setMan(colour);
+	}
+	
+	/**
+	 * sets the gamestate, if one of the initial piles got empty
+	 */
+	private void updateGamestate(){
 		if (!(gamestate[0]&gamestate[1])){
 			if (fields[24].getManCount()==0){
 				gamestate[0]=true;
@@ -481,7 +557,26 @@ public class Playboard {
 				gamestate[1]=true;
 			}
 		}
-		
+	}
+	
+	/**
+	 * recalculates the positions stored in the fields after the tracking arrays were rebuilt.
+	 * moves made before cannot be taken back anymore.
+	 */
+	private void reindex(){
+		for(int i=0;i<28;i++){
+			fields[i].clearPositions();
+		}
+		for(int a=0;a<9;a++){
+			if(whitefields[a]!=null)
+				whitefields[a].addPosition(a);
+			if(blackfields[a]!=null)
+				blackfields[a].addPosition(a);
+		}
+		while(undoTop>0){
+			undoTop--;
+			undoMoves[undoTop]=null;
+		}
 	}
 	
 	/**
@@ -585,7 +680,7 @@ public class Playboard {
 			gamestate[1]=true;
 		else
 			gamestate[1]=false;
-		
+		reindex();
 	}
 	/**
 	 * this method is to be invoked by the AI. It calculates all possible moves depending on
@@ -600,106 +695,10 @@ public class Playboard {
 	 */
 	 
 	public MultiPrioritySet<Move> possibleMoves(MultiPrioritySet<Move> input,MultiPrioritySet<Move> output, boolean colour) throws GameLostException{
-		int[] ownpiles = {24,25};
-		int[] opponentpiles = {26,27};
-		Field[] ownfields = whitefields;
-		Field[] opponentfields = blackfields;
-		boolean stateOfGame;
-		//init colour
-		if (colour){
-			if(gamestate[0]){
-				stateOfGame=true;
-			}
-			else
-				stateOfGame=false;
-			}
-		else{
-				int[] change = ownpiles;
-				ownpiles=opponentpiles;
-				opponentpiles=change;
-				ownfields=blackfields;
-				opponentfields=whitefields;
-				if(gamestate[1]){
-					stateOfGame=true;
-				}
-				else
-					stateOfGame=false;
-				
-		}
-		//check if game is not lost by now
-		if(((Pile)fields[opponentpiles[1]]).getManCount()==6&&((Pile)fields[ownpiles[1]]).getManCount()==6){
-			return output;
-		}
-		
-		if(((Pile)fields[opponentpiles[1]]).getManCount()>6)
-			throw new GameLostException("less then 3 men", colour);
-
-		//if you have set your men
-		if (stateOfGame){
-			ArrayList<Field> mills = new ArrayList<Field>(); //contains opponents fields being part of a mill
-			for (int i=0;i<9;i++){
-				if(ownfields[i].getIndex()<24){
-					int indey = ownfields[i].getIndex();
-					Field dis = fields[indey];
-					//check for your possibilities to move
-					for(int a=0;a<dis.neighbours.length;a++){
-						if(dis.neighbours[a].isEmpty()){
-							//if you would build a mill
-							if (dis.neighbours[a].partOfMill(colour,indey)){
-								//check the opponent's men
-								for (int b=0;b<9;b++){
-								//if the man is on board and not detected as part of mill
-									if(opponentfields[b].getIndex()<24 && !mills.contains(opponentfields[b])){
-										//if it is really not part of a mill
-										if((!fields[opponentfields[b].getIndex()].partOfMill())){
-											//new move
-										Move helo = new Move(false, colour, dis, true, colour, dis.neighbours[a], false,!colour,fields[opponentfields[b].getIndex()],true,!colour,fields[ownpiles[1]]);
-										output.add(input.integrate((helo)));
-										}
-										//if it is part of mill and detected the first time
-										else{
-											mills.add(opponentfields[b]);
-										}
-									}
-								}
-							}
-							//if you do not build a mill
-							else{
-								//simply add this move
-								output.add(input.integrate(new Move(false, colour, dis, true, colour, dis.neighbours[a])));
-							}
-						}
-						
-					}
-				}
-			}
-		}
-		//if not all men have been set
-		else{
-			//if there is a free field
-			for (int i=0;i<24;i++){
-				if(fields[i].getMan()==null){
-					//if you build a mill
-					if(fields[i].partOfMill(colour)){
-						//check the opponent but do not save mills, this would last too long
-						for (int b=0;b<9;b++){
-							if(opponentfields[b].getIndex()<24){
-								if((!fields[opponentfields[b].getIndex()].partOfMill())){
-							
-								Move helo = new Move(false, colour, fields[ownpiles[0]], true, colour, fields[i], false,!colour,fields[opponentfields[b].getIndex()],true,!colour,fields[ownpiles[1]]);
-								output.add(input.integrate(helo));
-								}
-								
-							}
-						}
-					}
-					//if you did not create a mill
-					else{
-						output.add(input.integrate(new Move(false,colour,fields[ownpiles[0]],true,colour,fields[i])));
-					}
-				}
-			}
-		}
+		ArrayList<Move> moves = new ArrayList<Move>();
+		generateMoves(colour, moves::add);
+		//the output set is built in one go
+		output.addAll(input.integrateAll(moves));
 		return output;
 	}
 	
@@ -708,11 +707,30 @@ public class Playboard {
 	 * to test the logic without depending on the complex structure of the MultiPrioritySet,
 	 * this method equals the possibleMoves, but returns those moves in an ArrayList.
 	 * on top, it was used by the strict version of upddateByNAO.
+	 * unlike the other version, it throws an exception if the player cannot move anymore.
 	 * @param colour the moves for the player of this colour shall be calculated
 	 * @return all possible Moves in a ArrayList
 	 * @throws GameLostException if the game was lost, an exception is thrown
 	 */
 	public ArrayList<Move> possibleMoves(boolean colour) throws GameLostException{
+		ArrayList<Move> freeagain = new ArrayList<Move>();
+		//if no moves are possible, you lost (unless it is a draw)
+		if (generateMoves(colour, freeagain::add) && freeagain.isEmpty())
+			throw new GameLostException("Player cannot move anymore",colour);
+		return freeagain;
+	}
+	
+	/**
+	 * calculates all possible moves depending on the current state of the game and hands them over one by one.
+	 * both versions of possibleMoves use this method, so they generate the same moves in the same order.
+	 * a man of the opponent can only be taken away if it is not part of a mill; as the own move does not change
+	 * the opponent's mills, this is checked for every man directly.
+	 * @param colour the moves for the player of this colour shall be calculated
+	 * @param sink receives every possible move
+	 * @return false if both players have only three men left, so the game ends in a draw and no moves are generated
+	 * @throws GameLostException if the game was lost, an exception is thrown
+	 */
+	private boolean generateMoves(boolean colour, Consumer<Move> sink) throws GameLostException{
 		int[] ownpiles = {24,25};
 		int[] opponentpiles = {26,27};
 		Field[] ownfields = whitefields;
@@ -720,38 +738,26 @@ public class Playboard {
 		boolean stateOfGame;
 		//init colour
 		if (colour){
-			if(gamestate[0]){
-				stateOfGame=true;
-			}
-			else
-				stateOfGame=false;
-			}
+			stateOfGame=gamestate[0];
+		}
 		else{
-				int[] change = ownpiles;
-				ownpiles=opponentpiles;
-				opponentpiles=change;
-				ownfields=blackfields;
-				opponentfields=whitefields;
-				if(gamestate[1]){
-					stateOfGame=true;
-				}
-				else
-					stateOfGame=false;
-				
+			int[] change = ownpiles;
+			ownpiles=opponentpiles;
+			opponentpiles=change;
+			ownfields=blackfields;
+			opponentfields=whitefields;
+			stateOfGame=gamestate[1];
 		}
 		//check if game is not lost by now
 		if(((Pile)fields[opponentpiles[1]]).getManCount()==6&&((Pile)fields[ownpiles[1]]).getManCount()==6){
-			return new ArrayList<Move>();
+			return false;
 		}
 		
 		if(((Pile)fields[opponentpiles[1]]).getManCount()>6)
 			throw new GameLostException("less then 3 men", colour);
-		
-		ArrayList<Move> freeagain = new ArrayList<Move>();
 
 		//if you have set your men
 		if (stateOfGame){
-			ArrayList<Field> mills = new ArrayList<Field>(); //contains opponents fields being part of a mill
 			for (int i=0;i<9;i++){
 				if(ownfields[i].getIndex()<24){
 					int indey = ownfields[i].getIndex();
@@ -763,28 +769,18 @@ public class Playboard {
 							if (dis.neighbours[a].partOfMill(colour,indey)){
 								//check the opponent's men
 								for (int b=0;b<9;b++){
-								//if the man is on board and not detected as part of mill
-									if(opponentfields[b].getIndex()<24 && !mills.contains(opponentfields[b])){
-										//if it is really not part of a mill
-										if((!fields[opponentfields[b].getIndex()].partOfMill())){
-											//new move
-										Move helo = new Move(false, colour, dis, true, colour, dis.neighbours[a], false,!colour,fields[opponentfields[b].getIndex()],true,!colour,fields[ownpiles[1]]);
-										freeagain.add(helo);
-										}
-										//if it is part of mill and detected the first time
-										else{
-											mills.add(opponentfields[b]);
-										}
+									//if the man is on board and not part of a mill
+									if(opponentfields[b].getIndex()<24 && !fields[opponentfields[b].getIndex()].partOfMill()){
+										sink.accept(new Move(false, colour, dis, true, colour, dis.neighbours[a], false,!colour,fields[opponentfields[b].getIndex()],true,!colour,fields[ownpiles[1]]));
 									}
 								}
 							}
-							//if you donot build a mill
+							//if you do not build a mill
 							else{
 								//simply add this move
-								freeagain.add(new Move(false, colour, dis, true, colour, dis.neighbours[a]));
+								sink.accept(new Move(false, colour, dis, true, colour, dis.neighbours[a]));
 							}
 						}
-						
 					}
 				}
 			}
@@ -795,31 +791,22 @@ public class Playboard {
 			for (int i=0;i<24;i++){
 				if(fields[i].getMan()==null){
 					//if you build a mill
-					if(fields[i].partOfMill(colour)){
-						//check the opponent but donot save mills, this would last too long
+					if(fields[i].partOfMill(colour,-1)){
+						//check the opponent's men
 						for (int b=0;b<9;b++){
-							if(opponentfields[b].getIndex()<24){
-								if((!fields[opponentfields[b].getIndex()].partOfMill())){
-							
-								Move helo = new Move(false, colour, fields[ownpiles[0]], true, colour, fields[i], false,!colour,fields[opponentfields[b].getIndex()],true,!colour,fields[ownpiles[1]]);
-								freeagain.add(helo);
-								}
-								
+							if(opponentfields[b].getIndex()<24 && !fields[opponentfields[b].getIndex()].partOfMill()){
+								sink.accept(new Move(false, colour, fields[ownpiles[0]], true, colour, fields[i], false,!colour,fields[opponentfields[b].getIndex()],true,!colour,fields[ownpiles[1]]));
 							}
 						}
 					}
 					//if you did not create a mill
 					else{
-						freeagain.add(new Move(false,colour,fields[ownpiles[0]],true,colour,fields[i]));
+						sink.accept(new Move(false,colour,fields[ownpiles[0]],true,colour,fields[i]));
 					}
 				}
 			}
 		}
-		//if no moves are possible, you lost
-		if (freeagain.isEmpty())
-			throw new GameLostException("Player cannot move anymore",colour);
-		
-		return freeagain;
+		return true;
 	}
 	
 	/**
@@ -882,74 +869,82 @@ public class Playboard {
 	
 	/**
 	 * This method returns a new playboard containing fields with all values set like on the current one.
+	 * Only the state is copied via snapshot() and restore(state), the new fields are wired by the constructor.
 	 * @return a deep copy of the Playboard
 	 */
 	public Playboard deepCopy(){
 		Playboard rtn = new Playboard();
-		Boolean[] whatshallbe = this.updateGUI();//position in same Boolean Objects
-		int a=0;
-		while(a<whatshallbe.length){
-			try{
-				rtn.fields[a].setMan(new Boolean(whatshallbe[a].booleanValue()));
-			}
-			catch (NullPointerException e){
-				rtn.fields[a].setMan(null);
-			}
-			a++;
+		rtn.restore(snapshot());
+		return rtn;
+	}
+	
+	/**
+	 * copies everything that changes during a game into a flat state. This is much cheaper than a deep copy,
+	 * as no fields have to be created and wired. Moves made before cannot be taken back by unmake() on restored boards.
+	 * @return the current state of this playboard
+	 */
+	public State snapshot(){
+		byte[] data = new byte[State.LENGTH];
+		for(int i=0;i<24;i++){
+			if(fields[i].manEqualsColour(true))
+				data[i]=1;
+			else if(fields[i].manEqualsColour(false))
+				data[i]=2;
 		}
-		//refill the piles with new objects
-		while(a<28){
-			((Pile)rtn.fields[a]).clear();
-			for(int b=0;b<fields[a].getManCount();b++){
-				((Pile)rtn.fields[a]).setMan(((Pile)fields[a]).getMan(b), b);
-			}
-			a++;
+		for(int i=24;i<28;i++){
+			data[i]=(byte)fields[i].getManCount();
+			if(data[i]>0&&((Pile)fields[i]).getMan(0))
+				data[i]|=State.WHITE_PILE;
 		}
-		//fill the XFields
-		int blackpointer=0;
-		int whitepointer=0;
-		int memory=0;
-		//	track black unset
-		while(blackpointer<rtn.fields[26].getManCount()){
-			rtn.blackfields[blackpointer]=rtn.fields[26];
-			blackpointer++;
-		}//track black lost
-		memory=blackpointer;
-		while(blackpointer<(memory+rtn.fields[25].getManCount())){
-			rtn.blackfields[blackpointer]=rtn.fields[25];
-			blackpointer++;
-		}//track white unset
-		while(whitepointer<rtn.fields[24].getManCount()){
-			rtn.whitefields[whitepointer]=rtn.fields[24];
-			whitepointer++;
-		}//track white lost
-		memory=whitepointer;
-		while (whitepointer<(memory+rtn.fields[27].getManCount())){
-			rtn.whitefields[whitepointer]=rtn.fields[27];
-			whitepointer++;
+		for(int a=0;a<9;a++){
+			data[State.WHITE+a]=(byte)(whitefields[a]==null?-1:whitefields[a].getIndex());
+			data[State.BLACK+a]=(byte)(blackfields[a]==null?-1:blackfields[a].getIndex());
 		}
-		//search the rest.
+		data[State.GAMESTATE]=(byte)((gamestate[0]?1:0)|(gamestate[1]?2:0));
+		return new State(data);
+	}
+	
+	/**
+	 * sets this playboard to a state taken from this or another playboard.
+	 * @param state the state to restore
+	 */
+	public void restore(State state){
+		byte[] data = state.data;
 		for(int i=0;i<24;i++){
-			if(rtn.fields[i].manEqualsColour(false)){
-				if(blackpointer==9){
-					System.err.println("StackOverflow 888");
-				}
-				rtn.blackfields[blackpointer]=rtn.fields[i];
-				blackpointer++;
-			}
-			else if(rtn.fields[i].manEqualsColour(true)){
-				if(whitepointer==9){
-					System.err.println("StackOverflow 895");
-				}
-				rtn.whitefields[whitepointer]=rtn.fields[i];
-				whitepointer++;
+			fields[i].setMan(data[i]==0?null:data[i]==1?Boolean.TRUE:Boolean.FALSE);
+		}
+		for(int i=24;i<28;i++){
+			Boolean colour = (data[i]&State.WHITE_PILE)!=0?Boolean.TRUE:Boolean.FALSE;
+			((Pile)fields[i]).clear();
+			for(int b=0;b<(data[i]&~State.WHITE_PILE);b++){
+				((Pile)fields[i]).setMan(colour, b);
 			}
 		}
-		//gamestate
-		rtn.gamestate[0]=gamestate[0];
-		rtn.gamestate[1]=gamestate[1];
-
-		return rtn;
+		for(int a=0;a<9;a++){
+			whitefields[a]=data[State.WHITE+a]<0?null:fields[data[State.WHITE+a]];
+			blackfields[a]=data[State.BLACK+a]<0?null:fields[data[State.BLACK+a]];
+		}
+		gamestate[0]=(data[State.GAMESTATE]&1)!=0;
+		gamestate[1]=(data[State.GAMESTATE]&2)!=0;
+		reindex();
+	}
+	
+	/**
+	 * a flat copy of everything that changes on a playboard: the men on the fields, the number of men on the piles,
+	 * the tracking arrays and the gamestate. The fields and their neighbours never change and are therefore not part of it.
+	 * A state cannot be changed, so it may be restored several times, on any playboard.
+	 */
+	public static final class State{
+		/**
+		 * the layout of data: 24 fields (0 no man, 1 white, 2 black), 4 piles (number of men, plus WHITE_PILE if they are white),
+		 * 9 tracked white men and 9 tracked black men (index of the field, -1 if not tracked) and the gamestate
+		 */
+		private static final int WHITE=28, BLACK=37, GAMESTATE=46, LENGTH=47, WHITE_PILE=0x10;
+		private final byte[] data;
+		
+		private State(byte[] data){
+			this.data=data;
+		}
 	}
 	
 	@Override
@@ -999,6 +994,8 @@ public class Playboard {
 			menSetter(helo,true);
 			int[] hel = {14,15,20,22,23};
 			menSetter(hel,false);
+			setXFields(helo,whitefields,fields[24]);
+			setXFields(hel,blackfields,fields[26]);
 			break;
 		}
 		//all men on board, no mills possible
@@ -1009,6 +1006,8 @@ public class Playboard {
 			menSetter(helo,true);
 			int[] hel = {0,4,11,13,14,15,20,22,23};
 			menSetter(hel,false);
+			setXFields(helo,whitefields,null);
+			setXFields(hel,blackfields,null);
 			break;
 		}
 		//all men on board, mills possible for black, existing mill of white
@@ -1058,6 +1057,7 @@ public class Playboard {
 			gamestate[1]=true;
 		}
 		}
+		reindex();
 	}
 	/**	
 	 * to be invoked by testSetter
@@ -0,0 +1,421 @@
+package foundation.data;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * <p>A thread-safe counterpart of the {@link MultiPrioritySet MultiPrioritySet}: a set that is iterable using an arbitrary
+ * number of total orders defined on the data stored within and that may be accessed by any number of threads without
+ * external locking.</p>
+ * <p>Every total order is kept in a concurrent skip list. The skip list of the standard comparator maps the elements to
+ * entries and decides which element is contained, as in the {@code MultiPrioritySet}. The skip lists of the other comparators
+ * contain the entries, ordering elements the comparator considers equal by the time of their insertion. Like the sequence
+ * numbers of the {@code MultiPrioritySet}, the time is taken when an element is added and kept by
+ * {@link #update(Comparable, Consumer) update}, so that the same operations applied by a single thread yield the same order of
+ * equal elements in both sets; elements added concurrently are ordered by when they have entered the skip list of the
+ * standard comparator. Dictionary methods thus run in expected logarithmic time per comparator, and threads working on
+ * different elements do not block each other.</p>
+ * <p>All modifications of one element are serialized by locking its entry, so that an element is either contained in the
+ * skip lists of all comparators or, once the modification has finished, in none of them. The iterators are weakly consistent:
+ * they never throw a {@link java.util.ConcurrentModificationException ConcurrentModificationException} and reflect every
+ * element that has been contained from their construction on until they pass its position, but possibly not elements
+ * inserted or removed concurrently. An element that is being inserted may already be visible in one order while it is not
+ * yet visible in another. {@link #size() size()} is exact in the absence of concurrent modifications only.</p>
+ * <p><i><b>Caution:</b> This set does not support {@code null} elements. A change to the comparators specified at
+ * construction time or to an element in any way other than by {@link #update(Comparable, Consumer) update} will result in
+ * undefined behavior. Iterators of other threads may observe an element while it is being mutated by {@code update}.</i></p>
+ * @author Julian Betz
+ * @version 1.01
+ */
+public class ConcurrentMultiPrioritySet<E extends Comparable<E>> extends AbstractSet<E> {
+	/**
+	 * <p>The comparators that define the total orders used to navigate this set.</p>
+	 */
+	private final Comparator<E>[] comparators;
+	/**
+	 * <p>The entries of the elements ordered by the standard comparator.</p>
+	 */
+	private final ConcurrentSkipListMap<E, Entry<E>> standard;
+	/**
+	 * <p>The entries of the elements ordered by every other comparator, indexed by comparator. The element at index {@code 0}
+	 * is {@code null}.</p>
+	 */
+	private final ConcurrentSkipListSet<Entry<E>>[] orders;
+	/**
+	 * <p>The source of the insertion times of the entries.</p>
+	 */
+	private final AtomicLong time;
+	/**
+	 * <p>Determines the size of this set.</p>
+	 */
+	private final AtomicInteger size;
+
+	/**
+	 * <p>Constructs a {@code ConcurrentMultiPrioritySet} that uses a standard comparator based on the
+	 * {@link Comparable#compareTo(Object) compareTo} method of the runtime types of the inserted elements to navigate the
+	 * data.</p>
+	 */
+	public ConcurrentMultiPrioritySet() {
+		this(null);
+	}
+
+	/**
+	 * <p>Constructs a {@code ConcurrentMultiPrioritySet} that uses the specified comparators to navigate the data.</p>
+	 * <p>If the list is a {@code null} reference, a standard comparator based on the {@link Comparable#compareTo(Object)
+	 * compareTo} method of the runtime types of the inserted elements will be used. Otherwise, every comparator in the
+	 * list will be used for comparison. The comparators will be indexed in the same order as they appear in the specified list.
+	 * The standard comparator will be the first element.</p>
+	 * <p><i><b>Caution:</b> A change to the specified comparators or an empty list will result in undefined behavior.</i></p>
+	 * @param comparators the comparators to use navigating this set
+	 */
+	@SuppressWarnings("unchecked")
+	public ConcurrentMultiPrioritySet(Collection<Comparator<E>> comparators) {
+		if (comparators == null) {
+			this.comparators = (Comparator<E>[]) new Comparator<?>[1];
+			this.comparators[0] = (E a, E b) -> a.compareTo(b); //Add the standard comparator
+		}
+		else
+			this.comparators = comparators.toArray((Comparator<E>[]) new Comparator<?>[comparators.size()]); //Add the given comparators
+		standard = new ConcurrentSkipListMap<E, Entry<E>>(this.comparators[0]);
+		orders = (ConcurrentSkipListSet<Entry<E>>[]) new ConcurrentSkipListSet<?>[dimensions()];
+		for (int c = 1; c < dimensions(); c++) {
+			Comparator<E> comparator = this.comparators[c];
+			orders[c] = new ConcurrentSkipListSet<Entry<E>>((Entry<E> a, Entry<E> b) -> {
+				int comparison = comparator.compare(a.value, b.value);
+				return comparison != 0 ? comparison : Long.compare(a.time, b.time);
+			});
+		}
+		time = new AtomicLong();
+		size = new AtomicInteger();
+	}
+
+	/**
+	 * <p>A nested class representing an element inserted into the set, together with the time of its insertion that makes it
+	 * distinguishable from elements considered equal by a comparator.</p>
+	 * <p>The entry is the lock of all modifications of its element. Once the element has been removed, the entry is marked
+	 * as such and never reinserted.</p>
+	 * @author Julian Betz
+	 * @version 1.00
+	 */
+	private static final class Entry<E> {
+		private E value;
+		private long time;
+		private boolean removed;
+
+		/**
+		 * <p>Constructs an entry that has not been inserted yet.</p>
+		 * @param value the element represented by this entry
+		 */
+		private Entry(E value) {
+			this.value = value;
+		}
+	}
+
+	/**
+	 * <p>A nested class representing a weakly consistent iterator on the data stored within the enclosing
+	 * {@link ConcurrentMultiPrioritySet ConcurrentMultiPrioritySet}.</p>
+	 * @author Julian Betz
+	 * @version 1.00
+	 */
+	private class EntryIterator implements Iterator<E> {
+		private final Iterator<Entry<E>> it;
+		private E last;
+
+		/**
+		 * <p>Constructs an iterator that iterates the elements of the specified entries.</p>
+		 * @param it the iterator on the entries
+		 */
+		private EntryIterator(Iterator<Entry<E>> it) {
+			this.it = it;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return it.hasNext();
+		}
+
+		@Override
+		public E next() {
+			if (!it.hasNext()) {
+				last = null;
+				throw new NoSuchElementException("The iteration does not contain any further elements");
+			}
+			return last = it.next().value;
+		}
+
+		@Override
+		public void remove() {
+			if (last == null)
+				throw new IllegalStateException("The remove operation cannot be called before the next call of the next method");
+			ConcurrentMultiPrioritySet.this.remove(last);
+			last = null;
+		}
+	}
+
+	/**
+	 * <p>Adds the specified element to this set if it is not already present.</p>
+	 * <p>An element will only be inserted if it is non-{@code null} and considered not to be contained in this set by the
+	 * standard comparator.</p>
+	 * @param element the element to be inserted
+	 * @return true if this set did not formerly contain the element
+	 * @throws NullPointerException if the specified element is null
+	 * @see #integrate(Comparable)
+	 */
+	@Override
+	public boolean add(E element) {
+		return insert(element) == null;
+	}
+
+	/**
+	 * <p>Searches for an element resembling the one specified regarding the standard comparator. If such an element is already
+	 * present in this set, the element will be returned. Otherwise, the specified element will be added to this set.</p>
+	 * @param element the element to search for
+	 * @return the element in this set corresponding the one specified
+	 * @throws NullPointerException if the specified element is null
+	 * @see #integrateAll(Collection)
+	 * @see #add(Comparable)
+	 */
+	public E integrate(E element) {
+		if (element == null)
+			throw new NullPointerException("Only non-null elements are supported");
+		Entry<E> entry = standard.get(element);
+		if (entry != null)
+			return entry.value;
+		E present = insert(element);
+		return present == null ? element : present;
+	}
+
+	/**
+	 * <p>Integrates all elements of the specified collection into this set, returning a list of the elements integrated. If an
+	 * element from the collection is already present in this set before integration, its counterpart from this set will be
+	 * present in the list. Otherwise, the original element will be contained therein.</p>
+	 * <p>The returned list will be ordered according to the iterator of the specified collection.</p>
+	 * @param c the collection to choose the elements from
+	 * @return a list of elements in this set corresponding the ones specified
+	 * @throws NullPointerException if one of the elements contained in the specified collection is null
+	 * @see #integrate(Comparable)
+	 */
+	public ArrayList<E> integrateAll(Collection<? extends E> c) {
+		ArrayList<E> list = new ArrayList<E>(c.size());
+		for (E element : c)
+			list.add(integrate(element));
+		return list;
+	}
+
+	/**
+	 * <p>Inserts the specified element into the skip lists of all comparators, unless the standard comparator considers it to
+	 * be contained in this set already.</p>
+	 * @param element the element to be inserted
+	 * @return the element contained in this set formerly, or {@code null} if the specified element has been inserted
+	 * @throws NullPointerException if the specified element is null
+	 */
+	private E insert(E element) {
+		if (element == null)
+			throw new NullPointerException("Only non-null elements are supported");
+		Entry<E> entry = new Entry<E>(element);
+		synchronized (entry) {
+			Entry<E> present = standard.putIfAbsent(element, entry);
+			if (present != null)
+				return present.value;
+			entry.time = time.getAndIncrement();
+			for (int c = 1; c < dimensions(); c++)
+				orders[c].add(entry);
+			size.incrementAndGet();
+			return null;
+		}
+	}
+
+	/**
+	 * <p>Removes an element from this set if it is considered to be contained in this set by the standard comparator.</p>
+	 * @param element the element to remove
+	 * @return true if this set did formerly contain this element
+	 * @throws ClassCastException if the type of the specified element is incompatible with this set
+	 * @throws NullPointerException if the specified element is null
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public boolean remove(Object element) {
+		if (element == null)
+			throw new NullPointerException("Only non-null elements are supported");
+		while (true) {
+			Entry<E> entry = standard.get(element);
+			if (entry == null)
+				return false;
+			synchronized (entry) {
+				if (!current(entry, (E) element))
+					continue;
+				discard(entry);
+				standard.remove(entry.value, entry);
+				entry.removed = true;
+				size.decrementAndGet();
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * <p>Checks if an entry that has been looked up by the specified element still represents it. Between the lookup and the
+	 * locking of the entry, another thread may have removed the entry or re-keyed its element by
+	 * {@link #update(Comparable, Consumer) update}; the lookup has to be repeated then.</p>
+	 * <p><b>Requires:</b> the lock of the entry is held</p>
+	 * @param entry the entry looked up
+	 * @param element the element the entry has been looked up by
+	 * @return true if the entry is contained in this set and its element resembles the specified one regarding the standard
+	 * comparator
+	 */
+	private boolean current(Entry<E> entry, E element) {
+		return !entry.removed && comparators[0].compare(entry.value, element) == 0;
+	}
+
+	/**
+	 * <p>Removes an entry from the skip lists of all comparators except for the standard one. The entry has to leave these
+	 * skip lists before the skip list of the standard comparator, so that an element considered equal by the standard
+	 * comparator cannot be inserted while the entry is still visible in any order.</p>
+	 * <p><b>Requires:</b> the lock of the entry is held</p>
+	 * @param entry the entry to remove
+	 */
+	private void discard(Entry<E> entry) {
+		for (int c = 1; c < dimensions(); c++)
+			orders[c].remove(entry);
+	}
+
+	/**
+	 * <p>Applies the specified mutator to the element of this set resembling the one specified regarding the standard
+	 * comparator and repositions the element according to its new state.</p>
+	 * <p>As the skip lists cannot reposition an element in place, the element is taken out of every order for the time of the
+	 * mutation, during which it is not visible to other threads. If the mutation makes the element equal to another element of
+	 * this set regarding the standard comparator, the mutated element is removed from this set.</p>
+	 * @param element the element to search for
+	 * @param mutator the mutation to apply to the element of this set
+	 * @return true if this set contained an element resembling the one specified
+	 * @throws NullPointerException if the specified element or mutator is null
+	 * @see MultiPrioritySet#update(Comparable, Consumer)
+	 */
+	public boolean update(E element, Consumer<? super E> mutator) {
+		if (element == null)
+			throw new NullPointerException("Only non-null elements are supported");
+		if (mutator == null)
+			throw new NullPointerException("The mutator must not be null");
+		while (true) {
+			Entry<E> entry = standard.get(element);
+			if (entry == null)
+				return false;
+			synchronized (entry) {
+				if (!current(entry, element))
+					continue;
+				discard(entry);
+				standard.remove(entry.value, entry);
+				mutator.accept(entry.value);
+				if (standard.putIfAbsent(entry.value, entry) != null) {
+					//The mutated element is a duplicate of another one and is dropped
+					entry.removed = true;
+					size.decrementAndGet();
+					return true;
+				}
+				for (int c = 1; c < dimensions(); c++)
+					orders[c].add(entry);
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * <p>Removes all of the elements from this set. Elements inserted concurrently may remain.</p>
+	 */
+	@Override
+	public void clear() {
+		for (E element : standard.keySet())
+			remove(element);
+	}
+
+	/**
+	 * <p>Returns true if this set contains an element equal to the specified element regarding the standard comparator.</p>
+	 * @param element the element to find
+	 * @return true if an equivalent was found for the element
+	 * @throws ClassCastException if the type of the specified element is incompatible with this set
+	 * @throws NullPointerException if the specified element is null
+	 */
+	@Override
+	public boolean contains(Object element) {
+		if (element == null)
+			throw new NullPointerException("Only non-null elements are supported");
+		return standard.containsKey(element);
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return standard.isEmpty();
+	}
+
+	@Override
+	public int size() {
+		return size.get();
+	}
+
+	/**
+	 * <p>Returns the number of total orders applied to this set.</p>
+	 * @return the number of total orders applied to this set
+	 * @see #size()
+	 */
+	public int dimensions() {
+		return comparators.length;
+	}
+
+	/**
+	 * <p>Returns the standard comparator for this set.</p>
+	 * @return the standard comparator for this set
+	 * @see #comparator(int)
+	 */
+	public Comparator<E> comparator() {
+		return comparator(0);
+	}
+
+	/**
+	 * <p>Returns the {@code c}-th comparator for this set.</p>
+	 * @param c the index of the comparator to be returned
+	 * @return the {@code c}-th comparator for this set
+	 * @throws IllegalArgumentException if {@code c<0} or {@code c>=dimensions()}
+	 * @see #comparator()
+	 */
+	public Comparator<E> comparator(int c) {
+		if (c < 0)
+			throw new IllegalArgumentException("The index c must not be negative");
+		if (c >= dimensions())
+			throw new IllegalArgumentException("The index c must not exceed dimensions() - 1");
+		return comparators[c];
+	}
+
+	/**
+	 * <p>Returns a weakly consistent iterator based on the standard comparator.</p>
+	 * @return the standard iterator for this set
+	 * @see #iterator(int)
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return iterator(0);
+	}
+
+	/**
+	 * <p>Returns a weakly consistent iterator based on the {@code c}-th comparator.</p>
+	 * @param c the index of the comparator to determine the iteration order
+	 * @return the {@code c}-th iterator for this set
+	 * @throws IllegalArgumentException if {@code c<0} or {@code c>=dimensions()}
+	 * @see #iterator()
+	 */
+	public Iterator<E> iterator(int c) {
+		if (c < 0)
+			throw new IllegalArgumentException("The index c must not be negative");
+		if (c >= dimensions())
+			throw new IllegalArgumentException("The index c must not exceed dimensions() - 1");
+		return new EntryIterator(c == 0 ? standard.values().iterator() : orders[c].iterator());
+	}
+}
@@ -1,12 +1,19 @@
 package foundation.data;
 
 import java.lang.reflect.Array;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntBinaryOperator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * <p>A priority queue that is iterable using an arbitrary number of total orders defined on the data stored within.</p>
@@ -15,50 +22,133 @@ import java.util.Set;
  * <p>The data is internally stored in as many red-black trees as there are comparators ordering this set. Therefore,
  * dictionary methods run in logarithmic time per comparator. Furthermore, this data structure is augmented to support an
  * iterator able to iterate the whole set of data in linear time.</p>
+ * <p>The nodes of the red-black trees are not represented by objects, but by indices into parallel arrays of primitive
+ * linkages, one array per linkage and comparator. An element thus costs one slot in every array instead of a node object
+ * with a list of linkages per kind, and the linkages of one red-black tree lie next to each other in memory. Slots of removed
+ * elements are kept on a free list and reused by later insertions; {@link #clear() clear()} releases all slots at once.</p>
+ * <p>Only the red-black tree of the standard comparator is maintained from the start. The red-black tree of any other
+ * comparator is built the first time an order according to it is requested, e.g. by {@link #iterator(int) iterator(int)},
+ * and maintained by every modification from then on. A set that is never iterated in some order does thus not pay for
+ * maintaining it.</p>
+ * <p>Elements a comparator other than the standard comparator considers equal are iterated in the order of their insertion,
+ * regardless of when the red-black tree of that comparator has been built. Every node carries a sequence number taken at
+ * insertion time for that purpose.</p>
+ * <p>Every node is augmented by the size of its subtree in each red-black tree, so that the element at a given position of an
+ * order, and the position of an element in it, are found in logarithmic time as well (see {@link #select(int, int) select},
+ * {@link #rank(int, Comparable) rank} and {@link #headCount(int, Comparable) headCount}). The same augmentation lets a
+ * {@link #spliterator(int) spliterator} split at the middle of its range without traversing it, so that the set can be
+ * processed by parallel {@link #stream(int) streams}.</p>
+ * <p>Every order can be navigated like a {@link java.util.NavigableSet NavigableSet}: {@link #floor(int, Comparable) floor},
+ * {@link #ceiling(int, Comparable) ceiling}, {@link #lower(int, Comparable) lower}, {@link #higher(int, Comparable) higher},
+ * {@link #pollFirst(int) pollFirst} and {@link #pollLast(int) pollLast} run in logarithmic time, and
+ * {@link #subSet(int, Comparable, boolean, Comparable, boolean) subSet}, {@link #headSet(int, Comparable, boolean) headSet}
+ * and {@link #tailSet(int, Comparable, boolean) tailSet} return views of a range of an order that only visit the elements
+ * within it.</p>
+ * <p>A set may be bounded to a maximum size (see {@link #MultiPrioritySet(Collection, int, int) MultiPrioritySet(Collection,
+ * int, int)}). A bounded set keeps the greatest elements according to its eviction comparator only: once it is full, an
+ * insertion evicts the least element, or is refused if the element to be inserted is not greater than that one.</p>
+ * <p>An immutable copy to be handed to other threads is taken by {@link #snapshot() snapshot()}.</p>
  * <p><i><b>Caution:</b> This set does not support {@code null} elements. It is not thread-safe and may thus be prone to errors
  * due to use in multiple threads. A change to the comparators specified at construction time will result in undefined behavior.
  * </i></p>
  * @author Julian Betz
- * @version 1.03
+ * @version 2.09
  */
 public class MultiPrioritySet<E extends Comparable<E>> implements Set<E> {
-	private static final boolean RED = false, BLACK = true;
 	/**
-	 * <p>The list of comparators that define the total orders used to navigate this set.</p>
+	 * <p>The colors of the nodes. {@code BLACK} is the default value of a {@code boolean}, so that the sentinel is black without
+	 * being initialized.</p>
 	 */
-	private ArrayList<Comparator<E>> comparators;
+	private static final boolean RED = true, BLACK = false;
 	/**
-	 * <p>The list of first elements to start in order to search for a specific element in this set.</p>
-	 */
-	private ArrayList<Node> root;
-	/**
-	 * <p>The sentinel element always present in this data structure. The sentinel is not visible through external access by any
-	 * means and not counted while computing the value of {@link #size() size()}.</p>
+	 * <p>The index of the sentinel element always present in this data structure. The sentinel is not visible through external
+	 * access by any means and not counted while computing the value of {@link #size() size()}.</p>
 	 * <p>It does not only form the border for root and leaf nodes, but is also the element before the first and after the last
 	 * value in regard to predecessor and successor linkages. <i>The parental connections (i.e. {@code left}, {@code rght} and
-	 * {@code prnt}) are only supported from other nodes towards {@code nil} while any such linkages from {@code nil} lead to
+	 * {@code prnt}) are only supported from other nodes towards {@code NIL} while any such linkages from {@code NIL} lead to
 	 * arbitrary nodes.</i></p>
 	 */
-	private Node nil;
+	private static final int NIL = 0;
+	/**
+	 * <p>The number of slots allocated at construction time, including the one of the sentinel.</p>
+	 */
+	private static final int INITIAL_CAPACITY = 16;
+	/**
+	 * <p>The maximum size of a set that is not bounded.</p>
+	 */
+	private static final int UNBOUNDED = Integer.MAX_VALUE;
+	/**
+	 * <p>The comparators that define the total orders used to navigate this set.</p>
+	 */
+	private Comparator<E>[] comparators;
+	/**
+	 * <p>The first node per comparator to start at in order to search for a specific element in this set.</p>
+	 */
+	private int[] root;
+	/**
+	 * <p>The elements represented by the nodes, indexed by node. The slot of {@code NIL} and the slots on the free list hold
+	 * {@code null}.</p>
+	 */
+	private Object[] value;
+	/**
+	 * <p>The linkages of the nodes, indexed by comparator first and by node second.</p>
+	 */
+	private int[][] prnt, left, rght, pred, succ;
+	/**
+	 * <p>The colors of the nodes, indexed by comparator first and by node second.</p>
+	 */
+	private boolean[][] color;
+	/**
+	 * <p>The numbers of nodes in the subtrees rooted at the nodes, indexed by comparator first and by node second. The count of
+	 * {@code NIL} is always {@code 0}.</p>
+	 */
+	private int[][] count;
+	/**
+	 * <p>The sequence numbers of the nodes, indexed by node. They order the elements a comparator other than the standard
+	 * comparator considers equal by the time of their insertion.</p>
+	 */
+	private long[] sequence;
+	/**
+	 * <p>The sequence number to assign to the next element inserted.</p>
+	 */
+	private long next;
 	/**
-	 * <p>Determines the size of this set. Every node except for {@code nil} is counted.</p>
+	 * <p>Determines per comparator whether its internal red-black tree has been built and is maintained. The red-black tree of
+	 * the standard comparator is always maintained. The arrays of linkages of any other red-black tree are only allocated once
+	 * it is built.</p>
+	 */
+	private boolean[] materialized;
+	/**
+	 * <p>The number of slots that have ever been handed out, including the one of {@code NIL}. All slots from this index on
+	 * are unused.</p>
+	 */
+	private int used;
+	/**
+	 * <p>The first slot of the list of released slots below {@code used}, or {@code NIL} if there is none. The list is linked
+	 * via the right child linkages of the first red-black tree.</p>
+	 */
+	private int free;
+	/**
+	 * <p>Determines the size of this set. Every node except for {@code NIL} is counted.</p>
 	 */
 	private int size;
-	
+	/**
+	 * <p>The maximum size of this set, or {@code UNBOUNDED}.</p>
+	 */
+	private int capacity;
+	/**
+	 * <p>The index of the comparator whose least element is evicted if this set is full.</p>
+	 */
+	private int eviction;
+
 	/**
 	 * <p>Constructs a {@code MultiPrioritySet} that uses a standard comparator based on the {@link Comparable#compareTo(Object)
 	 * compareTo} method of the runtime types of the inserted elements to navigate the data.</p>
 	 */
 	public MultiPrioritySet() {
-		this.comparators = new ArrayList<Comparator<E>>(1);
-		this.comparators.add((E a, E b) -> a.compareTo(b)); //Add the standard comparator
-		nil = new Node();
-		root = new ArrayList<Node>(this.comparators.size());
-		for (int i = 0; i < this.comparators.size(); i++)
-			root.add(nil);
-		size = 0;
+		this(null);
 	}
-	
+
 	/**
 	 * <p>Constructs a {@code MultiPrioritySet} that uses the specified comparators to navigate the data.</p>
 	 * <p>If the list is a {@code null} reference, a standard comparator based on the {@link Comparable#compareTo(Object)
@@ -69,144 +159,318 @@ public class MultiPrioritySet<E extends Comparable<E>> implements Set<E> {
 	 * @param comparators the comparators to use navigating this set
 	 */
 	public MultiPrioritySet(Collection<Comparator<E>> comparators) {
-		if (comparators == null) {
-			this.comparators = new ArrayList<Comparator<E>>(1);
-			this.comparators.add((E a, E b) -> a.compareTo(b)); //Add the standard comparator
-		}
-		else {
-			this.comparators = new ArrayList<Comparator<E>>(comparators.size());
-			for (Comparator<E> c : comparators)
-				this.comparators.add(c); //Add the given comparators
-		}
-		nil = new Node();
-		root = new ArrayList<Node>(this.comparators.size());
-		for (int i = 0; i < this.comparators.size(); i++)
-			root.add(nil);
-		size = 0;
+		this(comparators, UNBOUNDED, 0);
 	}
-	
+
 	/**
-	 * <p>A nested class used to implement the {@link MultiPrioritySet MultiPrioritySet} data structure.</p>
-	 * <p>Every {@code Node} object represents a value inserted into the set and implements the linkages needed to navigate the
-	 * data.</p>
-	 * @author Julian Betz
-	 * @version 1.01
+	 * <p>Constructs a bounded {@code MultiPrioritySet} that uses the specified comparators to navigate the data and contains at
+	 * most {@code capacity} elements.</p>
+	 * <p>Once the set is full, an element is only inserted if it is greater than the least element according to the
+	 * {@code eviction}-th comparator, which is then evicted from the set. The set does thus keep the {@code capacity} greatest
+	 * elements inserted regarding that comparator, preferring elements inserted earlier over equal ones. The internal red-black
+	 * tree of the eviction comparator is always maintained.</p>
+	 * @param comparators the comparators to use navigating this set, as for {@link #MultiPrioritySet(Collection)
+	 * MultiPrioritySet(Collection)}
+	 * @param capacity the maximum size of this set
+	 * @param eviction the index of the comparator that determines the element to evict
+	 * @throws IllegalArgumentException if {@code capacity<1}, {@code eviction<0} or {@code eviction>=dimensions()}
 	 */
-	private class Node {
-		private E value;
-		private ArrayList<Node> prnt, left, rght, pred, succ;
-		private boolean[] color;
-		
-		/**
-		 * <p>Constructs the sentinel and creates its initial linkages.</p>
-		 */
-		private Node() {
-			value = null;
-			prnt = new ArrayList<Node>(dimensions());
-			left = new ArrayList<Node>(dimensions());
-			rght = new ArrayList<Node>(dimensions());
-			pred = new ArrayList<Node>(dimensions());
-			succ = new ArrayList<Node>(dimensions());
-			color = new boolean[dimensions()];
-			for (int i = 0; i < dimensions(); i++) {
-				prnt.add(this);
-				left.add(this);
-				rght.add(this);
-				pred.add(this);
-				succ.add(this);
-				color[i] = BLACK;
-			}
-		}
-		
-		/**
-		 * <p>Constructs the node and creates its linkages.</p>
-		 * <p>After termination of the constructor, the node resulting will be isolated.</p> 
-		 * @param value the value represented by this node
-		 */
-		private Node(E value) {
-			this.value = value;
-			prnt = new ArrayList<Node>(dimensions());
-			left = new ArrayList<Node>(dimensions());
-			rght = new ArrayList<Node>(dimensions());
-			pred = new ArrayList<Node>(dimensions());
-			succ = new ArrayList<Node>(dimensions());
-			color = new boolean[dimensions()];
-			for (int i = 0; i < dimensions(); i++) {
-				prnt.add(nil);
-				left.add(nil);
-				rght.add(nil);
-				pred.add(nil);
-				succ.add(nil);
-				color[i] = RED;
-			}
-		}
-		
-		@Override
-		public String toString() {
-			if (this == nil)
-				return "";
-			return "(" + left.get(0).toString() +  " <" + value.toString() + " | " + (prnt.get(0) == nil ? "*"
-					: prnt.get(0).value.toString()) + "> " + rght.get(0).toString() + ")";
+	@SuppressWarnings("unchecked")
+	public MultiPrioritySet(Collection<Comparator<E>> comparators, int capacity, int eviction) {
+		if (comparators == null) {
+			this.comparators = (Comparator<E>[]) new Comparator<?>[1];
+			this.comparators[0] = (E a, E b) -> a.compareTo(b); //Add the standard comparator
 		}
+		else
+			this.comparators = comparators.toArray((Comparator<E>[]) new Comparator<?>[comparators.size()]); //Add the given comparators
+		root = new int[dimensions()];
+		value = new Object[INITIAL_CAPACITY];
+		sequence = new long[INITIAL_CAPACITY];
+		prnt = new int[dimensions()][];
+		left = new int[dimensions()][];
+		rght = new int[dimensions()][];
+		pred = new int[dimensions()][];
+		succ = new int[dimensions()][];
+		color = new boolean[dimensions()][];
+		count = new int[dimensions()][];
+		materialized = new boolean[dimensions()];
+		allocateLinkages(0);
+		materialized[0] = true;
+		used = 1; //The slot of NIL
+		free = NIL;
+		size = 0;
+		if (capacity < 1)
+			throw new IllegalArgumentException("The capacity must be positive");
+		if (eviction < 0)
+			throw new IllegalArgumentException("The index eviction must not be negative");
+		if (eviction >= dimensions())
+			throw new IllegalArgumentException("The index eviction must not exceed dimensions() - 1");
+		this.capacity = capacity;
+		this.eviction = eviction;
+		materialize(eviction);
 	}
-	
+
 	/**
 	 * <p>A nested class representing an iterator on the data stored within the enclosing {@link MultiPrioritySet
 	 * MultiPrioritySet}.</p>
 	 * @author Julian Betz
-	 * @version 1.01
+	 * @version 1.03
 	 */
 	private class NodeIterator implements Iterator<E> {
-		private Node i;
+		private int i;
 		private boolean removable;
 		private int c;
-		
+		/**
+		 * <p>The upper bound of the iteration, or {@code null} if the iteration ends with the last node.</p>
+		 */
+		private E to;
+		private boolean toInclusive;
+
 		/**
 		 * <p>Constructs an iterator able to iterate the {@code c}-th internal red-black tree.</p>
 		 * @param c the internal red-black tree to iterate
 		 */
 		private NodeIterator(int c) {
-			i = nil;
+			this(c, NIL, null, false);
+		}
+
+		/**
+		 * <p>Constructs an iterator able to iterate the {@code c}-th internal red-black tree from the successor of the specified
+		 * node up to the specified bound.</p>
+		 * @param c the internal red-black tree to iterate
+		 * @param before the predecessor of the first node to iterate, or {@code NIL} to start at the first node
+		 * @param to the upper bound of the iteration, or {@code null} to iterate up to the last node
+		 * @param toInclusive whether elements equal to the upper bound are iterated
+		 */
+		private NodeIterator(int c, int before, E to, boolean toInclusive) {
+			i = before;
 			removable = false;
 			this.c = c;
+			this.to = to;
+			this.toInclusive = toInclusive;
 		}
-		
+
 		@Override
 		public boolean hasNext() {
-			return i.succ.get(c) != nil;
+			int next = succ[c][i];
+			return next != NIL && (to == null || below(value(next), c, to, toInclusive));
 		}
-		
+
 		@Override
 		public E next() {
-			if (i.succ.get(c) == nil) {
+			if (!hasNext()) {
 				removable = false;
 				throw new NoSuchElementException("The iteration does not contain any further elements");
 			}
 			removable = true;
-			return (i = i.succ.get(c)).value;
+			return value(i = succ[c][i]);
 		}
-		
+
 		@Override
 		public void remove() {
 			if (removable) {
-				Node node = i;
-				i = i.pred.get(c);
-				for (int j = 0; j < dimensions(); j++)
-					discard(node, j);
-				size--;
+				int node = i;
+				i = pred[c][i];
+				delete(node);
 				removable = false;
 			}
 			else
 				throw new IllegalStateException("The remove operation cannot be called before the next call of the next method");
 		}
 	}
-	
+
+	/**
+	 * <p>A nested class representing a spliterator on a range of positions of an order of the data stored within the enclosing
+	 * {@link MultiPrioritySet MultiPrioritySet}.</p>
+	 * <p>The first node of the range is only searched for once the spliterator is traversed, so that splitting takes
+	 * logarithmic time regardless of the size of the range. Traversal follows the successor linkages.</p>
+	 * @author Julian Betz
+	 * @version 1.00
+	 */
+	private class NodeSpliterator implements Spliterator<E> {
+		private int c;
+		/**
+		 * <p>The node at position {@code index}, or {@code NIL} if it has not been searched for yet.</p>
+		 */
+		private int node;
+		private int index;
+		private final int fence;
+
+		/**
+		 * <p>Constructs a spliterator able to traverse the positions from {@code index} (inclusive) to {@code fence} (exclusive)
+		 * of the {@code c}-th internal red-black tree.</p>
+		 * @param c the internal red-black tree to traverse
+		 * @param node the node at position {@code index}, or {@code NIL} if it is to be searched for
+		 * @param index the first position to traverse
+		 * @param fence the position to stop at
+		 */
+		private NodeSpliterator(int c, int node, int index, int fence) {
+			this.c = c;
+			this.node = node;
+			this.index = index;
+			this.fence = fence;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super E> action) {
+			if (action == null)
+				throw new NullPointerException("The action must not be null");
+			if (index >= fence)
+				return false;
+			if (node == NIL)
+				node = node(c, index);
+			E element = value(node);
+			node = succ[c][node];
+			index++;
+			action.accept(element);
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super E> action) {
+			if (action == null)
+				throw new NullPointerException("The action must not be null");
+			if (index >= fence)
+				return;
+			int[] su = succ[c];
+			int x = node == NIL ? node(c, index) : node;
+			for (; index < fence; index++, x = su[x])
+				action.accept(value(x));
+			node = x;
+		}
+
+		@Override
+		public Spliterator<E> trySplit() {
+			int middle = (index + fence) >>> 1;
+			if (middle <= index)
+				return null;
+			Spliterator<E> prefix = new NodeSpliterator(c, node, index, middle);
+			node = NIL;
+			index = middle;
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			return fence - index;
+		}
+
+		@Override
+		public int characteristics() {
+			return ORDERED | SORTED | DISTINCT | NONNULL | SIZED | SUBSIZED;
+		}
+
+		@Override
+		public Comparator<? super E> getComparator() {
+			return comparators[c];
+		}
+	}
+
+	/**
+	 * <p>Returns the element represented by the specified node.</p>
+	 * @param node the node
+	 * @return the element represented by the node, or {@code null} for {@code NIL}
+	 */
+	@SuppressWarnings("unchecked")
+	private E value(int node) {
+		return (E) value[node];
+	}
+
+	/**
+	 * <p>Hands out an unused slot for a node representing the specified element. The linkages of the node are left undefined
+	 * and have to be set by inserting it into every internal red-black tree.</p>
+	 * @param element the element to be represented by the node
+	 * @return the node
+	 */
+	private int allocate(E element) {
+		int node;
+		if (free != NIL) {
+			node = free;
+			free = rght[0][node];
+		}
+		else {
+			if (used == value.length)
+				grow();
+			node = used++;
+		}
+		value[node] = element;
+		sequence[node] = next++;
+		return node;
+	}
+
+	/**
+	 * <p>Puts the slot of a node that has been discarded from every internal red-black tree on the free list.</p>
+	 * @param node the node to release
+	 */
+	private void release(int node) {
+		value[node] = null;
+		rght[0][node] = free;
+		free = node;
+	}
+
+	/**
+	 * <p>Doubles the number of slots. The arrays of linkages of red-black trees that are not maintained are left as they are.</p>
+	 */
+	private void grow() {
+		int capacity = value.length << 1;
+		value = Arrays.copyOf(value, capacity);
+		sequence = Arrays.copyOf(sequence, capacity);
+		for (int c = 0; c < dimensions(); c++) {
+			if (!materialized[c])
+				continue;
+			prnt[c] = Arrays.copyOf(prnt[c], capacity);
+			left[c] = Arrays.copyOf(left[c], capacity);
+			rght[c] = Arrays.copyOf(rght[c], capacity);
+			pred[c] = Arrays.copyOf(pred[c], capacity);
+			succ[c] = Arrays.copyOf(succ[c], capacity);
+			color[c] = Arrays.copyOf(color[c], capacity);
+			count[c] = Arrays.copyOf(count[c], capacity);
+		}
+	}
+
+	/**
+	 * <p>Allocates the arrays of linkages of the {@code c}-th internal red-black tree with as many slots as there are for the
+	 * values, unless the present arrays are large enough.</p>
+	 * @param c the index of the internal red-black tree
+	 */
+	private void allocateLinkages(int c) {
+		int capacity = value.length;
+		if (prnt[c] != null && prnt[c].length >= capacity)
+			return;
+		prnt[c] = new int[capacity];
+		left[c] = new int[capacity];
+		rght[c] = new int[capacity];
+		pred[c] = new int[capacity];
+		succ[c] = new int[capacity];
+		color[c] = new boolean[capacity];
+		count[c] = new int[capacity];
+	}
+
+	/**
+	 * <p>Builds the {@code c}-th internal red-black tree from the elements of this set if it is not maintained yet, so that it
+	 * is maintained from now on.</p>
+	 * @param c the index of the internal red-black tree
+	 */
+	private void materialize(int c) {
+		if (materialized[c])
+			return;
+		allocateLinkages(c);
+		int[] nodes = new int[size];
+		int n = 0;
+		for (int node = succ[0][NIL]; node != NIL; node = succ[0][node])
+			nodes[n++] = node;
+		sort(nodes, (int x, int y) -> compare(x, y, c));
+		link(nodes, c);
+		materialized[c] = true;
+	}
+
 	/**
 	 * <p>Adds the specified element to this set if it is not already present.</p>
 	 * <p>An element will only be inserted if it is non-{@code null} and considered not to be contained in this set by the
-	 * standard comparator.</p>
+	 * standard comparator. If this set is bounded and full, the element will only be inserted if it is greater than the least
+	 * element according to the eviction comparator.</p>
 	 * @param element the element to be inserted
-	 * @return true if this set did not formerly contain the element
+	 * @return true if the element has been inserted
 	 * @throws NullPointerException if the specified element is null
 	 * @see #addAll(Collection)
 	 * @see #integrate(Comparable)
@@ -216,14 +480,7 @@ public class MultiPrioritySet<E extends Comparable<E>> implements Set<E> {
 	public boolean add(E element) {
 		if (element == null)
 			throw new NullPointerException("Only non-null elements are supported");
-		Node node = new Node(element);
-		if (insertChecked(node)) {
-			for (int i = 1; i < dimensions(); i++)
-				insertForced(node, i);
-			size++;
-			return true;
-		}
-		return false;
+		return insertChecked(element) != NIL;
 	}
 
 	/**
@@ -238,15 +495,208 @@ public class MultiPrioritySet<E extends Comparable<E>> implements Set<E> {
 	 */
 	@Override
 	public boolean addAll(Collection<? extends E> c) {
+		//Rebuild this set if that is not asymptotically slower than inserting the elements one by one
+		if (c.size() >= size() && c.size() > 1 && capacity == UNBOUNDED) {
+			int before = size();
+			build(c);
+			return size() != before;
+		}
 		boolean changed = false;
 		for (E element : c)
 			changed = add(element) | changed;
 		return changed;
 	}
-	
+
+	/**
+	 * <p>Constructs a {@code MultiPrioritySet} that uses the specified comparators to navigate the data and contains the
+	 * elements of the specified collection.</p>
+	 * <p>Every internal red-black tree is built bottom-up from the elements sorted by its comparator, so that the construction
+	 * takes linear time per comparator after sorting. Sorting takes linear time for runs that are already ordered, e.g. if the
+	 * collection is ordered by one of the comparators. If the standard comparator considers several elements of the collection
+	 * to be equal, only the first one according to the iterator of the collection is contained, as if the elements had been
+	 * {@link #add(Comparable) added} one by one.</p>
+	 * @param elements the elements to be contained in the set
+	 * @param comparators the comparators to use navigating the set, as for {@link #MultiPrioritySet(Collection)
+	 * MultiPrioritySet(Collection)}
+	 * @return the set
+	 * @throws NullPointerException if one of the elements contained in the specified collection is null
+	 * @see #addAll(Collection)
+	 */
+	public static <E extends Comparable<E>> MultiPrioritySet<E> of(Collection<? extends E> elements,
+			Collection<Comparator<E>> comparators) {
+		MultiPrioritySet<E> set = new MultiPrioritySet<E>(comparators);
+		set.build(elements);
+		return set;
+	}
+
+	/**
+	 * <p>Replaces the content of this set by its former elements followed by the elements of the specified collection, building
+	 * every internal red-black tree from the sorted elements. The former elements keep their sequence numbers and the new
+	 * elements are numbered in the order of the collection, so that equal elements are ordered as if the new elements had
+	 * been added one by one.</p>
+	 * @param c the collection to chose the elements from
+	 * @throws NullPointerException if one of the elements contained in the specified collection is null
+	 */
+	private void build(Collection<? extends E> c) {
+		Object[] elements = new Object[size() + c.size()];
+		long[] sequences = new long[elements.length];
+		int n = 0;
+		for (int node = succ[0][NIL]; node != NIL; node = succ[0][node]) {
+			sequences[n] = sequence[node];
+			elements[n++] = value[node];
+		}
+		for (E element : c) {
+			if (element == null)
+				throw new NullPointerException("Only non-null elements are supported");
+			sequences[n] = next++;
+			elements[n++] = element;
+		}
+		//Sort stably by the standard comparator and keep the first of equal elements only
+		int[] order = new int[n];
+		for (int i = 0; i < n; i++)
+			order[i] = i;
+		sort(order, (int a, int b) -> comparators[0].compare(element(elements, a), element(elements, b)));
+		int m = 0;
+		for (int i = 0; i < n; i++)
+			if (m == 0 || comparators[0].compare(element(elements, order[i]), element(elements, order[m - 1])) != 0)
+				order[m++] = order[i];
+		//Keep maintaining the red-black trees that have been maintained so far
+		boolean[] maintained = materialized.clone();
+		clear();
+		while (value.length <= m)
+			grow();
+		int[] nodes = new int[m];
+		for (int i = 0; i < m; i++) {
+			nodes[i] = allocate(element(elements, order[i]));
+			sequence[nodes[i]] = sequences[order[i]];
+		}
+		link(nodes, 0);
+		size = m;
+		for (int i = 1; i < dimensions(); i++)
+			if (maintained[i])
+				materialize(i);
+	}
+
+	/**
+	 * <p>Returns an element of an array of elements of this set's type.</p>
+	 * @param elements the array
+	 * @param index the index of the element
+	 * @return the element
+	 */
+	@SuppressWarnings("unchecked")
+	private E element(Object[] elements, int index) {
+		return (E) elements[index];
+	}
+
+	/**
+	 * <p>Compares the elements of two nodes regarding the {@code c}-th comparator. Unless {@code c} is {@code 0}, elements the
+	 * comparator considers equal are ordered by their sequence numbers, so that the result is {@code 0} for equal nodes only.</p>
+	 * @param x the first node
+	 * @param y the second node
+	 * @param c the index of the comparator
+	 * @return a negative number, zero or a positive number if the first node is less than, equal to or greater than the second
+	 */
+	private int compare(int x, int y, int c) {
+		int comparison = comparators[c].compare(value(x), value(y));
+		return comparison != 0 || c == 0 ? comparison : Long.compare(sequence[x], sequence[y]);
+	}
+
+	/**
+	 * <p>Sorts an array of indices stably by the specified order on indices. The sort merges the runs of ascending indices
+	 * bottom-up, so that it takes linear time if the indices are ordered already and {@code O(n log n)} time otherwise.</p>
+	 * @param indices the indices to sort
+	 * @param comparator the order on the indices
+	 */
+	private void sort(int[] indices, IntBinaryOperator comparator) {
+		int n = indices.length;
+		if (n < 2)
+			return;
+		//Find the borders of the ascending runs
+		int[] runs = new int[n + 1];
+		int count = 0;
+		runs[count++] = 0;
+		for (int i = 1; i < n; i++)
+			if (comparator.applyAsInt(indices[i - 1], indices[i]) > 0)
+				runs[count++] = i;
+		runs[count] = n;
+		//Merge pairs of neighbouring runs until only one run is left
+		int[] source = indices, target = new int[n];
+		while (count > 1) {
+			int merged = 0;
+			for (int r = 0; r < count; r += 2) {
+				int from = runs[r], middle = runs[r + 1], to = runs[Math.min(r + 2, count)];
+				int i = from, j = middle, k = from;
+				while (i < middle && j < to)
+					target[k++] = comparator.applyAsInt(source[j], source[i]) < 0 ? source[j++]
+							: source[i++];
+				while (i < middle)
+					target[k++] = source[i++];
+				while (j < to)
+					target[k++] = source[j++];
+				runs[merged++] = from;
+			}
+			runs[merged] = n;
+			count = merged;
+			int[] swap = source;
+			source = target;
+			target = swap;
+		}
+		if (source != indices)
+			System.arraycopy(source, 0, indices, 0, n);
+	}
+
+	/**
+	 * <p>Links the specified nodes, given in ascending order, to form the {@code c}-th internal red-black tree. The tree is built
+	 * balanced with all of its leaves on the two lowest levels; the nodes on the lowest level are colored red if it is
+	 * incomplete and all others black.</p>
+	 * @param nodes the nodes in ascending order regarding the {@code c}-th comparator
+	 * @param c the index of the internal red-black tree
+	 */
+	private void link(int[] nodes, int c) {
+		int[] pr = pred[c], su = succ[c];
+		int last = NIL;
+		for (int node : nodes) {
+			pr[node] = last;
+			su[last] = node;
+			last = node;
+		}
+		su[last] = NIL;
+		pr[NIL] = last;
+		//The depth of the lowest level if it is incomplete, with the root at depth 0
+		int redLevel = 0;
+		for (int m = nodes.length - 1; m >= 0; m = m / 2 - 1)
+			redLevel++;
+		root[c] = link(nodes, 0, nodes.length - 1, NIL, 0, redLevel, c);
+	}
+
+	/**
+	 * <p>Links the nodes of the specified range to form a balanced subtree of the {@code c}-th internal red-black tree.</p>
+	 * @param nodes the nodes in ascending order regarding the {@code c}-th comparator
+	 * @param from the index of the first node of the subtree
+	 * @param to the index of the last node of the subtree
+	 * @param parent the parent of the subtree
+	 * @param level the depth of the subtree's root
+	 * @param redLevel the depth of the nodes to color red
+	 * @param c the index of the internal red-black tree
+	 * @return the root of the subtree
+	 */
+	private int link(int[] nodes, int from, int to, int parent, int level, int redLevel, int c) {
+		if (from > to)
+			return NIL;
+		int middle = (from + to) >>> 1;
+		int node = nodes[middle];
+		prnt[c][node] = parent;
+		left[c][node] = link(nodes, from, middle - 1, node, level + 1, redLevel, c);
+		rght[c][node] = link(nodes, middle + 1, to, node, level + 1, redLevel, c);
+		color[c][node] = level == redLevel ? RED : BLACK;
+		count[c][node] = to - from + 1;
+		return node;
+	}
+
 	/**
 	 * <p>Searches for an element resembling the one specified regarding the standard comparator. If such an element is already
-	 * present in this set, the element will be returned. Otherwise, the specified element will be added to this set.</p>
+	 * present in this set, the element will be returned. Otherwise, the specified element will be added to this set, unless
+	 * the set is bounded and refuses it (see {@link #add(Comparable) add}), and returned.</p>
 	 * @param element the element to search for
 	 * @return the element in this set corresponding the one specified
 	 * @throws NullPointerException if the specified element is null
@@ -257,16 +707,16 @@ public class MultiPrioritySet<E extends Comparable<E>> implements Set<E> {
 	public E integrate(E element) {
 		if (element == null)
 			throw new NullPointerException("Only non-null elements are supported");
-		Node node = search(element, 0);
-		if (node == nil) {
-			node = new Node(element);
-			for (int i = 0; i < dimensions(); i++)
-				insertForced(node, i);
-			size++;
+		int node = search(element, 0);
+		if (node == NIL) {
+			node = insertChecked(element);
+			//A bounded set may refuse the element
+			if (node == NIL)
+				return element;
 		}
-		return node.value;
+		return value(node);
 	}
-	
+
 	/**
 	 * <p>Integrates all elements of the specified collection into this set, returning a list of the elements integrated. If an
 	 * element from the collection is already present in this set before integration, its counterpart from this set will be
@@ -285,136 +735,248 @@ public class MultiPrioritySet<E extends Comparable<E>> implements Set<E> {
 			list.add(integrate(element));
 		return list;
 	}
-	
+
+	/**
+	 * <p>Applies the specified mutator to the element of this set resembling the one specified regarding the standard
+	 * comparator and repositions the element according to its new state.</p>
+	 * <p>The element is only repositioned in the internal red-black trees of the comparators by which it is no longer ordered
+	 * correctly relative to its predecessor and successor. In any other red-black tree it keeps its place, so that a mutation
+	 * that leaves every order intact runs in time linear in the number of comparators. This is considerably cheaper than
+	 * removing and re-adding the element, which rebuilds its position in every order. The element keeps its sequence number,
+	 * so that it is still ordered by its original insertion time relative to elements a comparator considers equal.</p>
+	 * <p>If the mutation makes the element equal to another element of this set regarding the standard comparator, the mutated
+	 * element is removed from this set, as it could not be added to it either.</p>
+	 * @param element the element to search for
+	 * @param mutator the mutation to apply to the element of this set
+	 * @return true if this set contained an element resembling the one specified
+	 * @throws NullPointerException if the specified element or mutator is null
+	 * @see #integrate(Comparable)
+	 */
+	public boolean update(E element, Consumer<? super E> mutator) {
+		if (element == null)
+			throw new NullPointerException("Only non-null elements are supported");
+		if (mutator == null)
+			throw new NullPointerException("The mutator must not be null");
+		int node = search(element, 0);
+		if (node == NIL)
+			return false;
+		mutator.accept(value(node));
+		if (!ordered(node, 0)) {
+			discard(node, 0);
+			if (!reinsertChecked(node)) {
+				//The mutated element is a duplicate of another one and is dropped
+				for (int i = 1; i < dimensions(); i++)
+					if (materialized[i])
+						discard(node, i);
+				release(node);
+				size--;
+				return true;
+			}
+		}
+		for (int i = 1; i < dimensions(); i++) {
+			if (materialized[i] && !ordered(node, i)) {
+				discard(node, i);
+				insertForced(node, i);
+			}
+		}
+		return true;
+	}
+
 	/**
-	 * <p>Inserts the specified node into this set regarding <i>only</i> the total order defined by the standard comparator.</p>
+	 * <p>Checks if the specified node is still ordered correctly relative to its predecessor and successor in the {@code c}-th
+	 * internal red-black tree, including the order of equal elements by their sequence numbers.</p>
+	 * @param node the node to check
+	 * @param c the index of the internal red-black tree
+	 * @return true if the node does not need to be repositioned
+	 */
+	private boolean ordered(int node, int c) {
+		return (pred[c][node] == NIL || compare(pred[c][node], node, c) < 0)
+				&& (succ[c][node] == NIL || compare(node, succ[c][node], c) < 0);
+	}
+
+	/**
+	 * <p>Inserts a node that has been discarded from the internal red-black tree of the standard comparator back into it, unless
+	 * the standard comparator considers its element to be contained in this set already.</p>
 	 * @param node the node to be inserted
-	 * @return true if this set did not formerly contain the element represented by the node
+	 * @return true if the node has been inserted
 	 */
-	private boolean insertChecked(Node node) {
-		//Search for the proper position to insert the new node
-		Node x = nil, y = root.get(0);
-		while (y != nil) {
+	private boolean reinsertChecked(int node) {
+		Comparator<E> comparator = comparators[0];
+		E element = value(node);
+		int x = NIL, y = root[0];
+		boolean less = false;
+		while (y != NIL) {
 			x = y;
-			if (comparators.get(0).compare(node.value, x.value) < 0)
-				y = x.left.get(0);
-			else if (comparators.get(0).compare(node.value, x.value) > 0)
-				y = x.rght.get(0);
-			//In any other case, the node to be inserted is already present
-			else
+			int comparison = comparator.compare(element, value(x));
+			if (comparison == 0)
 				return false;
+			less = comparison < 0;
+			y = less ? left[0][x] : rght[0][x];
 		}
-		insert(node, x, 0);
+		insert(node, x, less, 0);
 		return true;
 	}
-	
+
+	/**
+	 * <p>Inserts the specified element into this set if the standard comparator does not consider it to be contained yet and,
+	 * if this set is bounded and full, if it is greater than the least element according to the eviction comparator, which is
+	 * evicted then. A node is only allocated if the element is inserted.</p>
+	 * @param element the element to be inserted
+	 * @return the node representing the inserted element, or {@code NIL} if it has not been inserted
+	 */
+	private int insertChecked(E element) {
+		//Search for the proper position to insert the new node
+		Comparator<E> comparator = comparators[0];
+		int x = NIL, y = root[0];
+		boolean less = false;
+		while (y != NIL) {
+			x = y;
+			int comparison = comparator.compare(element, value(x));
+			if (comparison < 0)
+				y = left[0][x];
+			else if (comparison > 0)
+				y = rght[0][x];
+			//In any other case, the element to be inserted is already present
+			else
+				return NIL;
+			less = comparison < 0;
+		}
+		if (size >= capacity && comparators[eviction].compare(element, value(succ[eviction][NIL])) <= 0)
+			return NIL;
+		int node = allocate(element);
+		insert(node, x, less, 0);
+		for (int i = 1; i < dimensions(); i++)
+			if (materialized[i])
+				insertForced(node, i);
+		if (++size > capacity)
+			evict();
+		return node;
+	}
+
+	/**
+	 * <p>Removes the least element according to the eviction comparator from this set. Of several least elements the
+	 * comparator considers equal, the one inserted last is removed, so that the elements inserted earlier are kept like when
+	 * an insertion is refused.</p>
+	 */
+	private void evict() {
+		delete(lowerNode(eviction, value(succ[eviction][NIL]), true));
+	}
+
 	/**
 	 * <p>Inserts the specified node into this set regarding only the total order defined by the {@code c}-th comparator. This
 	 * method does <i>not</i> check if the element represented by the node is already present in this set.</p>
 	 * @param node the node to be inserted
 	 * @param c the number of the total order to be considered
 	 */
-	private void insertForced(Node node, int c) {
+	private void insertForced(int node, int c) {
 		assert c >= 0 : "The index c must not be negative";
 		assert c < dimensions() : "The index c must not exceed dimensions() - 1";
-		//Search for the proper position to insert the node
-		Node x = nil, y = root.get(c);
-		while (y != nil) {
+		//Search for the proper position to insert the node, behind equal elements inserted earlier
+		int[] l = left[c], r = rght[c];
+		int x = NIL, y = root[c];
+		boolean less = false;
+		while (y != NIL) {
 			x = y;
-			if (comparators.get(c).compare(node.value, x.value) < 0)
-				y = x.left.get(c);
-			else
-				y = x.rght.get(c);
+			less = compare(node, x, c) < 0;
+			y = less ? l[x] : r[x];
 		}
-		insert(node, x, c);
+		insert(node, x, less, c);
 	}
-	
+
 	/**
 	 * <p>Inserts the specified node into the {@code c}-th internal red-black tree so that {@code x} is its parent.</p>
 	 * @param node the node to insert
 	 * @param x the node's prospective parent
+	 * @param less whether the node is to be the left child of {@code x}; ignored if {@code x} is {@code NIL}
 	 * @param c the index of the internal red-black tree
 	 */
-	private void insert(Node node, Node x, int c) {
+	private void insert(int node, int x, boolean less, int c) {
 		assert c >= 0 : "The index c must not be negative";
 		assert c < dimensions() : "The index c must not exceed dimensions() - 1";
-		node.prnt.set(c, x);
+		int[] p = prnt[c], l = left[c], r = rght[c], pr = pred[c], su = succ[c];
+		p[node] = x;
 		//Check if the node to be inserted will be a root element
-		if (x == nil) {
-			root.set(c, node);
-			node.pred.set(c, nil);
-			node.succ.set(c, nil);
+		if (x == NIL) {
+			root[c] = node;
+			pr[node] = NIL;
+			su[node] = NIL;
 		}
 		//Check if the node to be inserted will be a left child
-		else if (comparators.get(c).compare(node.value, x.value) < 0) {
-			x.left.set(c, node);
-			node.pred.set(c, x.pred.get(c));
-			node.succ.set(c, x);
+		else if (less) {
+			l[x] = node;
+			pr[node] = pr[x];
+			su[node] = x;
 		}
 		//In any other case, the node to be inserted will be a right child
 		else {
-			x.rght.set(c, node);
-			node.pred.set(c, x);
-			node.succ.set(c, x.succ.get(c));
+			r[x] = node;
+			pr[node] = x;
+			su[node] = su[x];
 		}
 		//Update the linkages and color variable
-		node.left.set(c, nil);
-		node.rght.set(c, nil);
-		node.pred.get(c).succ.set(c, node);
-		node.succ.get(c).pred.set(c, node);
-		node.color[c] = RED;
+		l[node] = NIL;
+		r[node] = NIL;
+		su[pr[node]] = node;
+		pr[su[node]] = node;
+		color[c][node] = RED;
+		int[] n = count[c];
+		n[node] = 1;
+		for (int y = x; y != NIL; y = p[y])
+			n[y]++;
 		//Restore the features of the internal red-black tree
 		restoreInsert(node, c);
 	}
-	
+
 	/**
 	 * <p>Restores the features of the internal red-black tree in regard to the {@code c}-th comparator after
-	 * the execution of the {@code #insert(Node, Node, int) insert} method.</p>
+	 * the execution of the {@link #insert(int, int, boolean, int) insert} method.</p>
 	 * @param node the node that has been inserted
 	 * @param c the index of the internal red-black tree to restore
 	 */
-	private void restoreInsert(Node node, int c) {
+	private void restoreInsert(int node, int c) {
 		assert c >= 0 : "The index c must not be negative";
 		assert c < dimensions() : "The index c must not exceed dimensions() - 1";
-		while (node.prnt.get(c).color[c] == RED) {
-			if (node.prnt.get(c) == node.prnt.get(c).prnt.get(c).left.get(c)) {
-				Node x = node.prnt.get(c).prnt.get(c).rght.get(c);
-				if (x.color[c] == RED) {
-					node.prnt.get(c).color[c] = BLACK;
-					x.color[c] = BLACK;
-					node.prnt.get(c).prnt.get(c).color[c] = RED;
-					node = node.prnt.get(c).prnt.get(c);
+		int[] p = prnt[c], l = left[c], r = rght[c];
+		boolean[] col = color[c];
+		while (col[p[node]] == RED) {
+			if (p[node] == l[p[p[node]]]) {
+				int x = r[p[p[node]]];
+				if (col[x] == RED) {
+					col[p[node]] = BLACK;
+					col[x] = BLACK;
+					col[p[p[node]]] = RED;
+					node = p[p[node]];
 				}
 				else {
-					if (node == node.prnt.get(c).rght.get(c)) {
-						node = node.prnt.get(c);
+					if (node == r[p[node]]) {
+						node = p[node];
 						rotateLeft(node, c);
 					}
-					node.prnt.get(c).color[c] = BLACK;
-					node.prnt.get(c).prnt.get(c).color[c] = RED;
-					rotateRight(node.prnt.get(c).prnt.get(c), c);
+					col[p[node]] = BLACK;
+					col[p[p[node]]] = RED;
+					rotateRight(p[p[node]], c);
 				}
 			}
 			else {
-				Node x = node.prnt.get(c).prnt.get(c).left.get(c);
-				if (x.color[c] == RED) {
-					node.prnt.get(c).color[c] = BLACK;
-					x.color[c] = BLACK;
-					node.prnt.get(c).prnt.get(c).color[c] = RED;
-					node = node.prnt.get(c).prnt.get(c);
+				int x = l[p[p[node]]];
+				if (col[x] == RED) {
+					col[p[node]] = BLACK;
+					col[x] = BLACK;
+					col[p[p[node]]] = RED;
+					node = p[p[node]];
 				}
 				else {
-					if (node == node.prnt.get(c).left.get(c)) {
-						node = node.prnt.get(c);
+					if (node == l[p[node]]) {
+						node = p[node];
 						rotateRight(node, c);
 					}
-					node.prnt.get(c).color[c] = BLACK;
-					node.prnt.get(c).prnt.get(c).color[c] = RED;
-					rotateLeft(node.prnt.get(c).prnt.get(c), c);
+					col[p[node]] = BLACK;
+					col[p[p[node]]] = RED;
+					rotateLeft(p[p[node]], c);
 				}
 			}
 		}
-		root.get(c).color[c] = BLACK;
+		col[root[c]] = BLACK;
 	}
 
 	/**
@@ -431,13 +993,23 @@ public class MultiPrioritySet<E extends Comparable<E>> implements Set<E> {
 	public boolean remove(Object element) {
 		if (element == null)
 			throw new NullPointerException("Only non-null elements are supported");
-		Node node = search((E) element, 0); //Implicitly check type compatibility
-		if (node == nil)
+		int node = search((E) element, 0); //Implicitly check type compatibility
+		if (node == NIL)
 			return false;
+		delete(node);
+		return true;
+	}
+
+	/**
+	 * <p>Discards the specified node from every internal red-black tree maintained and releases its slot.</p>
+	 * @param node the node to delete
+	 */
+	private void delete(int node) {
 		for (int i = 0; i < dimensions(); i++)
-			discard(node, i);
+			if (materialized[i])
+				discard(node, i);
+		release(node);
 		size--;
-		return true;
 	}
 
 	/**
@@ -489,202 +1061,216 @@ public class MultiPrioritySet<E extends Comparable<E>> implements Set<E> {
 	 * @param node the node to discard
 	 * @param c the index of the internal red-black tree
 	 */
-	private void discard(Node node, int c) {
+	private void discard(int node, int c) {
 		assert c >= 0 : "The index c must not be negative";
 		assert c < dimensions() : "The index c must not exceed dimensions() - 1";
-		node.pred.get(c).succ.set(c, node.succ.get(c));
-		node.succ.get(c).pred.set(c, node.pred.get(c));
-		Node x, y = node;
-		boolean color = y.color[c];
-		if (node.left.get(c) == nil) {
-			x = node.rght.get(c);
+		int[] p = prnt[c], l = left[c], r = rght[c], pr = pred[c], su = succ[c];
+		boolean[] col = color[c];
+		su[pr[node]] = su[node];
+		pr[su[node]] = pr[node];
+		//Uncount the node that is taken out of its place, i.e. the node itself or its successor replacing it
+		int[] n = count[c];
+		for (int z = l[node] == NIL || r[node] == NIL ? p[node] : p[su[node]]; z != NIL; z = p[z])
+			n[z]--;
+		int x, y = node;
+		boolean color = col[y];
+		if (l[node] == NIL) {
+			x = r[node];
 			transplant(node, x, c);
 		}
-		else if (node.rght.get(c) == nil) {
-			x = node.left.get(c);
+		else if (r[node] == NIL) {
+			x = l[node];
 			transplant(node, x, c);
 		}
 		else {
-			y = minimum(node.rght.get(c), c);
-			x = y.rght.get(c);
-			color = y.color[c];
-			if (y.prnt.get(c) != node) {
+			//The minimum of the right subtree is the successor, which needs no search
+			y = su[node];
+			x = r[y];
+			color = col[y];
+			if (p[y] != node) {
 				transplant(y, x, c);
-				y.rght.set(c, node.rght.get(c));
-				y.rght.get(c).prnt.set(c, y);
+				r[y] = r[node];
+				p[r[y]] = y;
 			}
 			else
-				x.prnt.set(c, y);
+				p[x] = y;
 			transplant(node, y, c);
-			y.left.set(c, node.left.get(c));
-			y.left.get(c).prnt.set(c,  y);
-			y.color[c] = node.color[c];
+			l[y] = l[node];
+			p[l[y]] = y;
+			col[y] = col[node];
+			n[y] = n[node];
 		}
 		if (color == BLACK)
 			restoreDiscard(x, c);
 	}
-	
+
 	/**
 	 * <p>Restores the features of the internal red-black tree in regard to the {@code c}-th comparator after the execution of
-	 * the {@link #discard(Node, int) discard} method.</p>
+	 * the {@link #discard(int, int) discard} method.</p>
 	 * @param x the node to start the restoration at
 	 * @param c the index of the internal red-black tree to restore
 	 */
-	private void restoreDiscard(Node x, int c) {
+	private void restoreDiscard(int x, int c) {
 		assert c >= 0 : "The index c must not be negative";
 		assert c < dimensions() : "The index c must not exceed dimensions() - 1";
-		while (x != root.get(c) && x.color[c] == BLACK) {
-			if (x == x.prnt.get(c).left.get(c)) {
-				Node y = x.prnt.get(c).rght.get(c);
-				if (y.color[c] == RED) {
-					y.color[c] = BLACK;
-					x.prnt.get(c).color[c] = RED;
-					rotateLeft(x.prnt.get(c), c);
-					y = x.prnt.get(c).rght.get(c);
+		int[] p = prnt[c], l = left[c], r = rght[c];
+		boolean[] col = color[c];
+		while (x != root[c] && col[x] == BLACK) {
+			if (x == l[p[x]]) {
+				int y = r[p[x]];
+				if (col[y] == RED) {
+					col[y] = BLACK;
+					col[p[x]] = RED;
+					rotateLeft(p[x], c);
+					y = r[p[x]];
 				}
-				if (y.left.get(c).color[c] == BLACK && y.rght.get(c).color[c] == BLACK) {
-					y.color[c] = RED;
-					x = x.prnt.get(c);
+				if (col[l[y]] == BLACK && col[r[y]] == BLACK) {
+					col[y] = RED;
+					x = p[x];
 				}
 				else {
-					if (y.rght.get(c).color[c] == BLACK) {
-						y.left.get(c).color[c] = BLACK;
-						y.color[c] = RED;
+					if (col[r[y]] == BLACK) {
+						col[l[y]] = BLACK;
+						col[y] = RED;
 						rotateRight(y, c);
-						y = x.prnt.get(c).rght.get(c);
+						y = r[p[x]];
 					}
-					y.color[c] = x.prnt.get(c).color[c];
-					x.prnt.get(c).color[c] = BLACK;
-					y.rght.get(c).color[c] = BLACK;
-					rotateLeft(x.prnt.get(c), c);
-					x = root.get(c);
+					col[y] = col[p[x]];
+					col[p[x]] = BLACK;
+					col[r[y]] = BLACK;
+					rotateLeft(p[x], c);
+					x = root[c];
 				}
 			}
 			else {
-				Node y = x.prnt.get(c).left.get(c);
-				if (y.color[c] == RED) {
-					y.color[c] = BLACK;
-					x.prnt.get(c).color[c] = RED;
-					rotateRight(x.prnt.get(c), c);
-					y = x.prnt.get(c).left.get(c);
+				int y = l[p[x]];
+				if (col[y] == RED) {
+					col[y] = BLACK;
+					col[p[x]] = RED;
+					rotateRight(p[x], c);
+					y = l[p[x]];
 				}
-				if (y.left.get(c).color[c] == BLACK && y.rght.get(c).color[c] == BLACK) {
-					y.color[c] = RED;
-					x = x.prnt.get(c);
+				if (col[l[y]] == BLACK && col[r[y]] == BLACK) {
+					col[y] = RED;
+					x = p[x];
 				}
 				else {
-					if (y.left.get(c).color[c] == BLACK) {
-						y.rght.get(c).color[c] = BLACK;
-						y.color[c] = RED;
+					if (col[l[y]] == BLACK) {
+						col[r[y]] = BLACK;
+						col[y] = RED;
 						rotateLeft(y, c);
-						y = x.prnt.get(c).left.get(c);
+						y = l[p[x]];
 					}
-					y.color[c] = x.prnt.get(c).color[c];
-					x.prnt.get(c).color[c] = BLACK;
-					y.left.get(c).color[c] = BLACK;
-					rotateRight(x.prnt.get(c), c);
-					x = root.get(c);
+					col[y] = col[p[x]];
+					col[p[x]] = BLACK;
+					col[l[y]] = BLACK;
+					rotateRight(p[x], c);
+					x = root[c];
 				}
 			}
 		}
-		x.color[c] = BLACK;
+		col[x] = BLACK;
 	}
-	
+
 	/**
 	 * <p>Replaces the node {@code x} by the node {@code y} in the {@code c}-th internal red-black tree.</p>
 	 * @param x the node to replace
 	 * @param y the node to replace the other one by
 	 * @param c the internal red-black tree to process
 	 */
-	private void transplant(Node x, Node y, int c) {
+	private void transplant(int x, int y, int c) {
 		assert c >= 0 : "The index c must not be negative";
 		assert c < dimensions() : "The index c must not exceed dimensions() - 1";
-		if (x.prnt.get(c) == nil)
-			root.set(c, y);
-		else if (x == x.prnt.get(c).left.get(c))
-			x.prnt.get(c).left.set(c, y);
+		int[] p = prnt[c];
+		if (p[x] == NIL)
+			root[c] = y;
+		else if (x == left[c][p[x]])
+			left[c][p[x]] = y;
 		else
-			x.prnt.get(c).rght.set(c, y);
-		y.prnt.set(c, x.prnt.get(c));
+			rght[c][p[x]] = y;
+		p[y] = p[x];
 	}
-	
+
 	/**
 	 * <p>Exchanges the child-parent roles of {@code x} and its right child while preserving the conformity of the data's
 	 * structure with its ordering regarding the {@code c}-th comparator.</p>
-	 * <p><b>Requires:</b> {@code x.rght.get(c) != nil}</p>
+	 * <p><b>Requires:</b> {@code rght[c][x] != NIL}</p>
 	 * @param x the node to replace with its right child
 	 * @param c the index of the internal red-black tree to process
 	 */
-	private void rotateLeft(Node x, int c) {
+	private void rotateLeft(int x, int c) {
 		assert c >= 0 : "The index c must not be negative";
 		assert c < dimensions() : "The index c must not exceed dimensions() - 1";
-		assert x.rght.get(c) != nil;
-		Node y = x.rght.get(c);
-		x.rght.set(c,  y.left.get(c));
-		if (y.left.get(c) != nil)
-			y.left.get(c).prnt.set(c, x);
-		y.prnt.set(c, x.prnt.get(c));
-		if (x.prnt.get(c) == nil)
-			root.set(c, y);
-		else if (x == x.prnt.get(c).left.get(c))
-			x.prnt.get(c).left.set(c, y);
+		int[] p = prnt[c], l = left[c], r = rght[c];
+		assert r[x] != NIL;
+		int y = r[x];
+		r[x] = l[y];
+		if (l[y] != NIL)
+			p[l[y]] = x;
+		p[y] = p[x];
+		if (p[x] == NIL)
+			root[c] = y;
+		else if (x == l[p[x]])
+			l[p[x]] = y;
 		else
-			x.prnt.get(c).rght.set(c, y);
-		y.left.set(c, x);
-		x.prnt.set(c, y);
+			r[p[x]] = y;
+		l[y] = x;
+		p[x] = y;
+		int[] n = count[c];
+		n[y] = n[x];
+		n[x] = n[l[x]] + n[r[x]] + 1;
 	}
-	
+
 	/**
 	 * <p>Exchanges the child-parent roles of {@code x} and its left child while preserving the conformity of the data's
 	 * structure with its ordering regarding the {@code c}-th comparator.</p>
-	 * <p><b>Requires:</b> {@code x.left.get(c) != nil}</p>
+	 * <p><b>Requires:</b> {@code left[c][x] != NIL}</p>
 	 * @param x the node to replace with its left child
 	 * @param c the index of the internal red-black tree to process
 	 */
-	private void rotateRight(Node x, int c) {
+	private void rotateRight(int x, int c) {
 		assert c >= 0 : "The index c must not be negative";
 		assert c < dimensions() : "The index c must not exceed dimensions() - 1";
-		assert x.left.get(c) != nil;
-		Node y = x.left.get(c);
-		x.left.set(c, y.rght.get(c));
-		if (y.rght.get(c) != nil)
-			y.rght.get(c).prnt.set(c, x);
-		y.prnt.set(c, x.prnt.get(c));
-		if (x.prnt.get(c) == nil)
-			root.set(c, y);
-		else if (x == x.prnt.get(c).left.get(c))
-			x.prnt.get(c).left.set(c, y);
+		int[] p = prnt[c], l = left[c], r = rght[c];
+		assert l[x] != NIL;
+		int y = l[x];
+		l[x] = r[y];
+		if (r[y] != NIL)
+			p[r[y]] = x;
+		p[y] = p[x];
+		if (p[x] == NIL)
+			root[c] = y;
+		else if (x == l[p[x]])
+			l[p[x]] = y;
 		else
-			x.prnt.get(c).rght.set(c, y);
-		y.rght.set(c, x);
-		x.prnt.set(c, y);
+			r[p[x]] = y;
+		r[y] = x;
+		p[x] = y;
+		int[] n = count[c];
+		n[y] = n[x];
+		n[x] = n[l[x]] + n[r[x]] + 1;
 	}
-	
+
 	/**
-	 * <p>Returns the node representing the minimal element of a subtree of the {@code c}-th internal red-black tree, that is
-	 * defined by {@code node}, being its root element.</p>
-	 * @param node the root element of the subtree of the internal red-black tree
-	 * @param c the index of the internal red-black tree
-	 * @return the node representing the minimal element of the subtree
+	 * <p>Removes all of the elements from this set. The slots of the elements are kept for reuse by later insertions. Only the
+	 * red-black trees of the standard comparator and of the eviction comparator are maintained afterwards.</p>
 	 */
-	private Node minimum(Node node, int c) {
-		assert c >= 0 : "The index c must not be negative";
-		assert c < dimensions() : "The index c must not exceed dimensions() - 1";
-		while (node.left.get(c) != nil)
-			node = node.left.get(c);
-		return node;
-	}
-	
 	@Override
 	public void clear() {
-		for (int i = 0; i < this.dimensions(); i++) {
-			nil.prnt.set(i, nil);
-			nil.left.set(i, nil);
-			nil.rght.set(i, nil);
-			nil.pred.set(i, nil);
-			nil.succ.set(i, nil);
-			root.set(i, nil);
+		Arrays.fill(value, 1, used, null);
+		for (int i = 0; i < dimensions(); i++) {
+			materialized[i] = i == 0 || i == eviction;
+			root[i] = NIL;
+			if (prnt[i] == null)
+				continue;
+			prnt[i][NIL] = NIL;
+			left[i][NIL] = NIL;
+			rght[i][NIL] = NIL;
+			pred[i][NIL] = NIL;
+			succ[i][NIL] = NIL;
 		}
+		used = 1;
+		free = NIL;
 		size = 0;
 	}
 
@@ -704,12 +1290,12 @@ public class MultiPrioritySet<E extends Comparable<E>> implements Set<E> {
 	public boolean contains(Object element) {
 		if (element == null)
 			throw new NullPointerException("Only non-null elements are supported");
-		Node node = search((E) element, 0); //Implicitly check type compatibility
-		if (node == nil)
+		int node = search((E) element, 0); //Implicitly check type compatibility
+		if (node == NIL)
 			return false;
 		return true;
 	}
-	
+
 	/**
 	 * <p>Returns true if this set contains all elements contained in the specified collection.</p>
 	 * <p>An element {@code a} will be considered to be contained in this set if there is an element {@code b} in this set so
@@ -731,36 +1317,47 @@ public class MultiPrioritySet<E extends Comparable<E>> implements Set<E> {
 
 	/**
 	 * <p>Returns a node representing the specified element according to the {@code c}-th comparator.</p>
-	 * <p>If no such node was found, {@code nil} will be returned.</p>
+	 * <p>If no such node was found, {@code NIL} will be returned.</p>
 	 * <p><b>Requires:</b> {@code element != null}</p>
 	 * @param element the element to find a representing node for
 	 * @param c the index of the internal red-black tree to search
 	 * @return a node representing the specified element
 	 */
-	private Node search(E element, int c) {
+	private int search(E element, int c) {
 		assert element != null : "Only non-null elements are supported";
 		assert c >= 0 : "The index c must not be negative";
 		assert c < dimensions() : "The index c must not exceed dimensions() - 1";
-		Node x = root.get(c);
-		while (x != nil && comparators.get(c).compare(element, x.value) != 0) {
-			if (comparators.get(c).compare(element, x.value) < 0)
-				x = x.left.get(c);
-			else
-				x = x.rght.get(c);
+		Comparator<E> comparator = comparators[c];
+		int[] l = left[c], r = rght[c];
+		int x = root[c];
+		while (x != NIL) {
+			int comparison = comparator.compare(element, value(x));
+			if (comparison == 0)
+				break;
+			x = comparison < 0 ? l[x] : r[x];
 		}
 		return x;
 	}
-	
+
 	@Override
 	public boolean isEmpty() {
-		return root.get(0) == nil;
+		return root[0] == NIL;
 	}
-	
+
 	@Override
 	public int size() {
 		return size;
 	}
-	
+
+	/**
+	 * <p>Returns the maximum size of this set.</p>
+	 * @return the maximum size of this set, or {@link Integer#MAX_VALUE Integer.MAX_VALUE} if it is not bounded
+	 * @see #MultiPrioritySet(Collection, int, int)
+	 */
+	public int capacity() {
+		return capacity;
+	}
+
 	/**
 	 * <p>Returns the number of total orders applied to this set. This number equals the number of internal red-black trees as
 	 * well as the number of comparators specified at construction time (or {@code 1} if only the standard comparator is used).</p>
@@ -768,9 +1365,9 @@ public class MultiPrioritySet<E extends Comparable<E>> implements Set<E> {
 	 * @see #size()
 	 */
 	public int dimensions() {
-		return comparators.size();
+		return comparators.length;
 	}
-	
+
 	/**
 	 * <p>Returns the standard comparator for this set.</p>
 	 * @return the standard comparator for this set
@@ -780,7 +1377,7 @@ public class MultiPrioritySet<E extends Comparable<E>> implements Set<E> {
 	public Comparator<E> comparator() {
 		return comparator(0);
 	}
-	
+
 	/**
 	 * <p>Returns the {@code c}-th comparator for this set.</p>
 	 * <p>Comparators are guaranteed to be ordered and indexed the same way as they appeared in the collection specified in the
@@ -796,7 +1393,7 @@ public class MultiPrioritySet<E extends Comparable<E>> implements Set<E> {
 			throw new IllegalArgumentException("The index c must not be negative");
 		if (c >= dimensions())
 			throw new IllegalArgumentException("The index c must not exceed dimensions() - 1");
-		return comparators.get(c);
+		return comparators[c];
 	}
 
 	/**
@@ -808,9 +1405,11 @@ public class MultiPrioritySet<E extends Comparable<E>> implements Set<E> {
 	public Iterator<E> iterator() {
 		return iterator(0);
 	}
-	
+
 	/**
 	 * <p>Returns an iterator based on the {@code c}-th comparator.</p>
+	 * <p>If the set has not been iterated in this order before, the internal red-black tree of the comparator is built first,
+	 * which takes {@code O(n log n)} time, or linear time if the order agrees with the standard comparator.</p>
 	 * @param c the index of the comparator to determine the iteration order
 	 * @return the {@code c}-th iterator for this set
 	 * @throws IllegalArgumentException if {@code c<0} or {@code c>=dimensions()}
@@ -821,9 +1420,523 @@ public class MultiPrioritySet<E extends Comparable<E>> implements Set<E> {
 			throw new IllegalArgumentException("The index c must not be negative");
 		if (c >= dimensions())
 			throw new IllegalArgumentException("The index c must not exceed dimensions() - 1");
+		materialize(c);
 		return new NodeIterator(c);
 	}
-	
+
+	/**
+	 * <p>Returns the element at the specified position of the order defined by the {@code c}-th comparator.</p>
+	 * <p>The method runs in logarithmic time, once the internal red-black tree of the comparator has been built (see
+	 * {@link #iterator(int) iterator(int)}).</p>
+	 * @param c the index of the comparator to determine the order
+	 * @param k the position of the element, starting at {@code 0}
+	 * @return the {@code k}-th element according to the {@code c}-th comparator
+	 * @throws IllegalArgumentException if {@code c<0} or {@code c>=dimensions()}
+	 * @throws IndexOutOfBoundsException if {@code k<0} or {@code k>=size()}
+	 * @see #rank(int, Comparable)
+	 */
+	public E select(int c, int k) {
+		if (c < 0)
+			throw new IllegalArgumentException("The index c must not be negative");
+		if (c >= dimensions())
+			throw new IllegalArgumentException("The index c must not exceed dimensions() - 1");
+		if (k < 0 || k >= size())
+			throw new IndexOutOfBoundsException("The position " + k + " is not within a set of size " + size());
+		materialize(c);
+		return value(node(c, k));
+	}
+
+	/**
+	 * <p>Returns the node at the specified position of the {@code c}-th internal red-black tree.</p>
+	 * <p><b>Requires:</b> {@code 0 <= k && k < size()}</p>
+	 * @param c the index of the internal red-black tree
+	 * @param k the position of the node, starting at {@code 0}
+	 * @return the node at the position
+	 */
+	private int node(int c, int k) {
+		assert k >= 0 && k < size() : "The position k must be within this set";
+		int[] l = left[c], r = rght[c], n = count[c];
+		int x = root[c];
+		while (k != n[l[x]]) {
+			if (k < n[l[x]])
+				x = l[x];
+			else {
+				k -= n[l[x]] + 1;
+				x = r[x];
+			}
+		}
+		return x;
+	}
+
+	/**
+	 * <p>Returns the position of the element of this set resembling the one specified regarding the standard comparator in
+	 * the order defined by the {@code c}-th comparator, i.e. the number of elements preceding it in the {@code c}-th
+	 * iteration.</p>
+	 * <p>The method runs in logarithmic time, once the internal red-black tree of the comparator has been built.</p>
+	 * @param c the index of the comparator to determine the order
+	 * @param element the element to search for
+	 * @return the position of the element, starting at {@code 0}, or {@code -1} if this set does not contain the element
+	 * @throws IllegalArgumentException if {@code c<0} or {@code c>=dimensions()}
+	 * @throws NullPointerException if the specified element is null
+	 * @see #select(int, int)
+	 * @see #headCount(int, Comparable)
+	 */
+	public int rank(int c, E element) {
+		if (c < 0)
+			throw new IllegalArgumentException("The index c must not be negative");
+		if (c >= dimensions())
+			throw new IllegalArgumentException("The index c must not exceed dimensions() - 1");
+		if (element == null)
+			throw new NullPointerException("Only non-null elements are supported");
+		int x = search(element, 0);
+		if (x == NIL)
+			return -1;
+		materialize(c);
+		int[] p = prnt[c], l = left[c], n = count[c];
+		int rank = n[l[x]];
+		for (; p[x] != NIL; x = p[x])
+			if (x != l[p[x]])
+				rank += n[l[p[x]]] + 1;
+		return rank;
+	}
+
+	/**
+	 * <p>Returns the number of elements of this set that are less than the specified element regarding the {@code c}-th
+	 * comparator. The element does not need to be contained in this set.</p>
+	 * <p>The method runs in logarithmic time, once the internal red-black tree of the comparator has been built.</p>
+	 * @param c the index of the comparator to determine the order
+	 * @param element the element to compare to
+	 * @return the number of elements less than the specified element
+	 * @throws IllegalArgumentException if {@code c<0} or {@code c>=dimensions()}
+	 * @throws NullPointerException if the specified element is null
+	 * @see #rank(int, Comparable)
+	 */
+	public int headCount(int c, E element) {
+		if (c < 0)
+			throw new IllegalArgumentException("The index c must not be negative");
+		if (c >= dimensions())
+			throw new IllegalArgumentException("The index c must not exceed dimensions() - 1");
+		if (element == null)
+			throw new NullPointerException("Only non-null elements are supported");
+		materialize(c);
+		return count(c, element, false);
+	}
+
+	/**
+	 * <p>Returns the number of elements of this set that are less than, or equal to if {@code inclusive}, the specified element
+	 * regarding the {@code c}-th comparator.</p>
+	 * @param c the index of the internal red-black tree
+	 * @param element the element to compare to
+	 * @param inclusive whether elements equal to the specified element are counted
+	 * @return the number of elements counted
+	 */
+	private int count(int c, E element, boolean inclusive) {
+		int[] l = left[c], r = rght[c], n = count[c];
+		int head = 0;
+		for (int x = root[c]; x != NIL;) {
+			if (below(value(x), c, element, inclusive)) {
+				head += n[l[x]] + 1;
+				x = r[x];
+			}
+			else
+				x = l[x];
+		}
+		return head;
+	}
+
+	/**
+	 * <p>Checks if an element is less than, or equal to if {@code inclusive}, a bound regarding the {@code c}-th comparator.</p>
+	 * @param element the element to check
+	 * @param c the index of the comparator
+	 * @param bound the bound
+	 * @param inclusive whether an element equal to the bound is accepted
+	 * @return true if the element is below the bound
+	 */
+	private boolean below(E element, int c, E bound, boolean inclusive) {
+		int comparison = comparators[c].compare(element, bound);
+		return comparison < 0 || inclusive && comparison == 0;
+	}
+
+	/**
+	 * <p>Returns the last node of the {@code c}-th internal red-black tree whose element is less than, or equal to if
+	 * {@code inclusive}, the specified element.</p>
+	 * @param c the index of the internal red-black tree
+	 * @param element the element to compare to
+	 * @param inclusive whether a node with an element equal to the specified element qualifies
+	 * @return the node, or {@code NIL} if there is none
+	 */
+	private int lowerNode(int c, E element, boolean inclusive) {
+		int[] l = left[c], r = rght[c];
+		int node = NIL;
+		for (int x = root[c]; x != NIL;) {
+			if (below(value(x), c, element, inclusive)) {
+				node = x;
+				x = r[x];
+			}
+			else
+				x = l[x];
+		}
+		return node;
+	}
+
+	/**
+	 * <p>Returns the first node of the {@code c}-th internal red-black tree whose element is greater than, or equal to if
+	 * {@code inclusive}, the specified element.</p>
+	 * @param c the index of the internal red-black tree
+	 * @param element the element to compare to
+	 * @param inclusive whether a node with an element equal to the specified element qualifies
+	 * @return the node, or {@code NIL} if there is none
+	 */
+	private int higherNode(int c, E element, boolean inclusive) {
+		int[] l = left[c], r = rght[c];
+		int node = NIL;
+		for (int x = root[c]; x != NIL;) {
+			if (below(value(x), c, element, !inclusive))
+				x = r[x];
+			else {
+				node = x;
+				x = l[x];
+			}
+		}
+		return node;
+	}
+
+	/**
+	 * <p>Returns the greatest element of this set that is less than or equal to the specified element regarding the
+	 * {@code c}-th comparator. Of several such elements the comparator considers equal, the last one in the {@code c}-th
+	 * iteration is returned.</p>
+	 * @param c the index of the comparator to determine the order
+	 * @param element the element to compare to
+	 * @return the element found, or {@code null} if there is none
+	 * @throws IllegalArgumentException if {@code c<0} or {@code c>=dimensions()}
+	 * @throws NullPointerException if the specified element is null
+	 * @see #lower(int, Comparable)
+	 * @see #ceiling(int, Comparable)
+	 */
+	public E floor(int c, E element) {
+		return value(lowerNode(navigate(c, element), element, true));
+	}
+
+	/**
+	 * <p>Returns the greatest element of this set that is strictly less than the specified element regarding the {@code c}-th
+	 * comparator. Of several such elements the comparator considers equal, the last one in the {@code c}-th iteration is
+	 * returned.</p>
+	 * @param c the index of the comparator to determine the order
+	 * @param element the element to compare to
+	 * @return the element found, or {@code null} if there is none
+	 * @throws IllegalArgumentException if {@code c<0} or {@code c>=dimensions()}
+	 * @throws NullPointerException if the specified element is null
+	 * @see #floor(int, Comparable)
+	 * @see #higher(int, Comparable)
+	 */
+	public E lower(int c, E element) {
+		return value(lowerNode(navigate(c, element), element, false));
+	}
+
+	/**
+	 * <p>Returns the least element of this set that is greater than or equal to the specified element regarding the
+	 * {@code c}-th comparator. Of several such elements the comparator considers equal, the first one in the {@code c}-th
+	 * iteration is returned.</p>
+	 * @param c the index of the comparator to determine the order
+	 * @param element the element to compare to
+	 * @return the element found, or {@code null} if there is none
+	 * @throws IllegalArgumentException if {@code c<0} or {@code c>=dimensions()}
+	 * @throws NullPointerException if the specified element is null
+	 * @see #higher(int, Comparable)
+	 * @see #floor(int, Comparable)
+	 */
+	public E ceiling(int c, E element) {
+		return value(higherNode(navigate(c, element), element, true));
+	}
+
+	/**
+	 * <p>Returns the least element of this set that is strictly greater than the specified element regarding the {@code c}-th
+	 * comparator. Of several such elements the comparator considers equal, the first one in the {@code c}-th iteration is
+	 * returned.</p>
+	 * @param c the index of the comparator to determine the order
+	 * @param element the element to compare to
+	 * @return the element found, or {@code null} if there is none
+	 * @throws IllegalArgumentException if {@code c<0} or {@code c>=dimensions()}
+	 * @throws NullPointerException if the specified element is null
+	 * @see #ceiling(int, Comparable)
+	 * @see #lower(int, Comparable)
+	 */
+	public E higher(int c, E element) {
+		return value(higherNode(navigate(c, element), element, false));
+	}
+
+	/**
+	 * <p>Checks the arguments of a navigation method and builds the {@code c}-th internal red-black tree if necessary.</p>
+	 * @param c the index of the comparator to determine the order
+	 * @param element the element to navigate by
+	 * @return {@code c}
+	 * @throws IllegalArgumentException if {@code c<0} or {@code c>=dimensions()}
+	 * @throws NullPointerException if the specified element is null
+	 */
+	private int navigate(int c, E element) {
+		if (c < 0)
+			throw new IllegalArgumentException("The index c must not be negative");
+		if (c >= dimensions())
+			throw new IllegalArgumentException("The index c must not exceed dimensions() - 1");
+		if (element == null)
+			throw new NullPointerException("Only non-null elements are supported");
+		materialize(c);
+		return c;
+	}
+
+	/**
+	 * <p>Removes the first element in the order defined by the {@code c}-th comparator from this set and returns it.</p>
+	 * @param c the index of the comparator to determine the order
+	 * @return the removed element, or {@code null} if this set is empty
+	 * @throws IllegalArgumentException if {@code c<0} or {@code c>=dimensions()}
+	 * @see #pollLast(int)
+	 */
+	public E pollFirst(int c) {
+		if (c < 0)
+			throw new IllegalArgumentException("The index c must not be negative");
+		if (c >= dimensions())
+			throw new IllegalArgumentException("The index c must not exceed dimensions() - 1");
+		materialize(c);
+		return poll(succ[c][NIL]);
+	}
+
+	/**
+	 * <p>Removes the last element in the order defined by the {@code c}-th comparator from this set and returns it.</p>
+	 * @param c the index of the comparator to determine the order
+	 * @return the removed element, or {@code null} if this set is empty
+	 * @throws IllegalArgumentException if {@code c<0} or {@code c>=dimensions()}
+	 * @see #pollFirst(int)
+	 */
+	public E pollLast(int c) {
+		if (c < 0)
+			throw new IllegalArgumentException("The index c must not be negative");
+		if (c >= dimensions())
+			throw new IllegalArgumentException("The index c must not exceed dimensions() - 1");
+		materialize(c);
+		return poll(pred[c][NIL]);
+	}
+
+	/**
+	 * <p>Deletes the specified node unless it is {@code NIL} and returns its element.</p>
+	 * @param node the node to delete
+	 * @return the element of the node, or {@code null} for {@code NIL}
+	 */
+	private E poll(int node) {
+		E element = value(node);
+		if (node != NIL)
+			delete(node);
+		return element;
+	}
+
+	/**
+	 * <p>Returns a view of the elements of this set from {@code from} to {@code to} regarding the {@code c}-th comparator.</p>
+	 * <p>The view is backed by this set, so that changes to either are reflected by the other. It is iterated in the
+	 * {@code c}-th order, starting at the first element within its range, which is found in logarithmic time, and stopping at
+	 * the first element beyond it. Its {@link Set#size() size} is computed in logarithmic time from the subtree sizes. The view
+	 * supports removal; an attempt to insert an element outside of its range throws an {@code IllegalArgumentException}.</p>
+	 * @param c the index of the comparator to determine the order
+	 * @param from the lower bound of the view
+	 * @param fromInclusive whether elements equal to the lower bound are contained in the view
+	 * @param to the upper bound of the view
+	 * @param toInclusive whether elements equal to the upper bound are contained in the view
+	 * @return a view of the range of this set
+	 * @throws IllegalArgumentException if {@code c<0}, {@code c>=dimensions()} or {@code from} is greater than {@code to}
+	 * regarding the {@code c}-th comparator
+	 * @throws NullPointerException if {@code from} or {@code to} is null
+	 * @see #headSet(int, Comparable, boolean)
+	 * @see #tailSet(int, Comparable, boolean)
+	 */
+	public Set<E> subSet(int c, E from, boolean fromInclusive, E to, boolean toInclusive) {
+		navigate(c, from);
+		navigate(c, to);
+		if (comparators[c].compare(from, to) > 0)
+			throw new IllegalArgumentException("The lower bound must not be greater than the upper bound");
+		return new RangeView(c, from, fromInclusive, to, toInclusive);
+	}
+
+	/**
+	 * <p>Returns a view of the elements of this set up to {@code to} regarding the {@code c}-th comparator, with the properties
+	 * of a {@link #subSet(int, Comparable, boolean, Comparable, boolean) subSet}.</p>
+	 * @param c the index of the comparator to determine the order
+	 * @param to the upper bound of the view
+	 * @param inclusive whether elements equal to the upper bound are contained in the view
+	 * @return a view of the range of this set
+	 * @throws IllegalArgumentException if {@code c<0} or {@code c>=dimensions()}
+	 * @throws NullPointerException if {@code to} is null
+	 * @see #tailSet(int, Comparable, boolean)
+	 */
+	public Set<E> headSet(int c, E to, boolean inclusive) {
+		navigate(c, to);
+		return new RangeView(c, null, false, to, inclusive);
+	}
+
+	/**
+	 * <p>Returns a view of the elements of this set from {@code from} on regarding the {@code c}-th comparator, with the
+	 * properties of a {@link #subSet(int, Comparable, boolean, Comparable, boolean) subSet}.</p>
+	 * @param c the index of the comparator to determine the order
+	 * @param from the lower bound of the view
+	 * @param inclusive whether elements equal to the lower bound are contained in the view
+	 * @return a view of the range of this set
+	 * @throws IllegalArgumentException if {@code c<0} or {@code c>=dimensions()}
+	 * @throws NullPointerException if {@code from} is null
+	 * @see #headSet(int, Comparable, boolean)
+	 */
+	public Set<E> tailSet(int c, E from, boolean inclusive) {
+		navigate(c, from);
+		return new RangeView(c, from, inclusive, null, false);
+	}
+
+	/**
+	 * <p>A nested class representing a view of a range of an order of the enclosing {@link MultiPrioritySet
+	 * MultiPrioritySet}.</p>
+	 * <p>As {@link #clear() clear()} stops maintaining the internal red-black tree of the view's comparator, every method
+	 * reading that tree builds it again first. Membership is decided by the red-black tree of the standard comparator.</p>
+	 * @author Julian Betz
+	 * @version 1.01
+	 */
+	private class RangeView extends AbstractSet<E> {
+		private int c;
+		/**
+		 * <p>The bounds of the range, {@code null} if the range is not bounded on that side.</p>
+		 */
+		private E from, to;
+		private boolean fromInclusive, toInclusive;
+
+		private RangeView(int c, E from, boolean fromInclusive, E to, boolean toInclusive) {
+			this.c = c;
+			this.from = from;
+			this.fromInclusive = fromInclusive;
+			this.to = to;
+			this.toInclusive = toInclusive;
+		}
+
+		/**
+		 * <p>Checks if the specified element lies within the range of this view.</p>
+		 * @param element the element to check
+		 * @return true if the element lies within the range
+		 */
+		private boolean within(E element) {
+			return (from == null || !below(element, c, from, !fromInclusive)) && (to == null || below(element, c, to, toInclusive));
+		}
+
+		@Override
+		public Iterator<E> iterator() {
+			materialize(c);
+			int first = from == null ? succ[c][NIL] : higherNode(c, from, fromInclusive);
+			return new NodeIterator(c, pred[c][first], to, toInclusive);
+		}
+
+		@Override
+		public int size() {
+			materialize(c);
+			int head = to == null ? MultiPrioritySet.this.size() : count(c, to, toInclusive);
+			return Math.max(0, head - (from == null ? 0 : count(c, from, !fromInclusive)));
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return !iterator().hasNext();
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public boolean contains(Object element) {
+			return within((E) element) && MultiPrioritySet.this.contains(element);
+		}
+
+		@Override
+		public boolean add(E element) {
+			if (!within(element))
+				throw new IllegalArgumentException("The element is outside of the range of this view");
+			return MultiPrioritySet.this.add(element);
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public boolean remove(Object element) {
+			return within((E) element) && MultiPrioritySet.this.remove(element);
+		}
+	}
+
+	/**
+	 * <p>Returns a spliterator based on the standard comparator.</p>
+	 * @return the standard spliterator for this set
+	 * @see #spliterator(int)
+	 */
+	@Override
+	public Spliterator<E> spliterator() {
+		return spliterator(0);
+	}
+
+	/**
+	 * <p>Returns a spliterator based on the {@code c}-th comparator. The spliterator reports the characteristics
+	 * {@link Spliterator#ORDERED ORDERED}, {@link Spliterator#SORTED SORTED} (by the {@code c}-th comparator),
+	 * {@link Spliterator#DISTINCT DISTINCT}, {@link Spliterator#NONNULL NONNULL}, {@link Spliterator#SIZED SIZED} and
+	 * {@link Spliterator#SUBSIZED SUBSIZED}.</p>
+	 * <p>Splitting divides the remaining positions in halves and takes logarithmic time, as the node at the middle position is
+	 * found by descending the internal red-black tree guided by the subtree sizes. If the set has not been iterated in this
+	 * order before, the internal red-black tree of the comparator is built first.</p>
+	 * <p><i><b>Caution:</b> A modification of this set while the spliterator is in use will result in undefined behavior.</i></p>
+	 * @param c the index of the comparator to determine the traversal order
+	 * @return the {@code c}-th spliterator for this set
+	 * @throws IllegalArgumentException if {@code c<0} or {@code c>=dimensions()}
+	 * @see #stream(int)
+	 * @see #iterator(int)
+	 */
+	public Spliterator<E> spliterator(int c) {
+		if (c < 0)
+			throw new IllegalArgumentException("The index c must not be negative");
+		if (c >= dimensions())
+			throw new IllegalArgumentException("The index c must not exceed dimensions() - 1");
+		materialize(c);
+		return new NodeSpliterator(c, succ[c][NIL], 0, size());
+	}
+
+	/**
+	 * <p>Returns a sequential stream of the elements of this set ordered by the {@code c}-th comparator.</p>
+	 * @param c the index of the comparator to determine the encounter order
+	 * @return a sequential stream of the elements of this set
+	 * @throws IllegalArgumentException if {@code c<0} or {@code c>=dimensions()}
+	 * @see #parallelStream(int)
+	 * @see #spliterator(int)
+	 */
+	public Stream<E> stream(int c) {
+		return StreamSupport.stream(spliterator(c), false);
+	}
+
+	/**
+	 * <p>Returns a possibly parallel stream of the elements of this set ordered by the {@code c}-th comparator.</p>
+	 * <p><i><b>Caution:</b> The set must not be modified while the stream is processed.</i></p>
+	 * @param c the index of the comparator to determine the encounter order
+	 * @return a possibly parallel stream of the elements of this set
+	 * @throws IllegalArgumentException if {@code c<0} or {@code c>=dimensions()}
+	 * @see #stream(int)
+	 * @see #spliterator(int)
+	 */
+	public Stream<E> parallelStream(int c) {
+		return StreamSupport.stream(spliterator(c), true);
+	}
+
+	/**
+	 * <p>Returns an immutable copy of this set as a {@link PersistentMultiPrioritySet PersistentMultiPrioritySet}, which may be
+	 * read by any number of threads without locking and from which further versions are derived at logarithmic cost.</p>
+	 * <p>The elements are handed over in the order of their insertion, so that the copy iterates elements a comparator
+	 * considers equal in the same order as this set. Taking the copy thus takes {@code O(n log n)} time per comparator.</p>
+	 * @return an immutable copy of this set
+	 * @see PersistentMultiPrioritySet#snapshot()
+	 */
+	public PersistentMultiPrioritySet<E> snapshot() {
+		int[] nodes = new int[size];
+		int n = 0;
+		for (int node = succ[0][NIL]; node != NIL; node = succ[0][node])
+			nodes[n++] = node;
+		sort(nodes, (int x, int y) -> Long.compare(sequence[x], sequence[y]));
+		ArrayList<E> elements = new ArrayList<E>(n);
+		for (int node : nodes)
+			elements.add(value(node));
+		return PersistentMultiPrioritySet.of(elements, Arrays.asList(comparators));
+	}
+
 	/**
 	 * <p>Converts this set into an {@link Object Object} array.</p>
 	 * <p>The array will be sorted according to the standard comparator and its length will be this set's {@link #size() size}.
@@ -839,7 +1952,7 @@ public class MultiPrioritySet<E extends Comparable<E>> implements Set<E> {
 			array[i++] = e;
 		return array;
 	}
-	
+
 	/**
 	 * <p>Fills the elements of this set into an array of the runtime type of the specified array and returns this array.</p>
 	 * <p>If all elements fit in the specified array, this array will be used. Furthermore, if this process leaves room to spare
@@ -871,9 +1984,21 @@ public class MultiPrioritySet<E extends Comparable<E>> implements Set<E> {
 			array[size()] = null;
 		return array;
 	}
-	
+
 	@Override
 	public String toString() {
-		return root.get(0).toString();
+		return toString(root[0]);
+	}
+
+	/**
+	 * <p>Returns a representation of the subtree of the first internal red-black tree rooted at the specified node.</p>
+	 * @param node the root of the subtree
+	 * @return the representation of the subtree
+	 */
+	private String toString(int node) {
+		if (node == NIL)
+			return "";
+		return "(" + toString(left[0][node]) + " <" + value(node).toString() + " | " + (prnt[0][node] == NIL ? "*"
+				: value(prnt[0][node]).toString()) + "> " + toString(rght[0][node]) + ")";
 	}
 }
@@ -0,0 +1,506 @@
+package foundation.data;
+
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>An immutable counterpart of the {@link MultiPrioritySet MultiPrioritySet}: a set that is iterable using an arbitrary
+ * number of total orders defined on the data stored within and that is never modified once constructed. Instead, every
+ * modification derives a new version of the set, which shares all unchanged parts with the version it has been derived
+ * from.</p>
+ * <p>Every total order is kept in a persistent weight-balanced binary search tree of immutable nodes that also carry the sizes
+ * of their subtrees. {@link #with(Comparable) with} and {@link #without(Object) without} copy only the path from the root to
+ * the inserted or removed element in every tree, so that they run in logarithmic time and space per comparator, while
+ * {@link #snapshot() snapshot} runs in constant time. Elements a comparator other than the standard comparator considers equal
+ * are ordered by the time of their insertion, as in the {@code MultiPrioritySet}; a copy taken by
+ * {@link MultiPrioritySet#snapshot() MultiPrioritySet.snapshot()} thus iterates every order like the set it is taken of.</p>
+ * <p>As no version is ever modified, any number of threads may read any version without locking, and a version may be
+ * handed to another thread without copying it.</p>
+ * <p><i><b>Caution:</b> This set does not support {@code null} elements. A change to the comparators specified at
+ * construction time or to a contained element will result in undefined behavior.</i></p>
+ * @author Julian Betz
+ * @version 1.00
+ */
+public final class PersistentMultiPrioritySet<E extends Comparable<E>> extends AbstractSet<E> {
+	/**
+	 * <p>The factor by which the weight of a subtree may exceed the weight of its sibling before the tree is rebalanced.</p>
+	 */
+	private static final int DELTA = 3;
+	/**
+	 * <p>The factor that decides between a single and a double rotation when rebalancing.</p>
+	 */
+	private static final int RATIO = 2;
+	/**
+	 * <p>The comparators that define the total orders used to navigate this set. The array is shared by all versions.</p>
+	 */
+	private final Comparator<E>[] comparators;
+	/**
+	 * <p>The roots of the trees per comparator, {@code null} for an empty set.</p>
+	 */
+	private final Node<E>[] roots;
+	/**
+	 * <p>The insertion time to assign to the next element inserted into this version.</p>
+	 */
+	private final long time;
+
+	/**
+	 * <p>A node of one of the trees. Nodes are immutable and may be shared by several versions of the set, but not by several
+	 * trees.</p>
+	 * @author Julian Betz
+	 * @version 1.00
+	 */
+	private static final class Node<E> {
+		private final E value;
+		/**
+		 * <p>The time the element has been inserted at, which orders the elements considered equal by a comparator.</p>
+		 */
+		private final long time;
+		private final Node<E> left, rght;
+		/**
+		 * <p>The number of nodes in the subtree rooted at this node.</p>
+		 */
+		private final int size;
+
+		private Node(E value, long time, Node<E> left, Node<E> rght) {
+			this.value = value;
+			this.time = time;
+			this.left = left;
+			this.rght = rght;
+			this.size = size(left) + size(rght) + 1;
+		}
+	}
+
+	/**
+	 * <p>Constructs an empty {@code PersistentMultiPrioritySet} that uses a standard comparator based on the
+	 * {@link Comparable#compareTo(Object) compareTo} method of the runtime types of the inserted elements to navigate the
+	 * data.</p>
+	 */
+	public PersistentMultiPrioritySet() {
+		this(null);
+	}
+
+	/**
+	 * <p>Constructs an empty {@code PersistentMultiPrioritySet} that uses the specified comparators to navigate the data.</p>
+	 * <p>If the list is a {@code null} reference, a standard comparator based on the {@link Comparable#compareTo(Object)
+	 * compareTo} method of the runtime types of the inserted elements will be used. Otherwise, every comparator in the
+	 * list will be used for comparison. The comparators will be indexed in the same order as they appear in the specified list.
+	 * The standard comparator will be the first element.</p>
+	 * <p><i><b>Caution:</b> A change to the specified comparators or an empty list will result in undefined behavior.</i></p>
+	 * @param comparators the comparators to use navigating this set
+	 */
+	@SuppressWarnings("unchecked")
+	public PersistentMultiPrioritySet(Collection<Comparator<E>> comparators) {
+		if (comparators == null) {
+			this.comparators = (Comparator<E>[]) new Comparator<?>[1];
+			this.comparators[0] = (E a, E b) -> a.compareTo(b); //Add the standard comparator
+		}
+		else
+			this.comparators = comparators.toArray((Comparator<E>[]) new Comparator<?>[comparators.size()]); //Add the given comparators
+		roots = (Node<E>[]) new Node<?>[dimensions()];
+		time = 0;
+	}
+
+	/**
+	 * <p>Constructs a version of a set.</p>
+	 * @param comparators the comparators shared with the other versions
+	 * @param roots the roots of the trees of the version
+	 * @param time the insertion time to assign to the next element inserted
+	 */
+	private PersistentMultiPrioritySet(Comparator<E>[] comparators, Node<E>[] roots, long time) {
+		this.comparators = comparators;
+		this.roots = roots;
+		this.time = time;
+	}
+
+	/**
+	 * <p>Constructs a {@code PersistentMultiPrioritySet} that uses the specified comparators to navigate the data and contains
+	 * the elements of the specified collection.</p>
+	 * <p>Every tree is built balanced from the elements sorted by its comparator, so that the construction takes linear time per
+	 * comparator after sorting. If the standard comparator considers several elements of the collection to be equal, only the
+	 * first one according to the iterator of the collection is contained, as if the elements had been inserted one by one by
+	 * {@link #with(Comparable) with}.</p>
+	 * @param elements the elements to be contained in the set
+	 * @param comparators the comparators to use navigating the set, as for
+	 * {@link #PersistentMultiPrioritySet(Collection) PersistentMultiPrioritySet(Collection)}
+	 * @return the set
+	 * @throws NullPointerException if one of the elements contained in the specified collection is null
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E extends Comparable<E>> PersistentMultiPrioritySet<E> of(Collection<? extends E> elements,
+			Collection<Comparator<E>> comparators) {
+		PersistentMultiPrioritySet<E> empty = new PersistentMultiPrioritySet<E>(comparators);
+		Node<E>[] nodes = (Node<E>[]) new Node<?>[elements.size()];
+		int n = 0;
+		for (E element : elements) {
+			if (element == null)
+				throw new NullPointerException("Only non-null elements are supported");
+			nodes[n] = new Node<E>(element, n, null, null);
+			n++;
+		}
+		//Sort stably by the standard comparator and keep the first of equal elements only
+		Comparator<E> standard = empty.comparators[0];
+		Arrays.sort(nodes, (Node<E> a, Node<E> b) -> standard.compare(a.value, b.value));
+		int m = 0;
+		for (int i = 0; i < n; i++)
+			if (m == 0 || standard.compare(nodes[i].value, nodes[m - 1].value) != 0)
+				nodes[m++] = nodes[i];
+		nodes = Arrays.copyOf(nodes, m);
+		Node<E>[] roots = (Node<E>[]) new Node<?>[empty.dimensions()];
+		roots[0] = build(nodes, 0, m - 1);
+		if (empty.dimensions() > 1) {
+			//Restore the insertion order, which the sorting by every other comparator keeps for equal elements
+			Arrays.sort(nodes, (Node<E> a, Node<E> b) -> Long.compare(a.time, b.time));
+			for (int c = 1; c < empty.dimensions(); c++) {
+				Node<E>[] sorted = nodes.clone();
+				Comparator<E> comparator = empty.comparators[c];
+				Arrays.sort(sorted, (Node<E> a, Node<E> b) -> comparator.compare(a.value, b.value));
+				roots[c] = build(sorted, 0, m - 1);
+			}
+		}
+		return new PersistentMultiPrioritySet<E>(empty.comparators, roots, n);
+	}
+
+	/**
+	 * <p>Builds a perfectly balanced tree of new nodes carrying the elements and insertion times of the specified range of
+	 * nodes.</p>
+	 * @param nodes the nodes in ascending order
+	 * @param from the index of the first node of the tree
+	 * @param to the index of the last node of the tree
+	 * @return the root of the tree, or {@code null} if the range is empty
+	 */
+	private static <E> Node<E> build(Node<E>[] nodes, int from, int to) {
+		if (from > to)
+			return null;
+		int middle = (from + to) >>> 1;
+		return new Node<E>(nodes[middle].value, nodes[middle].time, build(nodes, from, middle - 1), build(nodes, middle + 1, to));
+	}
+
+	/**
+	 * <p>Returns this set. As a version of a {@code PersistentMultiPrioritySet} is never modified, it is a snapshot of itself
+	 * already, so that this method runs in constant time.</p>
+	 * @return this set
+	 * @see MultiPrioritySet#snapshot()
+	 */
+	public PersistentMultiPrioritySet<E> snapshot() {
+		return this;
+	}
+
+	/**
+	 * <p>Returns a version of this set that additionally contains the specified element. The element will only be inserted if
+	 * it is considered not to be contained in this set by the standard comparator; otherwise, this set is returned.</p>
+	 * <p>The new version shares all nodes with this one except for the ones on the path to the inserted element in every
+	 * tree.</p>
+	 * @param element the element to be inserted
+	 * @return a version of this set containing the element
+	 * @throws NullPointerException if the specified element is null
+	 * @see #without(Object)
+	 */
+	@SuppressWarnings("unchecked")
+	public PersistentMultiPrioritySet<E> with(E element) {
+		if (element == null)
+			throw new NullPointerException("Only non-null elements are supported");
+		if (search(element) != null)
+			return this;
+		Node<E>[] roots = (Node<E>[]) new Node<?>[dimensions()];
+		for (int c = 0; c < dimensions(); c++)
+			roots[c] = insert(this.roots[c], element, time, c);
+		return new PersistentMultiPrioritySet<E>(comparators, roots, time + 1);
+	}
+
+	/**
+	 * <p>Returns a version of this set that does not contain the element resembling the one specified regarding the standard
+	 * comparator. If this set does not contain such an element, this set is returned.</p>
+	 * <p>The new version shares all nodes with this one except for the ones on the path to the removed element in every
+	 * tree.</p>
+	 * @param element the element to be removed
+	 * @return a version of this set not containing the element
+	 * @throws ClassCastException if the type of the specified element is incompatible with this set
+	 * @throws NullPointerException if the specified element is null
+	 * @see #with(Comparable)
+	 */
+	@SuppressWarnings("unchecked")
+	public PersistentMultiPrioritySet<E> without(Object element) {
+		if (element == null)
+			throw new NullPointerException("Only non-null elements are supported");
+		Node<E> node = search((E) element); //Implicitly check type compatibility
+		if (node == null)
+			return this;
+		Node<E>[] roots = (Node<E>[]) new Node<?>[dimensions()];
+		for (int c = 0; c < dimensions(); c++)
+			roots[c] = remove(this.roots[c], node.value, node.time, c);
+		return new PersistentMultiPrioritySet<E>(comparators, roots, time);
+	}
+
+	/**
+	 * <p>Compares an element to the element of a node regarding the {@code c}-th comparator, ordering equal elements by their
+	 * insertion times.</p>
+	 * @param element the element
+	 * @param time the insertion time of the element
+	 * @param node the node
+	 * @param c the index of the comparator
+	 * @return a negative number, zero or a positive number if the element is less than, equal to or greater than the node's
+	 */
+	private int compare(E element, long time, Node<E> node, int c) {
+		int comparison = comparators[c].compare(element, node.value);
+		return comparison != 0 || c == 0 ? comparison : Long.compare(time, node.time);
+	}
+
+	/**
+	 * <p>Returns the root of a copy of the specified subtree of the {@code c}-th tree that additionally contains the specified
+	 * element.</p>
+	 * <p><b>Requires:</b> The element is not contained in the subtree.</p>
+	 * @param node the root of the subtree
+	 * @param element the element to be inserted
+	 * @param time the insertion time of the element
+	 * @param c the index of the tree
+	 * @return the root of the new subtree
+	 */
+	private Node<E> insert(Node<E> node, E element, long time, int c) {
+		if (node == null)
+			return new Node<E>(element, time, null, null);
+		if (compare(element, time, node, c) < 0)
+			return balance(node.value, node.time, insert(node.left, element, time, c), node.rght);
+		return balance(node.value, node.time, node.left, insert(node.rght, element, time, c));
+	}
+
+	/**
+	 * <p>Returns the root of a copy of the specified subtree of the {@code c}-th tree that does not contain the specified
+	 * element.</p>
+	 * <p><b>Requires:</b> The element is contained in the subtree.</p>
+	 * @param node the root of the subtree
+	 * @param element the element to be removed
+	 * @param time the insertion time of the element
+	 * @param c the index of the tree
+	 * @return the root of the new subtree
+	 */
+	private Node<E> remove(Node<E> node, E element, long time, int c) {
+		int comparison = compare(element, time, node, c);
+		if (comparison < 0)
+			return balance(node.value, node.time, remove(node.left, element, time, c), node.rght);
+		if (comparison > 0)
+			return balance(node.value, node.time, node.left, remove(node.rght, element, time, c));
+		//Replace the node by the nearest node of its heavier subtree
+		if (node.left == null)
+			return node.rght;
+		if (node.rght == null)
+			return node.left;
+		if (node.left.size > node.rght.size) {
+			Node<E> max = node.left;
+			while (max.rght != null)
+				max = max.rght;
+			return balance(max.value, max.time, remove(node.left, max.value, max.time, c), node.rght);
+		}
+		Node<E> min = node.rght;
+		while (min.left != null)
+			min = min.left;
+		return balance(min.value, min.time, node.left, remove(node.rght, min.value, min.time, c));
+	}
+
+	/**
+	 * <p>Returns the root of a subtree containing the specified element and the nodes of the specified subtrees, rotating it
+	 * if the weights of the subtrees differ by more than {@code DELTA}. The subtrees have to be balanced and may differ by at
+	 * most one insertion or removal from a balanced state.</p>
+	 * @param value the element of the root
+	 * @param time the insertion time of the element
+	 * @param left the left subtree
+	 * @param rght the right subtree
+	 * @return the root of the balanced subtree
+	 */
+	private static <E> Node<E> balance(E value, long time, Node<E> left, Node<E> rght) {
+		int l = size(left), r = size(rght);
+		if (l + r <= 1)
+			return new Node<E>(value, time, left, rght);
+		if (r > DELTA * l) {
+			Node<E> y = rght;
+			//Rotate left, doubly if the inner subtree of the right child is the heavier one
+			if (size(y.left) < RATIO * size(y.rght))
+				return new Node<E>(y.value, y.time, new Node<E>(value, time, left, y.left), y.rght);
+			Node<E> z = y.left;
+			return new Node<E>(z.value, z.time, new Node<E>(value, time, left, z.left),
+					new Node<E>(y.value, y.time, z.rght, y.rght));
+		}
+		if (l > DELTA * r) {
+			Node<E> y = left;
+			//Rotate right, doubly if the inner subtree of the left child is the heavier one
+			if (size(y.rght) < RATIO * size(y.left))
+				return new Node<E>(y.value, y.time, y.left, new Node<E>(value, time, y.rght, rght));
+			Node<E> z = y.rght;
+			return new Node<E>(z.value, z.time, new Node<E>(y.value, y.time, y.left, z.left),
+					new Node<E>(value, time, z.rght, rght));
+		}
+		return new Node<E>(value, time, left, rght);
+	}
+
+	/**
+	 * <p>Returns the size of the specified subtree.</p>
+	 * @param node the root of the subtree, or {@code null}
+	 * @return the number of nodes in the subtree
+	 */
+	private static int size(Node<?> node) {
+		return node == null ? 0 : node.size;
+	}
+
+	/**
+	 * <p>Returns the node of the tree of the standard comparator representing the specified element.</p>
+	 * @param element the element to find a representing node for
+	 * @return a node representing the specified element, or {@code null} if no such node was found
+	 */
+	private Node<E> search(E element) {
+		Comparator<E> comparator = comparators[0];
+		Node<E> x = roots[0];
+		while (x != null) {
+			int comparison = comparator.compare(element, x.value);
+			if (comparison == 0)
+				break;
+			x = comparison < 0 ? x.left : x.rght;
+		}
+		return x;
+	}
+
+	/**
+	 * <p>Returns true if this set contains an element equal to the specified element regarding the standard comparator.</p>
+	 * @param element the element to find
+	 * @return true if an equivalent was found for the element
+	 * @throws ClassCastException if the type of the specified element is incompatible with this set
+	 * @throws NullPointerException if the specified element is null
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public boolean contains(Object element) {
+		if (element == null)
+			throw new NullPointerException("Only non-null elements are supported");
+		return search((E) element) != null; //Implicitly check type compatibility
+	}
+
+	/**
+	 * <p>Returns the element at the specified position of the order defined by the {@code c}-th comparator in logarithmic
+	 * time.</p>
+	 * @param c the index of the comparator to determine the order
+	 * @param k the position of the element, starting at {@code 0}
+	 * @return the {@code k}-th element according to the {@code c}-th comparator
+	 * @throws IllegalArgumentException if {@code c<0} or {@code c>=dimensions()}
+	 * @throws IndexOutOfBoundsException if {@code k<0} or {@code k>=size()}
+	 * @see MultiPrioritySet#select(int, int)
+	 */
+	public E select(int c, int k) {
+		if (c < 0)
+			throw new IllegalArgumentException("The index c must not be negative");
+		if (c >= dimensions())
+			throw new IllegalArgumentException("The index c must not exceed dimensions() - 1");
+		if (k < 0 || k >= size())
+			throw new IndexOutOfBoundsException("The position " + k + " is not within a set of size " + size());
+		Node<E> x = roots[c];
+		while (k != size(x.left)) {
+			if (k < size(x.left))
+				x = x.left;
+			else {
+				k -= size(x.left) + 1;
+				x = x.rght;
+			}
+		}
+		return x.value;
+	}
+
+	@Override
+	public int size() {
+		return size(roots[0]);
+	}
+
+	/**
+	 * <p>Returns the number of total orders applied to this set.</p>
+	 * @return the number of total orders applied to this set
+	 */
+	public int dimensions() {
+		return comparators.length;
+	}
+
+	/**
+	 * <p>Returns the {@code c}-th comparator for this set.</p>
+	 * @param c the index of the comparator to be returned
+	 * @return the {@code c}-th comparator for this set
+	 * @throws IllegalArgumentException if {@code c<0} or {@code c>=dimensions()}
+	 */
+	public Comparator<E> comparator(int c) {
+		if (c < 0)
+			throw new IllegalArgumentException("The index c must not be negative");
+		if (c >= dimensions())
+			throw new IllegalArgumentException("The index c must not exceed dimensions() - 1");
+		return comparators[c];
+	}
+
+	/**
+	 * <p>Returns an iterator based on the standard comparator. The iterator does not support removal.</p>
+	 * @return the standard iterator for this set
+	 * @see #iterator(int)
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return iterator(0);
+	}
+
+	/**
+	 * <p>Returns an iterator based on the {@code c}-th comparator. The iterator does not support removal.</p>
+	 * @param c the index of the comparator to determine the iteration order
+	 * @return the {@code c}-th iterator for this set
+	 * @throws IllegalArgumentException if {@code c<0} or {@code c>=dimensions()}
+	 * @see #iterator()
+	 */
+	public Iterator<E> iterator(int c) {
+		if (c < 0)
+			throw new IllegalArgumentException("The index c must not be negative");
+		if (c >= dimensions())
+			throw new IllegalArgumentException("The index c must not exceed dimensions() - 1");
+		return new NodeIterator<E>(roots[c]);
+	}
+
+	/**
+	 * <p>A nested class representing an in-order iterator on a tree of a {@link PersistentMultiPrioritySet
+	 * PersistentMultiPrioritySet}. As the nodes do not link to their parents, the iterator keeps the path to the next node on a
+	 * stack.</p>
+	 * @author Julian Betz
+	 * @version 1.00
+	 */
+	private static final class NodeIterator<E> implements Iterator<E> {
+		/**
+		 * <p>The nodes whose elements and right subtrees remain to be iterated, the next one on top.</p>
+		 */
+		private final ArrayDeque<Node<E>> path;
+
+		/**
+		 * <p>Constructs an iterator able to iterate the tree rooted at the specified node.</p>
+		 * @param root the root of the tree
+		 */
+		private NodeIterator(Node<E> root) {
+			path = new ArrayDeque<Node<E>>();
+			descend(root);
+		}
+
+		/**
+		 * <p>Pushes the specified node and its leftmost descendants onto the path.</p>
+		 * @param node the node to start at
+		 */
+		private void descend(Node<E> node) {
+			for (; node != null; node = node.left)
+				path.push(node);
+		}
+
+		@Override
+		public boolean hasNext() {
+			return !path.isEmpty();
+		}
+
+		@Override
+		public E next() {
+			if (path.isEmpty())
+				throw new NoSuchElementException("The iteration does not contain any further elements");
+			Node<E> node = path.pop();
+			descend(node.rght);
+			return node.value;
+		}
+	}
+}
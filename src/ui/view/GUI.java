@@ -114,7 +114,6 @@ public class GUI extends JFrame
 			case -1: gui_handler.terminate();
 				break;
 		}
-		gui_handler.createAIPerformance();
 		pane = getContentPane();
 		pane.setBackground(Color.WHITE);
 		pane.setLayout(new BorderLayout(2,2));
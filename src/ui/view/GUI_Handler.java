@@ -122,15 +122,6 @@ public class GUI_Handler
 		this.controller.stopMove();
 	}
 	
-	/**
-	 * Creates the AIPerformance object.
-	 * @see Controller#createAIPerformance()
-	 */
-	void createAIPerformance()
-	{
-		controller.createAIPerformance();
-	}
-	
 	/**
 	 * Starts the performance monitoring thread
 	 * @see Controller#startPerformanceMonitorThread()
@@ -1,10 +1,14 @@
 package application.ai;
 
+import static org.junit.Assert.*;
+
+import java.time.Duration;
 import java.util.ArrayList;
 import org.junit.Test;
 
+import domain.represent.Bitboard;
 import domain.represent.Playboard;
-import domain.represent.PlayboardFake;
+import domain.represent.PlayboardDemo;
 import foundation.data.Move;
 import foundation.exception.*;
 
@@ -15,14 +19,161 @@ import foundation.exception.*;
  */
 public class ComputationalUnitTest {
 	@Test
-	public void testNextMoveFake() {
+	public void testNextMoveLegal() {
+		ComputationalUnit ai = new ComputationalUnit();
+		Playboard board = new Playboard();
+		board.testSetter("empty");
+		ArrayList<Move> moves = new PlayboardDemo().createMoves();
+		for (int i = 0; i < 6; i++)
+			board.updateByAI(moves.get(i), false);
+		String before = board.toString();
+		try {
+			Move move = ai.nextMove(board, true);
+			assertTrue("The move computed is not a possible move", board.possibleMoves(true).contains(move));
+		}
+		catch (Exception exc) {
+			throw new AssertionError(exc.getMessage());
+		}
+		assertEquals("The playboard was modified by the search", before, board.toString());
+	}
+	
+	@Test
+	public void testNextMoveBudget() {
 		ComputationalUnit ai = new ComputationalUnit();
+		Playboard board = new Playboard();
+		board.testSetter("empty");
+		ArrayList<Move> moves = new PlayboardDemo().createMoves();
+		for (int i = 0; i < 4; i++)
+			board.updateByAI(moves.get(i), false);
+		long start = System.nanoTime();
 		try {
-			ai.nextMove(new PlayboardFake(), true);
+			Move move = ai.nextMove(board, true, Duration.ofMillis(500));
+			assertTrue("The move computed is not a possible move", board.possibleMoves(true).contains(move));
 		}
 		catch (Exception exc) {
 			throw new AssertionError(exc.getMessage());
 		}
+		assertTrue("The time budget was exceeded", System.nanoTime() - start < Duration.ofMillis(1500).toNanos());
+		assertEquals("The depth was changed by the search", 4, ai.getMaxDepth());
+	}
+	
+	@Test
+	public void testNextMoveThreads() {
+		ComputationalUnit parallel = new ComputationalUnit();
+		parallel.setThreads(4);
+		Playboard board = new Playboard();
+		board.testSetter("empty");
+		ArrayList<Move> moves = new PlayboardDemo().createMoves();
+		for (int i = 0; i < 6; i++)
+			board.updateByAI(moves.get(i), false);
+		String before = board.toString();
+		try {
+			Move move = parallel.nextMove(board, true);
+			assertTrue("The move computed is not a possible move", board.possibleMoves(true).contains(move));
+			move = parallel.nextMove(board, true, Duration.ofMillis(300));
+			assertEquals("The number of threads was changed by the search", 4, parallel.getThreads());
+			assertTrue("The move computed is not a possible move", board.possibleMoves(true).contains(move));
+		}
+		catch (Exception exc) {
+			throw new AssertionError(exc.getMessage());
+		}
+		assertEquals("The playboard was modified by the search", before, board.toString());
+	}
+	
+	@Test
+	public void testPonder() throws InterruptedException {
+		ComputationalUnit ai = new ComputationalUnit();
+		Playboard board = new Playboard();
+		board.testSetter("empty");
+		ArrayList<Move> moves = new PlayboardDemo().createMoves();
+		for (int i = 0; i < 4; i++)
+			board.updateByAI(moves.get(i), false);
+		try {
+			board.updateByAI(ai.nextMove(board, true, Duration.ofMillis(200)), false);
+			String before = board.toString();
+			ai.ponder(board, true);
+			Thread.sleep(300);
+			assertEquals("The playboard was modified by pondering", before, board.toString());
+			Bitboard position = new Bitboard(board);
+			int[] replies = new int[Bitboard.MAX_MOVES];
+			assertTrue("No reply was predicted", ai.predict(position, true, replies) > 0);
+			board.updateByAI(position.toMove(replies[0]), false);
+			Move move = ai.nextMove(board, true, Duration.ofMillis(1));
+			assertTrue("The move computed is not a possible move", board.possibleMoves(true).contains(move));
+			ai.stopPondering();
+		}
+		catch (GameWonException | GameDrawException | GameLostException exc) {
+			throw new AssertionError(exc.getMessage());
+		}
+	}
+	
+	@Test
+	public void testNextMoveOnPrincipalVariation() {
+		ComputationalUnit ai = new ComputationalUnit();
+		ai.setMaxDepth(6);
+		Playboard board = new Playboard();
+		board.testSetter("empty");
+		ArrayList<Move> moves = new PlayboardDemo().createMoves();
+		for (int i = 0; i < 6; i++)
+			board.updateByAI(moves.get(i), false);
+		try {
+			board.updateByAI(ai.nextMove(board, true), false);
+			//The reply expected by the search comes first
+			Bitboard position = new Bitboard(board);
+			int[] replies = new int[Bitboard.MAX_MOVES];
+			ai.predict(position, true, replies);
+			board.updateByAI(position.toMove(replies[0]), false);
+			String before = board.toString();
+			Move move = ai.nextMove(board, true);
+			assertTrue("The move computed is not a possible move", board.possibleMoves(true).contains(move));
+			assertEquals("The playboard was modified by the search", before, board.toString());
+		}
+		catch (GameWonException | GameDrawException | GameLostException exc) {
+			throw new AssertionError(exc.getMessage());
+		}
+	}
+	
+	@Test
+	public void testStatistics() throws GameWonException, GameDrawException, GameLostException {
+		ComputationalUnit ai = new ComputationalUnit();
+		Playboard board = new Playboard();
+		board.testSetter("empty");
+		ArrayList<Move> moves = new PlayboardDemo().createMoves();
+		for (int i = 0; i < 6; i++)
+			board.updateByAI(moves.get(i), false);
+		ArrayList<SearchStats> iterations = new ArrayList<SearchStats>();
+		SearchStats[] completed = new SearchStats[1];
+		ai.addSearchListener(new SearchListener() {
+			@Override
+			public void iterationCompleted(SearchStats stats) {
+				iterations.add(stats);
+			}
+			
+			@Override
+			public void searchCompleted(SearchStats stats) {
+				completed[0] = stats;
+			}
+		});
+		Move move = ai.nextMove(board, true, Duration.ofMillis(300));
+		SearchStats stats = ai.getStatistics();
+		assertSame("The listener was not notified of the completed search", stats, completed[0]);
+		assertTrue("Less than two iterations were completed", iterations.size() >= 2);
+		for (int i = 0; i < iterations.size(); i++)
+			assertEquals("The iterations were not reported in order", i + 2, iterations.get(i).getDepth());
+		assertEquals(iterations.size() + 1, stats.getDepth());
+		long sum = 0;
+		for (int depth = 2; depth <= stats.getDepth(); depth++)
+			sum += stats.getNodes(depth);
+		assertTrue("The nodes of the iterations exceed the nodes of the search", sum <= stats.getNodes());
+		assertTrue(stats.getLeaves() > 0 && stats.getCutoffs() > 0);
+		assertTrue(stats.getBranchingFactor() > 0);
+		assertEquals(1, stats.getThreads());
+		assertEquals("The principal variation does not start with the move chosen", move, stats.getPrincipalVariation().get(0));
+		//A search of fixed depth consists of a single iteration
+		board.testSetter("empty");
+		ai.setMaxDepth(2);
+		ai.nextMove(board, true);
+		assertEquals(2, ai.getStatistics().getDepth());
 	}
 	
 	@Test
@@ -0,0 +1,74 @@
+package application.ai;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import domain.represent.Bitboard;
+
+/**
+ * <p>Tests the {@link MoveOrdering MoveOrdering}.</p>
+ * @author Julian Betz
+ * @version 1.00
+ */
+public class MoveOrderingTest {
+	/**
+	 * <p>Moves of white from one field to another, the last one closing a mill and taking away the man on field 5.</p>
+	 */
+	private static final int A = code(0, 1, Bitboard.NO_CAPTURE), B = code(2, 14, Bitboard.NO_CAPTURE),
+			C = code(3, 4, Bitboard.NO_CAPTURE), D = code(6, 7, Bitboard.NO_CAPTURE), E = code(9, 21, 5);
+	private MoveOrdering ordering;
+
+	@Before
+	public void setUp() {
+		ordering = new MoveOrdering(4);
+	}
+
+	@Test
+	public void testPreferredAndCaptures() {
+		int[] moves = {A, B, C, D, E};
+		ordering.order(moves, moves.length, 0, C, -1);
+		assertEquals("The preferred move is not searched first", C, moves[0]);
+		assertEquals("The move closing a mill is not searched second", E, moves[1]);
+	}
+
+	@Test
+	public void testKillersAndCountermove() {
+		int previous = code(10, 11, Bitboard.NO_CAPTURE) & ~(1 << 15);
+		ordering.cutoff(A, 2, 1, -1);
+		ordering.cutoff(B, 2, 1, -1);
+		ordering.cutoff(D, 3, 1, previous);
+		int[] moves = {A, B, C, D};
+		ordering.order(moves, moves.length, 2, -1, previous);
+		assertArrayEquals("Killers and countermove are not ordered correctly", new int[] {B, A, D, C}, moves);
+		ordering.newSearch();
+		moves = new int[] {C, A, B, D};
+		ordering.order(moves, moves.length, 2, -1, -1);
+		assertEquals("The killers were not forgotten", C, moves[0]);
+	}
+
+	@Test
+	public void testHistory() {
+		ordering.cutoff(C, 0, 3, -1);
+		ordering.cutoff(D, 1, 1, -1);
+		int[] moves = {A, B, D, C};
+		ordering.order(moves, moves.length, 2, -1, -1);
+		assertArrayEquals("The history is not respected", new int[] {C, D, A, B}, moves);
+		//A capture is not recorded
+		ordering.cutoff(E, 2, 4, -1);
+		moves = new int[] {A, B};
+		ordering.order(moves, moves.length, 2, -1, -1);
+		assertArrayEquals(new int[] {A, B}, moves);
+	}
+
+	/**
+	 * @param from the field the man is picked up from
+	 * @param to the field the man is set to
+	 * @param capture the field of the man taken away
+	 * @return the code of the move of white
+	 */
+	private static int code(int from, int to, int capture) {
+		return 1 << 15 | from | to << 5 | capture << 10;
+	}
+}
@@ -0,0 +1,94 @@
+package application.ai;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import domain.represent.Bitboard;
+import domain.represent.Playboard;
+import foundation.exception.GameDrawException;
+import foundation.exception.GameLostException;
+import foundation.exception.GameWonException;
+
+/**
+ * <p>Tests the {@link OpeningBook OpeningBook} on a small book covering two plies.</p>
+ * @author Julian Betz
+ * @version 1.00
+ */
+public class OpeningBookTest {
+	private static Path file;
+	private static OpeningBook book;
+	private Playboard board;
+
+	@BeforeClass
+	public static void setUpClass() throws IOException {
+		file = Files.createTempFile("openings", ".nmm");
+		OpeningBook.build(file, 2, 2);
+		book = OpeningBook.open(file);
+	}
+
+	@AfterClass
+	public static void tearDownClass() throws IOException {
+		book = null;
+		Files.deleteIfExists(file);
+	}
+
+	@Before
+	public void setUp() {
+		board = new Playboard();
+		board.testSetter("empty");
+	}
+
+	@Test
+	public void testProbe() {
+		//The first move of either colour and the reply of either colour to every first move
+		assertEquals(2 + 2 * 24, book.size());
+		Bitboard position = new Bitboard(board);
+		for (boolean colour : new boolean[] {true, false}) {
+			int move = book.probe(position, colour);
+			assertNotEquals("The first move is not contained", OpeningBook.NO_MOVE, move);
+			assertEquals(colour, Bitboard.colour(move));
+			position.make(move);
+			int[] replies = new int[Bitboard.MAX_MOVES];
+			int count = position.generateMoves(!colour, replies, 0);
+			for (int i = 0; i < count; i++) {
+				position.make(replies[i]);
+				assertEquals("A game situation after two plies is contained", OpeningBook.NO_MOVE, book.probe(position, colour));
+				position.unmake(replies[i]);
+			}
+			assertNotEquals("A reply is not contained", OpeningBook.NO_MOVE, book.probe(position, !colour));
+			position.unmake(move);
+		}
+	}
+
+	@Test
+	public void testNextMove() throws GameWonException, GameDrawException, GameLostException {
+		ComputationalUnit ai = new ComputationalUnit();
+		ai.setOpeningBook(book);
+		assertSame(book, ai.getOpeningBook());
+		int expected = book.probe(new Bitboard(board), true);
+		assertEquals("The move of the book is not chosen", expected, Bitboard.encode(ai.nextMove(board, true)));
+		assertEquals("The move of the book is not chosen", expected, Bitboard.encode(ai.nextMove(board, true,
+				Duration.ofMillis(1))));
+	}
+
+	@Test(expected = IOException.class)
+	public void testOpenInvalid() throws IOException {
+		Path invalid = Files.createTempFile("openings", ".nmm");
+		try {
+			Files.write(invalid, new byte[20]);
+			OpeningBook.open(invalid);
+		}
+		finally {
+			Files.delete(invalid);
+		}
+	}
+}
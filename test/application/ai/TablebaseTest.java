@@ -0,0 +1,173 @@
+package application.ai;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import domain.represent.Bitboard;
+
+/**
+ * <p>Tests the {@link Tablebase Tablebase} on the smallest database (three men per player), which can be generated quickly, and
+ * on the tables of four against three men, in which games are actually won and lost.</p>
+ * @author Julian Betz
+ * @version 1.00
+ */
+public class TablebaseTest {
+	private static Path file;
+	private static Tablebase tablebase, solved;
+
+	@BeforeClass
+	public static void setUpClass() throws IOException {
+		file = Files.createTempFile("tablebase", ".nmm");
+		Tablebase.generate(file, Tablebase.MIN_MEN);
+		tablebase = Tablebase.open(file);
+		solved = Tablebase.generate(4, 7);
+	}
+
+	@AfterClass
+	public static void tearDownClass() throws IOException {
+		tablebase = null;
+		solved = null;
+		Files.deleteIfExists(file);
+	}
+
+	@Test
+	public void testIndex() {
+		long size = Tablebase.size(3, 3);
+		boolean[] used = new boolean[(int) size];
+		for (int own = 7; own < 1 << 24; own = next(own))
+			for (int opponent = 7; opponent < 1 << 24; opponent = next(opponent)) {
+				if ((own & opponent) != 0)
+					continue;
+				long index = Tablebase.index(own, opponent, 3, 3);
+				assertTrue("The index is out of range", index >= 0 && index < size);
+				assertFalse("The index is not unique", used[(int) index]);
+				used[(int) index] = true;
+			}
+		for (boolean u : used)
+			assertTrue("Not every index is used", u);
+	}
+
+	@Test
+	public void testProbe() {
+		assertEquals(3, tablebase.getMaxMen());
+		//Both players have three men left, so the game ends in a draw
+		assertEquals(0, tablebase.probe(0x7, 0x38));
+		assertEquals(0, tablebase.probe(0xE00000, 0x1C0));
+		assertEquals("Four men are not covered", Tablebase.UNKNOWN, tablebase.probe(0xF, 0x70));
+		assertEquals("Two men are not covered", Tablebase.UNKNOWN, tablebase.probe(0x3, 0x70));
+	}
+
+	@Test
+	public void testWin() {
+		//Moving the man from field 14 to field 2 closes the mill of fields 0, 1 and 2 and leaves the opponent two men
+		int own = 1 << 0 | 1 << 1 | 1 << 5 | 1 << 14, opponent = 1 << 6 | 1 << 16 | 1 << 20;
+		assertEquals("The mill is not closed at once", 1, solved.probe(own, opponent));
+		assertTrue("A win is not estimated as decided", Tablebase.score(solved.probe(own, opponent)) > Integer.MAX_VALUE - 128);
+		assertEquals("Five men are not covered", Tablebase.UNKNOWN, solved.probe(0x1F, 0xE0));
+		assertEquals("Four men per player are not covered", Tablebase.UNKNOWN, solved.probe(0xF, 0xF0));
+	}
+
+	@Test
+	public void testSolved() {
+		Random random = new Random(3);
+		int[] moves = new int[Bitboard.MAX_MOVES];
+		int wins = 0, losses = 0;
+		for (int i = 0; i < 200000; i++) {
+			int m = random.nextBoolean() ? 4 : 3;
+			int own = fields(random, m, 0), opponent = fields(random, 7 - m, own);
+			int value = solved.probe(own, opponent);
+			assertEquals("The game situation " + own + "/" + opponent + " is not consistent with its successors",
+					expected(own, opponent, moves), value);
+			if (value > 0)
+				wins++;
+			else if (value < 0)
+				losses++;
+		}
+		assertTrue("No game situation is won", wins > 0);
+		assertTrue("No game situation is lost", losses > 0);
+	}
+
+	@Test
+	public void testScore() {
+		assertEquals(0, Tablebase.score(0));
+		assertTrue("A faster win is not preferred", Tablebase.score(1) > Tablebase.score(3));
+		assertTrue("A slower loss is not preferred", Tablebase.score(-4) > Tablebase.score(-2));
+		assertTrue(Tablebase.score(-2) > -Integer.MAX_VALUE);
+		assertTrue(Tablebase.score(1) < Integer.MAX_VALUE);
+	}
+
+	@Test(expected = IOException.class)
+	public void testOpenInvalid() throws IOException {
+		Path invalid = Files.createTempFile("tablebase", ".nmm");
+		try {
+			Files.write(invalid, new byte[64]);
+			Tablebase.open(invalid);
+		}
+		finally {
+			Files.delete(invalid);
+		}
+	}
+
+	/**
+	 * <p>Computes the value of a game situation from the values of its successors in the solved database.</p>
+	 * @param own the men of the player to move
+	 * @param opponent the men of the opponent
+	 * @param moves a buffer for the moves
+	 * @return the value expected to be found in the database
+	 */
+	private static int expected(int own, int opponent, int[] moves) {
+		if (Integer.bitCount(own) == 3 && Integer.bitCount(opponent) == 3)
+			return 0;
+		int count = Bitboard.generateMovingMoves(own, opponent, moves, 0);
+		int win = Integer.MAX_VALUE, loss = 0;
+		boolean lost = count > 0;
+		for (int i = 0; i < count; i++) {
+			int move = moves[i];
+			int moved = own & ~(1 << Bitboard.from(move)) | 1 << Bitboard.to(move);
+			int rest = Bitboard.capture(move) == Bitboard.NO_CAPTURE ? opponent : opponent & ~(1 << Bitboard.capture(move));
+			//The opponent has lost at once if left with two men
+			int value = Integer.bitCount(rest) < 3 ? 0 : solved.probe(rest, moved);
+			if (value > 0)
+				loss = Math.max(loss, value + 1);
+			else {
+				lost = false;
+				if (value < 0 || Integer.bitCount(rest) < 3)
+					win = Math.min(win, 1 - value);
+			}
+		}
+		return win != Integer.MAX_VALUE ? win : lost ? -loss : 0;
+	}
+
+	/**
+	 * @param random the source of randomness
+	 * @param count the number of fields to choose
+	 * @param occupied the fields not to choose
+	 * @return a random combination of the specified number of free fields
+	 */
+	private static int fields(Random random, int count, int occupied) {
+		int mask = 0;
+		while (Integer.bitCount(mask) < count) {
+			int field = 1 << random.nextInt(24);
+			if ((field & occupied) == 0)
+				mask |= field;
+		}
+		return mask;
+	}
+
+	/**
+	 * @param mask a combination of fields
+	 * @return the next larger combination of the same number of fields
+	 */
+	private static int next(int mask) {
+		int lowest = mask & -mask, ripple = mask + lowest;
+		return ((ripple ^ mask) >>> 2) / lowest | ripple;
+	}
+}
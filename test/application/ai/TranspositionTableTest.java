@@ -0,0 +1,46 @@
+package application.ai;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * <p>Tests the {@link TranspositionTable TranspositionTable}.</p>
+ * @author Julian Betz
+ * @version 1.00
+ */
+public class TranspositionTableTest {
+	@Test
+	public void testStoreAndProbe() {
+		TranspositionTable table = new TranspositionTable(1);
+		assertEquals("An empty table returned an entry", 0, table.probe(42));
+		table.store(42, 5, TranspositionTable.LOWER, -17, 1234);
+		long entry = table.probe(42);
+		assertEquals(5, TranspositionTable.depth(entry));
+		assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(entry));
+		assertEquals(-17, TranspositionTable.score(entry));
+		assertEquals(1234, TranspositionTable.move(entry));
+		table.store(42, 6, TranspositionTable.EXACT, Integer.MAX_VALUE, -1);
+		entry = table.probe(42);
+		assertEquals(Integer.MAX_VALUE, TranspositionTable.score(entry));
+		assertEquals("The best move known was lost", 1234, TranspositionTable.move(entry));
+		table.clear();
+		assertEquals("The table was not cleared", 0, table.probe(42));
+	}
+
+	@Test
+	public void testReplacement() {
+		TranspositionTable table = new TranspositionTable(0);
+		table.store(0, 10, TranspositionTable.EXACT, 1, -1);
+		table.store(2, 1, TranspositionTable.EXACT, 2, -1);
+		table.store(4, 1, TranspositionTable.EXACT, 3, -1);
+		assertNotEquals("A deep entry was replaced by a shallow one", 0, table.probe(0));
+		assertEquals("The second entry was not replaced", 0, table.probe(2));
+		assertNotEquals(0, table.probe(4));
+		table.newSearch();
+		table.store(6, 1, TranspositionTable.EXACT, 4, -1);
+		assertNotEquals("An entry of a former search was not replaced", 0, table.probe(6));
+		assertNotEquals("The deep entry was not kept as the second entry", 0, table.probe(0));
+		assertEquals(0, table.probe(4));
+	}
+}
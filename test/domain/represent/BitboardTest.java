@@ -0,0 +1,118 @@
+package domain.represent;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import foundation.data.Move;
+import foundation.data.MultiPrioritySet;
+import foundation.exception.GameLostException;
+
+/**
+ * <p>Tests the {@link Bitboard Bitboard} against the {@link Playboard Playboard} it is created from.</p>
+ * @author Julian Betz
+ * @version 1.00
+ */
+public class BitboardTest {
+	private Playboard board;
+	private Bitboard bitboard;
+
+	@Before
+	public void setUp() {
+		board = new Playboard();
+		board.testSetter("empty");
+		bitboard = new Bitboard(board);
+	}
+
+	@Test
+	public void testConversion() {
+		ArrayList<Move> moves = new PlayboardDemo().createMoves();
+		for (Move move : moves) {
+			board.updateByAI(move, false);
+			bitboard.updateByAI(move, false);
+			assertEquals("The conversion does not equal the updated bitboard", new Bitboard(board).toString(), bitboard.toString());
+			assertEquals("The conversion back does not equal the bitboard", new Bitboard(bitboard.toPlayboard()).toString(), bitboard.toString());
+			assertEquals("The hash was not updated correctly", new Bitboard(board).getHash(true), bitboard.getHash(true));
+		}
+		assertEquals(board.numberOfMills(true), bitboard.numberOfMills(true));
+		assertEquals(board.numberOfMills(false), bitboard.numberOfMills(false));
+	}
+
+	@Test
+	public void testPossibleMoves() {
+		Random random = new Random(42);
+		for (int game = 0; game < 20; game++) {
+			setUp();
+			boolean colour = true;
+			for (int ply = 0; ply < 100; ply++) {
+				MultiPrioritySet<Move> expected = new MultiPrioritySet<Move>();
+				MultiPrioritySet<Move> actual;
+				try {
+					actual = bitboard.possibleMoves(new MultiPrioritySet<Move>(), new MultiPrioritySet<Move>(), colour);
+				}
+				catch (GameLostException exc) {
+					actual = null;
+				}
+				try {
+					expected.addAll(board.possibleMoves(colour));
+				}
+				catch (GameLostException exc) {
+					if (actual != null)
+						assertTrue("The bitboard found moves although the game is lost", actual.isEmpty());
+					break;
+				}
+				assertNotNull("The bitboard did not detect the game to be lost", actual);
+				assertEquals("The number of moves differs in ply " + ply, expected.size(), actual.size());
+				assertTrue("The moves differ in ply " + ply, expected.containsAll(actual));
+				if (actual.isEmpty())
+					break;
+				Move move = actual.toArray(new Move[actual.size()])[random.nextInt(actual.size())];
+				String before = bitboard.toString();
+				long hash = bitboard.getHash(colour);
+				bitboard.updateByAI(move, false);
+				assertNotEquals("The hash was not updated", hash, bitboard.getHash(colour));
+				bitboard.updateByAI(move, true);
+				assertEquals("Reversing a move did not restore the bitboard", before, bitboard.toString());
+				assertEquals("Reversing a move did not restore the hash", hash, bitboard.getHash(colour));
+				board.updateByAI(move, false);
+				bitboard.updateByAI(move, false);
+				assertEquals(board.allMenOnBoard(true, true), bitboard.allMenOnBoard(true));
+				assertEquals(board.allMenOnBoard(false, true), bitboard.allMenOnBoard(false));
+				assertEquals(board.numberOfMills(true), bitboard.numberOfMills(true));
+				assertEquals(board.numberOfMills(false), bitboard.numberOfMills(false));
+				colour = !colour;
+			}
+		}
+	}
+
+	@Test
+	public void testMakeUnmake() {
+		Random random = new Random(7);
+		int[] moves = new int[Bitboard.MAX_MOVES];
+		boolean colour = true;
+		for (int ply = 0; ply < 100 && !bitboard.isLost(colour); ply++) {
+			int count = bitboard.generateMoves(colour, moves, 0);
+			if (count == 0)
+				break;
+			for (int i = 0; i < count; i++) {
+				assertEquals("The move was not encoded consistently", moves[i], Bitboard.encode(bitboard.toMove(moves[i])));
+				String before = bitboard.toString();
+				long hash = bitboard.getHash(colour);
+				Bitboard copy = new Bitboard(bitboard);
+				copy.updateByAI(bitboard.toMove(moves[i]), false);
+				bitboard.make(moves[i]);
+				assertEquals("Making a move differs from updating by the move", copy.toString(), bitboard.toString());
+				assertEquals("Making a move differs from updating by the move", copy.getHash(colour), bitboard.getHash(colour));
+				bitboard.unmake(moves[i]);
+				assertEquals("Unmaking a move did not restore the bitboard", before, bitboard.toString());
+				assertEquals("Unmaking a move did not restore the hash", hash, bitboard.getHash(colour));
+			}
+			bitboard.make(moves[random.nextInt(count)]);
+			colour = !colour;
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package domain.represent;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * @author Julian Betz
+ *
+ */
+public class PerftTest {
+
+	@Test
+	public void testEmptyBoard(){
+		Playboard board = new Playboard();
+		board.testSetter("empty");
+		//no mill can be closed before the fifth move
+		long[] expected = {1, 24, 552, 12144, 255024};
+		for (int depth=0; depth<expected.length; depth++){
+			assertEquals("wrong count at depth "+depth, expected[depth], Perft.perft(board, true, depth));
+		}
+		assertEquals("the board was changed", 24, Perft.perft(board, true, 1));
+	}
+
+	@Test
+	public void testScenarios(){
+		String[] scenarios = {"1","2","3","4","5","6"};
+		long[] expected = {114480, 2380, 4480, 0, 0, 484};
+		for (int i=0; i<scenarios.length; i++){
+			Playboard board = new Playboard();
+			board.testSetter(scenarios[i]);
+			assertEquals("scenario "+scenarios[i], expected[i], Perft.perft(board, true, 4));
+			assertEquals("scenario "+scenarios[i]+" in parallel", expected[i], Perft.parallelPerft(board, true, 4));
+			assertEquals("scenario "+scenarios[i]+" on the bitboard", expected[i], Perft.perft(new Bitboard(board), true, 4));
+		}
+	}
+
+	@Test
+	public void testRandomBoards(){
+		Random random = new Random(3);
+		for (int i=0; i<10; i++){
+			int moves = random.nextInt(40);
+			Playboard board = Perft.randomBoard(random, moves);
+			if (board==null)
+				continue;
+			boolean colour = moves%2==0;
+			assertEquals("the generators differ after "+moves+" moves", Perft.perft(board, colour, 3),
+					Perft.perft(new Bitboard(board), colour, 3));
+		}
+	}
+}
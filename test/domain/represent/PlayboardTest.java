@@ -80,6 +80,59 @@ ArrayList<Move> moves;
 		}
 		
 	}
+	@Test
+	public void testMakeUnmake(){
+		board.testSetter("empty");
+		Playboard updated = new Playboard();
+		updated.testSetter("empty");
+		ArrayList<String> states = new ArrayList<String>();
+		for (int i=0;i<moves.size();i++){
+			states.add(state(board));
+			board.make(moves.get(i));
+			updated.updateByAI(moves.get(i), false);
+			assertEquals("make differs from updateByAI", state(updated), state(board));
+		}
+		for (int i=moves.size()-1;i>=0;i--){
+			board.unmake();
+			assertEquals("unmake did not restore the board", states.get(i), state(board));
+		}
+		try{
+			board.unmake();
+			fail("there was no move to take back");
+		}
+		catch(IllegalStateException e){
+			//expected
+		}
+	}
+	
+	@Test
+	public void testSnapshotRestore(){
+		board.testSetter("empty");
+		for (int i=0;i<moves.size();i++){
+			board.updateByAI(moves.get(i), false);
+		}
+		String before = state(board);
+		Playboard.State snapshot = board.snapshot();
+		assertEquals("the copy differs from the board", before, state(board.deepCopy()));
+		Playboard other = new Playboard();
+		other.restore(snapshot);
+		assertEquals("the restored board differs from the board", before, state(other));
+		other.make(moves.get(0));
+		other.unmake();
+		board.updateByAI(moves.get(moves.size()-1), true);
+		board.restore(snapshot);
+		assertEquals("restoring did not undo the change", before, state(board));
+	}
+	
+	/**
+	 * @param board the board to describe
+	 * @return the men, the tracking arrays and the gamestate of the board
+	 */
+	private String state(Playboard board){
+		return board.toString()+java.util.Arrays.toString(board.updateGUI())+board.allMenOnBoard(true, false)
+				+board.allMenOnBoard(false, false)+board.allMenSet(true)+board.allMenSet(false);
+	}
+	
 	@Test	
 	public void testUpdateGUI(){
 		board.testSetter("empty");
@@ -0,0 +1,195 @@
+package foundation.data;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>Tests the {@link ConcurrentMultiPrioritySet ConcurrentMultiPrioritySet} sequentially against a reference set and
+ * concurrently for the consistency of its orders.</p>
+ * @author Julian Betz
+ * @version 1.00
+ */
+public class ConcurrentMultiPrioritySetTest {
+	private static final int RANGE = 200, OPERATIONS = 20000, THREADS = 4;
+	private ArrayList<Comparator<Integer>> comparators;
+	private ConcurrentMultiPrioritySet<Integer> cmps;
+
+	@Before
+	public void setUp() throws Exception {
+		comparators = new ArrayList<Comparator<Integer>>(3);
+		comparators.add((Integer a, Integer b) -> a.compareTo(b));
+		comparators.add((Integer a, Integer b) -> Integer.compare(a % 7, b % 7));
+		comparators.add((Integer a, Integer b) -> b.compareTo(a));
+		cmps = new ConcurrentMultiPrioritySet<Integer>(comparators);
+	}
+
+	@Test
+	public void testOperations() {
+		TreeSet<Integer> set = new TreeSet<Integer>();
+		Random random = new Random(5);
+		for (int i = 0; i < OPERATIONS; i++) {
+			Integer element = random.nextInt(RANGE);
+			switch (random.nextInt(4)) {
+			case 0:
+				assertEquals("Operation " + i + " (add " + element + ") was not evaluated as expected", set.add(element),
+						cmps.add(element));
+				break;
+			case 1:
+				set.add(element);
+				assertEquals("Operation " + i + " (integrate " + element + ") returned a wrong element", element,
+						cmps.integrate(element));
+				break;
+			default:
+				assertEquals("Operation " + i + " (remove " + element + ") was not evaluated as expected", set.remove(element),
+						cmps.remove(element));
+			}
+			assertEquals("The size of the set has a wrong value after operation " + i, set.size(), cmps.size());
+			if (i % 97 == 0)
+				checkElements(set);
+		}
+		cmps.clear();
+		assertTrue("The set is not empty after clearing it", cmps.isEmpty());
+		assertFalse("The set still iterates elements after clearing it", cmps.iterator(1).hasNext());
+	}
+
+	@Test
+	public void testTies() {
+		//Elements considered equal by a comparator are iterated in the order of their insertion
+		int[] input = {14, 0, 7, 21};
+		for (int element : input)
+			cmps.add(element);
+		Iterator<Integer> it = cmps.iterator(1);
+		for (int element : input)
+			assertEquals("Equal elements are not iterated in the order of their insertion", element, it.next().intValue());
+		assertFalse("The expected size of the set is less than its actual size", it.hasNext());
+	}
+
+	@Test
+	public void testConcurrentModification() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		ArrayList<Future<?>> futures = new ArrayList<Future<?>>(THREADS);
+		for (int t = 0; t < THREADS; t++) {
+			Random random = new Random(t);
+			futures.add(executor.submit(() -> {
+				for (int i = 0; i < OPERATIONS; i++) {
+					Integer element = random.nextInt(RANGE);
+					switch (random.nextInt(4)) {
+					case 0: cmps.add(element); break;
+					case 1: assertEquals("A wrong element was integrated", element, cmps.integrate(element)); break;
+					case 2: cmps.remove(element); break;
+					default:
+						//Iterate concurrently, which must neither fail nor return elements out of order
+						Integer last = null;
+						for (Iterator<Integer> it = cmps.iterator(2); it.hasNext();) {
+							Integer next = it.next();
+							assertTrue("The iteration is not ordered", last == null || last > next);
+							last = next;
+						}
+					}
+				}
+				return null;
+			}));
+		}
+		for (Future<?> future : futures)
+			future.get();
+		executor.shutdown();
+		//Every order has to contain exactly the elements of the standard order
+		TreeSet<Integer> set = new TreeSet<Integer>();
+		for (Integer element : cmps)
+			set.add(element);
+		assertEquals("The size of the set has a wrong value", set.size(), cmps.size());
+		checkElements(set);
+	}
+
+	@Test
+	public void testConcurrentUpdateAndRemove() throws Exception {
+		//Every key is used once: an update re-keys an item to a fresh key, so that a key leaves the set exactly once
+		final int initial = 32;
+		AtomicInteger keys = new AtomicInteger(initial);
+		ArrayList<Comparator<Item>> orders = new ArrayList<Comparator<Item>>(2);
+		orders.add((Item a, Item b) -> {
+			//Widen the window between looking an item up and locking it
+			Thread.yield();
+			return Integer.compare(a.key, b.key);
+		});
+		orders.add((Item a, Item b) -> Integer.compare(a.key % 3, b.key % 3));
+		ConcurrentMultiPrioritySet<Item> items = new ConcurrentMultiPrioritySet<Item>(orders);
+		for (int key = 0; key < initial; key++)
+			items.add(new Item(key));
+		Set<Integer> retired = ConcurrentHashMap.newKeySet();
+		AtomicInteger removed = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		ArrayList<Future<?>> futures = new ArrayList<Future<?>>(THREADS);
+		for (int t = 0; t < THREADS; t++) {
+			Random random = new Random(t);
+			futures.add(executor.submit(() -> {
+				for (int i = 0; i < OPERATIONS / 4; i++) {
+					int key = Math.max(0, keys.get() - 1 - random.nextInt(initial * 2));
+					if (random.nextInt(4) == 0) {
+						if (items.remove(new Item(key))) {
+							assertTrue("Key " + key + " left the set twice", retired.add(key));
+							removed.incrementAndGet();
+						}
+					}
+					else if (items.update(new Item(key), (Item item) -> {
+						assertEquals("The mutator was applied to an item of another key", key, item.key);
+						item.key = keys.getAndIncrement();
+					}))
+						assertTrue("Key " + key + " left the set twice", retired.add(key));
+				}
+				return null;
+			}));
+		}
+		for (Future<?> future : futures)
+			future.get();
+		executor.shutdown();
+		assertEquals("The size of the set has a wrong value", initial - removed.get(), items.size());
+		for (Item item : items)
+			assertFalse("The set contains an item of a key that has left it", retired.contains(item.key));
+	}
+
+	/**
+	 * <p>A mutable element identified by {@code key}.</p>
+	 */
+	private static class Item implements Comparable<Item> {
+		private volatile int key;
+
+		private Item(int key) {
+			this.key = key;
+		}
+
+		@Override
+		public int compareTo(Item item) {
+			return Integer.compare(key, item.key);
+		}
+	}
+
+	private void checkElements(TreeSet<Integer> set) {
+		for (int c = 0; c < cmps.dimensions(); c++) {
+			ArrayList<Integer> expected = new ArrayList<Integer>(set);
+			Collections.sort(expected, comparators.get(c));
+			Iterator<Integer> it = cmps.iterator(c);
+			for (int i = 0; i < expected.size(); i++) {
+				assertTrue("The expected size of the set is greater than its actual size in order " + c, it.hasNext());
+				assertTrue("The set is not ordered as expected by comparator " + c + " at index " + i,
+						comparators.get(c).compare(expected.get(i), it.next()) == 0);
+			}
+			assertFalse("The expected size of the set is less than its actual size in order " + c, it.hasNext());
+		}
+	}
+}
@@ -13,7 +13,7 @@ import foundation.data.MultiPrioritySet;
  */
 @RunWith(Suite.class)
 @SuiteClasses({ MultiPrioritySetTestEmpty.class, MultiPrioritySetTestFilled.class,
-	MultiPrioritySetTestFilledNoComparison.class })
+	MultiPrioritySetTestFilledNoComparison.class, MultiPrioritySetTestRandom.class })
 public class MultiPrioritySetTest {
 	
 }
@@ -0,0 +1,708 @@
+package foundation.data;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import foundation.data.MultiPrioritySet;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * <p>Tests the {@link MultiPrioritySet MultiPrioritySet} with long random sequences of operations, comparing the iteration
+ * in every order to stably sorted copies of a reference set in insertion order.</p>
+ * @author Julian Betz
+ * @version 1.01
+ */
+public class MultiPrioritySetTestRandom {
+	private static final int RANGE = 200, OPERATIONS = 20000;
+	private ArrayList<Comparator<Integer>> comparators;
+	private MultiPrioritySet<Integer> mps;
+	/**
+	 * <p>The reference set, which iterates its elements in the order of their insertion.</p>
+	 */
+	private LinkedHashSet<Integer> set;
+
+	@Before
+	public void setUp() throws Exception {
+		comparators = new ArrayList<Comparator<Integer>>(3);
+		comparators.add((Integer a, Integer b) -> a.compareTo(b));
+		comparators.add((Integer a, Integer b) -> Integer.compare(a % 7, b % 7));
+		comparators.add((Integer a, Integer b) -> b.compareTo(a));
+		mps = new MultiPrioritySet<Integer>(comparators);
+		set = new LinkedHashSet<Integer>();
+	}
+
+	@Test
+	public void testOperations() throws Exception {
+		Random random = new Random(5);
+		for (int i = 0; i < OPERATIONS; i++) {
+			Integer element = random.nextInt(RANGE);
+			switch (random.nextInt(10)) {
+			case 0: case 1: case 2: case 3:
+				assertEquals("Operation " + i + " (add " + element + ") was not evaluated as expected", set.add(element),
+						mps.add(element));
+				break;
+			case 4: case 5:
+				set.add(element);
+				assertEquals("Operation " + i + " (integrate " + element + ") returned a wrong element", element,
+						mps.integrate(element));
+				break;
+			case 6: case 7: case 8:
+				assertEquals("Operation " + i + " (remove " + element + ") was not evaluated as expected", set.remove(element),
+						mps.remove(element));
+				break;
+			default:
+				//Remove the first element in a random order that is congruent to the element modulo 5
+				Iterator<Integer> it = mps.iterator(random.nextInt(mps.dimensions()));
+				while (it.hasNext()) {
+					Integer next = it.next();
+					if (next % 5 == element % 5) {
+						it.remove();
+						set.remove(next);
+						break;
+					}
+				}
+			}
+			if (random.nextInt(2000) == 0) {
+				mps.clear();
+				set.clear();
+			}
+			assertEquals("The size of the set has a wrong value after operation " + i, set.size(), mps.size());
+			if (i % 97 == 0) {
+				checkElements();
+				checkStructure(mps);
+			}
+		}
+		checkElements();
+	}
+
+	@Test
+	public void testReuseAfterClear() {
+		for (int round = 0; round < 3; round++) {
+			for (int i = 0; i < RANGE; i++)
+				assertTrue("Element " + i + " was not inserted in round " + round, mps.add(i));
+			for (int i = 0; i < RANGE; i += 2)
+				assertTrue("Element " + i + " was not removed in round " + round, mps.remove(i));
+			for (int i = 0; i < RANGE; i += 2)
+				set.add(i + 1);
+			checkElements();
+			mps.clear();
+			set.clear();
+			assertTrue("The set is not empty after clearing it", mps.isEmpty());
+			assertFalse("The set still iterates elements after clearing it", mps.iterator(1).hasNext());
+		}
+	}
+
+	@Test
+	public void testUpdate() {
+		ArrayList<Comparator<Entry>> orders = new ArrayList<Comparator<Entry>>(3);
+		orders.add((Entry a, Entry b) -> Integer.compare(a.id, b.id));
+		orders.add((Entry a, Entry b) -> Integer.compare(a.key, b.key));
+		orders.add((Entry a, Entry b) -> a.key != b.key ? Integer.compare(b.key, a.key) : Integer.compare(a.id, b.id));
+		MultiPrioritySet<Entry> entries = new MultiPrioritySet<Entry>(orders);
+		ArrayList<Entry> reference = new ArrayList<Entry>();
+		Random random = new Random(7);
+		for (int i = 0; i < RANGE; i++) {
+			Entry entry = new Entry(i, random.nextInt(RANGE));
+			entries.add(entry);
+			reference.add(entry);
+		}
+		for (int i = 0; i < OPERATIONS; i++) {
+			int id = random.nextInt(2 * RANGE);
+			Entry found = null;
+			for (Entry entry : reference)
+				if (entry.id == id)
+					found = entry;
+			int key = random.nextInt(RANGE);
+			//Change the key in most cases and the identity in few, possibly making the element a duplicate
+			int newId = random.nextInt(10) == 0 ? random.nextInt(2 * RANGE) : id;
+			assertEquals("Operation " + i + " (update " + id + ") was not evaluated as expected", found != null,
+					entries.update(new Entry(id, 0), (Entry entry) -> {
+						entry.id = newId;
+						entry.key = key;
+					}));
+			if (found != null && newId != id) {
+				for (Entry entry : reference)
+					if (entry != found && entry.id == newId) {
+						reference.remove(found);
+						break;
+					}
+			}
+			assertEquals("The size of the set has a wrong value after operation " + i, reference.size(), entries.size());
+			if (i % 97 == 0) {
+				for (int c = 0; c < entries.dimensions(); c++) {
+					ArrayList<Entry> expected = new ArrayList<Entry>(reference);
+					Collections.sort(expected, orders.get(c));
+					Iterator<Entry> it = entries.iterator(c);
+					for (int j = 0; j < expected.size(); j++)
+						assertTrue("The set is not ordered as expected by comparator " + c + " at index " + j,
+								orders.get(c).compare(expected.get(j), it.next()) == 0);
+					assertFalse("The expected size of the set is less than its actual size", it.hasNext());
+				}
+			}
+		}
+		assertFalse("An absent element was updated", entries.update(new Entry(-1, 0), (Entry entry) -> entry.key++));
+	}
+
+	@Test
+	public void testBuild() throws Exception {
+		Random random = new Random(11);
+		for (int n = 0; n < 300; n += 1 + n / 10) {
+			ArrayList<Integer> input = new ArrayList<Integer>(n);
+			for (int i = 0; i < n; i++)
+				input.add(random.nextInt(RANGE));
+			//Sorted, reversed and shuffled input exercise the merging of runs
+			switch (n % 3) {
+			case 0: Collections.sort(input); break;
+			case 1: Collections.sort(input, Collections.reverseOrder()); break;
+			default:
+			}
+			mps = MultiPrioritySet.of(input, comparators);
+			set.clear();
+			set.addAll(input);
+			assertEquals("The size of the set built from " + n + " elements has a wrong value", set.size(), mps.size());
+			checkElements();
+			checkStructure(mps);
+			//Insertions and removals have to keep working on the built trees
+			for (int i = 0; i < n; i++) {
+				Integer element = random.nextInt(RANGE);
+				assertEquals("Element " + element + " was not removed as expected", set.remove(element), mps.remove(element));
+				element = random.nextInt(RANGE);
+				assertEquals("Element " + element + " was not added as expected", set.add(element), mps.add(element));
+			}
+			checkElements();
+			checkStructure(mps);
+		}
+	}
+
+	@Test
+	public void testAddAllKeepsTieOrder() throws Exception {
+		//The rebuilding of addAll must not reorder equal elements that were contained before
+		mps.iterator(1);
+		int[] input = {9, 2, 16, 4};
+		for (int element : input) {
+			mps.add(element);
+			set.add(element);
+		}
+		ArrayList<Integer> added = new ArrayList<Integer>();
+		for (int element = 30; element < 40; element++)
+			added.add(element);
+		Collections.shuffle(added, new Random(23));
+		mps.addAll(added);
+		set.addAll(added);
+		checkElements();
+		checkStructure(mps);
+	}
+
+	@Test
+	public void testAddAllKeepsFirst() throws Exception {
+		ArrayList<Comparator<String>> orders = new ArrayList<Comparator<String>>(2);
+		orders.add((String a, String b) -> a.compareTo(b));
+		orders.add((String a, String b) -> a.length() - b.length());
+		MultiPrioritySet<String> strings = new MultiPrioritySet<String>(orders);
+		String contained = new String("B");
+		strings.add(contained);
+		ArrayList<String> input = new ArrayList<String>();
+		String first = new String("A"), second = new String("A");
+		input.add("CC");
+		input.add(first);
+		input.add(new String("B"));
+		input.add(second);
+		assertTrue("The set was not changed by adding new elements", strings.addAll(input));
+		assertFalse("The set was changed by adding contained elements", strings.addAll(input));
+		assertEquals("The size of the set has a wrong value", 3, strings.size());
+		assertSame("The contained element was replaced", contained, strings.integrate("B"));
+		assertSame("A later duplicate replaced the first one", first, strings.integrate("A"));
+		Iterator<String> it = strings.iterator(1);
+		it.next();
+		it.next();
+		assertEquals("The set is not ordered as expected by comparator 1", "CC", it.next());
+		checkStructure(strings);
+	}
+
+	@Test
+	public void testTieOrder() throws Exception {
+		//Equal elements regarding comparator 1 are iterated in the order of their insertion, however the tree is built
+		ArrayList<Integer> input = new ArrayList<Integer>();
+		Random random = new Random(19);
+		for (int i = 0; i < RANGE; i++) {
+			Integer element = random.nextInt(RANGE);
+			if (!input.contains(element))
+				input.add(element);
+		}
+		MultiPrioritySet<Integer> eager = new MultiPrioritySet<Integer>(comparators);
+		eager.iterator(1);
+		for (Integer element : input) {
+			eager.add(element);
+			mps.add(element);
+		}
+		ArrayList<Integer> expected = new ArrayList<Integer>(input);
+		Collections.sort(expected, comparators.get(1));
+		assertEquals("The eagerly built order does not keep the insertion order of equal elements", expected,
+				eager.stream(1).collect(Collectors.toList()));
+		assertEquals("The lazily built order does not keep the insertion order of equal elements", expected,
+				mps.stream(1).collect(Collectors.toList()));
+		checkStructure(mps);
+		//Updates keep the insertion order as well
+		ArrayList<Comparator<Entry>> orders = new ArrayList<Comparator<Entry>>(2);
+		orders.add((Entry a, Entry b) -> Integer.compare(a.id, b.id));
+		orders.add((Entry a, Entry b) -> Integer.compare(a.key, b.key));
+		MultiPrioritySet<Entry> maintained = new MultiPrioritySet<Entry>(orders), built = new MultiPrioritySet<Entry>(orders);
+		maintained.iterator(1);
+		ArrayList<Entry> entries = new ArrayList<Entry>();
+		for (int i = 0; i < RANGE; i++) {
+			//Insert the identities in a random order, so that the insertion order differs from the standard order
+			Entry entry = new Entry(random.nextInt(1000000), random.nextInt(10));
+			if (maintained.add(entry)) {
+				built.add(entry);
+				entries.add(entry);
+			}
+		}
+		for (int i = 0; i < RANGE; i++) {
+			Entry entry = entries.get(random.nextInt(entries.size()));
+			int key = random.nextInt(10);
+			maintained.update(entry, (Entry e) -> e.key = key);
+		}
+		ArrayList<Entry> order = new ArrayList<Entry>(entries);
+		Collections.sort(order, orders.get(1));
+		assertEquals("Updates do not keep the insertion order of equal elements", order,
+				maintained.stream(1).collect(Collectors.toList()));
+		assertEquals("The lazily built order does not keep the insertion order of updated elements", order,
+				built.stream(1).collect(Collectors.toList()));
+		checkStructure(maintained);
+	}
+
+	@Test
+	public void testLazyOrders() throws Exception {
+		for (int i = 0; i < RANGE; i += 3)
+			mps.add(i);
+		boolean[] materialized = (boolean[]) field(mps, "materialized");
+		assertTrue("The order of the standard comparator is not maintained", materialized[0]);
+		assertFalse("Order 1 was built without being requested", materialized[1]);
+		assertFalse("Order 2 was built without being requested", materialized[2]);
+		for (int i = 0; i < RANGE; i += 2)
+			mps.remove(i);
+		mps.iterator(2);
+		assertTrue("Order 2 was not built by requesting an iterator", materialized[2]);
+		assertFalse("Order 1 was built without being requested", materialized[1]);
+		//Order 2 has to be maintained from now on
+		for (int i = 0; i < RANGE; i += 3)
+			set.add(i);
+		for (int i = 0; i < RANGE; i += 2)
+			set.remove(i);
+		for (int i = 1; i < RANGE; i += 5) {
+			mps.add(i);
+			set.add(i);
+		}
+		checkStructure(mps);
+		checkElements();
+		mps.clear();
+		assertFalse("Order 2 is still maintained after clearing the set", materialized[2]);
+		assertFalse("The cleared set still iterates elements", mps.iterator(2).hasNext());
+	}
+
+	@Test
+	public void testBounded() throws Exception {
+		final int capacity = 20;
+		//A score without ties among the elements from 0 to 100
+		Comparator<Integer> score = (Integer a, Integer b) -> Integer.compare(a * 37 % 101, b * 37 % 101);
+		ArrayList<Comparator<Integer>> comparators = new ArrayList<Comparator<Integer>>(2);
+		comparators.add((Integer a, Integer b) -> a.compareTo(b));
+		comparators.add(score);
+		MultiPrioritySet<Integer> bounded = new MultiPrioritySet<Integer>(comparators, capacity, 1);
+		assertEquals("The capacity was not set", capacity, bounded.capacity());
+		TreeSet<Integer> expected = new TreeSet<Integer>();
+		Random random = new Random(7);
+		for (int i = 0; i < OPERATIONS; i++) {
+			Integer element = random.nextInt(101);
+			if (random.nextInt(4) == 0) {
+				assertEquals("Operation " + i + " (remove " + element + ") was not evaluated as expected",
+						expected.remove(element), bounded.remove(element));
+			} else {
+				boolean inserted = !expected.contains(element);
+				if (inserted && expected.size() == capacity) {
+					Integer least = Collections.min(expected, score);
+					if (score.compare(element, least) > 0)
+						expected.remove(least);
+					else
+						inserted = false;
+				}
+				if (inserted)
+					expected.add(element);
+				if (random.nextBoolean())
+					assertEquals("Operation " + i + " (add " + element + ") was not evaluated as expected", inserted,
+							bounded.add(element));
+				else
+					assertEquals("Operation " + i + " (integrate " + element + ") returned a wrong element", element,
+							bounded.integrate(element));
+			}
+			assertEquals("Operation " + i + " resulted in a wrong size", expected.size(), bounded.size());
+			if (i % 500 == 0) {
+				checkStructure(bounded);
+				assertEquals("The set does not contain the expected elements", new ArrayList<Integer>(expected),
+						new ArrayList<Integer>(bounded));
+			}
+		}
+		bounded.clear();
+		assertTrue("The order of the eviction comparator is not maintained after clearing the set",
+				((boolean[]) field(bounded, "materialized"))[1]);
+		for (int i = 0; i <= 100; i++)
+			bounded.add(i);
+		checkStructure(bounded);
+		Iterator<Integer> it = bounded.iterator(1);
+		for (int i = 0; i < capacity; i++)
+			assertEquals("The set does not keep the greatest elements", 100 - capacity + 1 + i, it.next() * 37 % 101);
+	}
+
+	@Test
+	public void testBoundedTies() throws Exception {
+		final int capacity = 10;
+		//A score with many ties, so that the element to evict has to be chosen among equal ones
+		Comparator<Integer> score = (Integer a, Integer b) -> Integer.compare(a % 5, b % 5);
+		ArrayList<Comparator<Integer>> comparators = new ArrayList<Comparator<Integer>>(2);
+		comparators.add((Integer a, Integer b) -> a.compareTo(b));
+		comparators.add(score);
+		MultiPrioritySet<Integer> bounded = new MultiPrioritySet<Integer>(comparators, 2, 1);
+		assertTrue("10 was not inserted into the set", bounded.add(10));
+		assertTrue("15 was not inserted into the set", bounded.add(15));
+		assertFalse("20 was inserted although it is not greater than the least element", bounded.add(20));
+		assertTrue("21 was not inserted into the set", bounded.add(21));
+		assertEquals("The element inserted earlier was not kept", new TreeSet<Integer>(Arrays.asList(10, 21)),
+				new TreeSet<Integer>(bounded));
+		//Against a reference list of the elements in the order of insertion
+		bounded = new MultiPrioritySet<Integer>(comparators, capacity, 1);
+		ArrayList<Integer> expected = new ArrayList<Integer>();
+		Random random = new Random(13);
+		for (int i = 0; i < OPERATIONS; i++) {
+			Integer element = random.nextInt(RANGE);
+			if (random.nextInt(4) == 0) {
+				assertEquals("Operation " + i + " (remove " + element + ") was not evaluated as expected",
+						expected.remove(element), bounded.remove(element));
+			} else {
+				boolean inserted = !expected.contains(element);
+				if (inserted && expected.size() == capacity) {
+					Integer least = Collections.min(expected, score);
+					if (score.compare(element, least) > 0) {
+						//Evict the last one inserted of the least elements
+						for (int k = expected.size() - 1; k >= 0; k--)
+							if (score.compare(expected.get(k), least) == 0) {
+								expected.remove(k);
+								break;
+							}
+					}
+					else
+						inserted = false;
+				}
+				if (inserted)
+					expected.add(element);
+				assertEquals("Operation " + i + " (add " + element + ") was not evaluated as expected", inserted,
+						bounded.add(element));
+			}
+			assertEquals("Operation " + i + " resulted in a wrong size", expected.size(), bounded.size());
+			if (i % 100 == 0) {
+				checkStructure(bounded);
+				assertEquals("The set does not contain the expected elements", new TreeSet<Integer>(expected),
+						new TreeSet<Integer>(bounded));
+			}
+		}
+	}
+
+	@Test
+	public void testOrderStatistics() throws Exception {
+		Random random = new Random(11);
+		for (int i = 0; i < OPERATIONS; i++) {
+			Integer element = random.nextInt(RANGE);
+			if (random.nextInt(3) == 0) {
+				set.remove(element);
+				mps.remove(element);
+			}
+			else {
+				set.add(element);
+				mps.add(element);
+			}
+			if (i % 1000 == 0) {
+				//Query the orders in turn, so that the later ones are built by the queries
+				for (int c = 0; c < mps.dimensions(); c++) {
+					Comparator<Integer> comparator = comparators.get(c);
+					int k = 0;
+					for (Iterator<Integer> it = mps.iterator(c); it.hasNext(); k++) {
+						Integer e = it.next();
+						assertEquals("Position " + k + " of order " + c + " was not selected as expected", e, mps.select(c, k));
+						assertEquals("The rank of " + e + " in order " + c + " is wrong", k, mps.rank(c, e));
+					}
+					for (int e = -1; e <= RANGE; e++) {
+						int expected = 0;
+						for (Integer f : set)
+							if (comparator.compare(f, e) < 0)
+								expected++;
+						assertEquals("The head count of " + e + " in order " + c + " is wrong", expected, mps.headCount(c, e));
+					}
+				}
+				assertEquals("An element not contained has a rank", -1, mps.rank(1, RANGE));
+				checkStructure(mps);
+			}
+		}
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testSelectBeyondSize() throws Exception {
+		for (int i = 0; i < RANGE; i += 3)
+			mps.add(i);
+		mps.select(1, mps.size());
+	}
+
+	@Test
+	public void testSpliterator() throws Exception {
+		Random random = new Random(13);
+		for (int i = 0; i < RANGE * 4; i++)
+			mps.add(random.nextInt(RANGE * 10));
+		for (int c = 0; c < mps.dimensions(); c++) {
+			ArrayList<Integer> expected = new ArrayList<Integer>(mps.size());
+			for (Iterator<Integer> it = mps.iterator(c); it.hasNext();)
+				expected.add(it.next());
+			assertEquals("The stream of order " + c + " does not match the iteration", expected,
+					mps.stream(c).collect(Collectors.toList()));
+			assertEquals("The parallel stream of order " + c + " does not match the iteration", expected,
+					mps.parallelStream(c).collect(Collectors.toList()));
+			Spliterator<Integer> spliterator = mps.spliterator(c);
+			assertTrue("The spliterator of order " + c + " lacks characteristics", spliterator.hasCharacteristics(
+					Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.SIZED | Spliterator.SUBSIZED));
+			assertSame("The spliterator of order " + c + " reports a wrong comparator", mps.comparator(c),
+					spliterator.getComparator());
+			ArrayList<Integer> actual = new ArrayList<Integer>(mps.size());
+			split(spliterator, actual, random);
+			assertEquals("The split spliterator of order " + c + " does not match the iteration", expected, actual);
+		}
+	}
+
+	/**
+	 * <p>Splits the specified spliterator recursively at random, traversing the parts in encounter order partly by single
+	 * steps.</p>
+	 * @param spliterator the spliterator to traverse
+	 * @param elements the list to append the traversed elements to
+	 * @param random the source of the decisions
+	 */
+	private static void split(Spliterator<Integer> spliterator, ArrayList<Integer> elements, Random random) {
+		if (random.nextInt(4) == 0)
+			spliterator.tryAdvance(elements::add);
+		long size = spliterator.estimateSize();
+		Spliterator<Integer> prefix = random.nextInt(8) == 0 ? null : spliterator.trySplit();
+		if (prefix == null) {
+			spliterator.forEachRemaining(elements::add);
+			return;
+		}
+		assertEquals("The sizes of the parts do not add up", size, prefix.estimateSize() + spliterator.estimateSize());
+		split(prefix, elements, random);
+		split(spliterator, elements, random);
+	}
+
+	@Test
+	public void testNavigation() throws Exception {
+		Random random = new Random(17);
+		for (int i = 0; i < RANGE; i++) {
+			Integer element = random.nextInt(RANGE);
+			set.add(element);
+			mps.add(element);
+		}
+		for (int c = 0; c < mps.dimensions(); c++) {
+			Comparator<Integer> comparator = comparators.get(c);
+			ArrayList<Integer> order = new ArrayList<Integer>(mps.size());
+			for (Iterator<Integer> it = mps.iterator(c); it.hasNext();)
+				order.add(it.next());
+			for (int e = -1; e <= RANGE; e++) {
+				Integer floor = null, lower = null, ceiling = null, higher = null;
+				for (Integer f : order) {
+					int comparison = comparator.compare(f, e);
+					if (comparison <= 0)
+						floor = f;
+					if (comparison < 0)
+						lower = f;
+					if (comparison >= 0 && ceiling == null)
+						ceiling = f;
+					if (comparison > 0 && higher == null)
+						higher = f;
+				}
+				assertEquals("The floor of " + e + " in order " + c + " is wrong", floor, mps.floor(c, e));
+				assertEquals("The lower element of " + e + " in order " + c + " is wrong", lower, mps.lower(c, e));
+				assertEquals("The ceiling of " + e + " in order " + c + " is wrong", ceiling, mps.ceiling(c, e));
+				assertEquals("The higher element of " + e + " in order " + c + " is wrong", higher, mps.higher(c, e));
+			}
+			for (int i = 0; i < 50; i++) {
+				Integer from = random.nextInt(RANGE), to = random.nextInt(RANGE);
+				if (comparator.compare(from, to) > 0) {
+					Integer swap = from;
+					from = to;
+					to = swap;
+				}
+				boolean fromInclusive = random.nextBoolean(), toInclusive = random.nextBoolean();
+				ArrayList<Integer> expected = new ArrayList<Integer>();
+				for (Integer f : order) {
+					int lowerComparison = comparator.compare(f, from), upperComparison = comparator.compare(f, to);
+					if ((lowerComparison > 0 || fromInclusive && lowerComparison == 0)
+							&& (upperComparison < 0 || toInclusive && upperComparison == 0))
+						expected.add(f);
+				}
+				checkView("subSet", mps.subSet(c, from, fromInclusive, to, toInclusive), expected);
+				ArrayList<Integer> head = new ArrayList<Integer>(), tail = new ArrayList<Integer>();
+				for (Integer f : order) {
+					int comparison = comparator.compare(f, to);
+					if (comparison < 0 || toInclusive && comparison == 0)
+						head.add(f);
+					comparison = comparator.compare(f, from);
+					if (comparison > 0 || fromInclusive && comparison == 0)
+						tail.add(f);
+				}
+				checkView("headSet", mps.headSet(c, to, toInclusive), head);
+				checkView("tailSet", mps.tailSet(c, from, fromInclusive), tail);
+			}
+		}
+		//Removing through a view affects the set
+		Set<Integer> view = mps.subSet(1, 2, true, 4, false);
+		for (Iterator<Integer> it = view.iterator(); it.hasNext();) {
+			set.remove(it.next());
+			it.remove();
+		}
+		assertTrue("The view is not empty after removing its elements", view.isEmpty());
+		checkStructure(mps);
+		checkElements();
+		//Poll the orders alternately at both ends
+		for (int i = 0; !set.isEmpty(); i++) {
+			int c = i % mps.dimensions();
+			Iterator<Integer> it = mps.iterator(c);
+			Integer expected = it.next();
+			if (i % 2 == 1)
+				while (it.hasNext())
+					expected = it.next();
+			assertEquals("Poll " + i + " in order " + c + " returned a wrong element", expected,
+					i % 2 == 0 ? mps.pollFirst(c) : mps.pollLast(c));
+			set.remove(expected);
+			if (i % 20 == 0) {
+				checkStructure(mps);
+				checkElements();
+			}
+		}
+		assertNull("Polling an empty set returned an element", mps.pollFirst(1));
+	}
+
+	@Test
+	public void testViewAfterClear() throws Exception {
+		for (int i = 0; i < 10; i++)
+			mps.add(i);
+		Set<Integer> view = mps.headSet(2, 5, true);
+		assertEquals("The view has a wrong size", 5, view.size());
+		mps.clear();
+		assertTrue("The view is not empty after clearing the set", view.isEmpty());
+		for (int i = 100; i < 103; i++)
+			mps.add(i);
+		ArrayList<Integer> expected = new ArrayList<Integer>();
+		expected.add(102);
+		expected.add(101);
+		expected.add(100);
+		checkView("headSet", view, expected);
+		checkStructure(mps);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testViewRange() throws Exception {
+		mps.add(3);
+		mps.headSet(0, 5, false).add(5);
+	}
+
+	private static void checkView(String name, Set<Integer> view, ArrayList<Integer> expected) {
+		assertEquals("The " + name + " view has a wrong size", expected.size(), view.size());
+		assertEquals("The " + name + " view does not iterate the expected elements", expected, new ArrayList<Integer>(view));
+		for (Integer element : expected)
+			assertTrue("The " + name + " view does not contain " + element, view.contains(element));
+	}
+
+	private void checkElements() {
+		for (int c = 0; c < mps.dimensions(); c++) {
+			ArrayList<Integer> expected = new ArrayList<Integer>(set);
+			Collections.sort(expected, comparators.get(c));
+			ArrayList<Integer> actual = new ArrayList<Integer>(mps.size());
+			for (Iterator<Integer> it = mps.iterator(c); it.hasNext();)
+				actual.add(it.next());
+			//Equal elements have to be iterated in the order of their insertion, as by the stable sort
+			assertEquals("The set is not ordered as expected by comparator " + c, expected, actual);
+		}
+	}
+
+	/**
+	 * <p>Checks the features of every internal red-black tree of the specified set: the tree is a search tree regarding its
+	 * comparator, the root is black, no red node has a red child and all paths from a node to the leaves contain the same
+	 * number of black nodes.</p>
+	 * @param mps the set to check
+	 */
+	static <E extends Comparable<E>> void checkStructure(MultiPrioritySet<E> mps) throws Exception {
+		int[] root = (int[]) field(mps, "root");
+		int[][] left = (int[][]) field(mps, "left"), rght = (int[][]) field(mps, "rght"), prnt = (int[][]) field(mps, "prnt");
+		boolean[][] color = (boolean[][]) field(mps, "color");
+		int[][] size = (int[][]) field(mps, "count");
+		Object[] value = (Object[]) field(mps, "value");
+		boolean[] materialized = (boolean[]) field(mps, "materialized");
+		for (int c = 0; c < mps.dimensions(); c++) {
+			if (!materialized[c])
+				continue;
+			assertFalse("The root of tree " + c + " is red", color[c][root[c]]);
+			int[] count = new int[1];
+			checkStructure(mps, c, root[c], 0, left[c], rght[c], prnt[c], color[c], size[c], value, count);
+			assertEquals("Tree " + c + " does not contain every element", mps.size(), count[0]);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <E extends Comparable<E>> int checkStructure(MultiPrioritySet<E> mps, int c, int node, int parent, int[] left,
+			int[] rght, int[] prnt, boolean[] color, int[] size, Object[] value, int[] count) {
+		if (node == 0)
+			return 1;
+		int before = count[0]++;
+		assertEquals("A node of tree " + c + " is linked to a wrong parent", parent, prnt[node]);
+		if (color[node])
+			assertTrue("A red node of tree " + c + " has a red child", !color[left[node]] && !color[rght[node]]);
+		if (left[node] != 0)
+			assertTrue("Tree " + c + " is not ordered", mps.comparator(c).compare((E) value[left[node]], (E) value[node]) <= 0);
+		if (rght[node] != 0)
+			assertTrue("Tree " + c + " is not ordered", mps.comparator(c).compare((E) value[node], (E) value[rght[node]]) <= 0);
+		int height = checkStructure(mps, c, left[node], node, left, rght, prnt, color, size, value, count);
+		assertEquals("The black heights of tree " + c + " differ", height,
+				checkStructure(mps, c, rght[node], node, left, rght, prnt, color, size, value, count));
+		assertEquals("A node of tree " + c + " holds a wrong subtree size", count[0] - before, size[node]);
+		return height + (color[node] ? 0 : 1);
+	}
+
+	private static Object field(MultiPrioritySet<?> mps, String name) throws Exception {
+		Field field = MultiPrioritySet.class.getDeclaredField(name);
+		field.setAccessible(true);
+		return field.get(mps);
+	}
+
+	/**
+	 * <p>A mutable element identified by {@code id} and prioritized by {@code key}.</p>
+	 */
+	private static class Entry implements Comparable<Entry> {
+		private int id, key;
+
+		private Entry(int id, int key) {
+			this.id = id;
+			this.key = key;
+		}
+
+		@Override
+		public int compareTo(Entry entry) {
+			return Integer.compare(id, entry.id);
+		}
+	}
+}
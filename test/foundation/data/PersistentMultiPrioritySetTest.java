@@ -0,0 +1,163 @@
+package foundation.data;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Random;
+
+/**
+ * <p>Tests the {@link PersistentMultiPrioritySet PersistentMultiPrioritySet} against reference lists of every version
+ * derived, checking that older versions are not affected by deriving new ones.</p>
+ * @author Julian Betz
+ * @version 1.00
+ */
+public class PersistentMultiPrioritySetTest {
+	private static final int RANGE = 200, OPERATIONS = 5000;
+	private ArrayList<Comparator<Integer>> comparators;
+
+	@Before
+	public void setUp() throws Exception {
+		comparators = new ArrayList<Comparator<Integer>>(3);
+		comparators.add((Integer a, Integer b) -> a.compareTo(b));
+		comparators.add((Integer a, Integer b) -> Integer.compare(a % 7, b % 7));
+		comparators.add((Integer a, Integer b) -> b.compareTo(a));
+	}
+
+	@Test
+	public void testVersions() {
+		//The versions and their elements in the order of insertion
+		ArrayList<PersistentMultiPrioritySet<Integer>> versions = new ArrayList<PersistentMultiPrioritySet<Integer>>();
+		ArrayList<ArrayList<Integer>> expected = new ArrayList<ArrayList<Integer>>();
+		versions.add(new PersistentMultiPrioritySet<Integer>(comparators));
+		expected.add(new ArrayList<Integer>());
+		Random random = new Random(5);
+		for (int i = 0; i < OPERATIONS; i++) {
+			//Derive from a recent version most of the time, but from any version sometimes
+			int v = random.nextInt(8) == 0 ? random.nextInt(versions.size()) : versions.size() - 1;
+			PersistentMultiPrioritySet<Integer> version = versions.get(v);
+			ArrayList<Integer> elements = new ArrayList<Integer>(expected.get(v));
+			Integer element = random.nextInt(RANGE);
+			PersistentMultiPrioritySet<Integer> derived;
+			if (random.nextInt(3) == 0) {
+				derived = version.without(element);
+				assertEquals("Operation " + i + " (without " + element + ") did not return the version itself as expected",
+						!elements.remove(element), derived == version);
+			}
+			else {
+				derived = version.with(element);
+				boolean contained = elements.contains(element);
+				if (!contained)
+					elements.add(element);
+				assertEquals("Operation " + i + " (with " + element + ") did not return the version itself as expected",
+						contained, derived == version);
+			}
+			assertEquals("The version derived by operation " + i + " has a wrong size", elements.size(), derived.size());
+			versions.add(derived);
+			expected.add(elements);
+			if (i % 97 == 0) {
+				checkElements(derived, elements);
+				int w = random.nextInt(versions.size());
+				checkElements(versions.get(w), expected.get(w));
+			}
+		}
+		for (int v = 0; v < versions.size(); v += 37)
+			checkElements(versions.get(v), expected.get(v));
+	}
+
+	@Test
+	public void testOf() {
+		ArrayList<Integer> elements = new ArrayList<Integer>();
+		ArrayList<Integer> distinct = new ArrayList<Integer>();
+		Random random = new Random(7);
+		for (int i = 0; i < RANGE; i++) {
+			Integer element = random.nextInt(RANGE);
+			elements.add(element);
+			if (!distinct.contains(element))
+				distinct.add(element);
+		}
+		PersistentMultiPrioritySet<Integer> set = PersistentMultiPrioritySet.of(elements, comparators);
+		checkElements(set, distinct);
+		//Further versions order equal elements after the ones of the collection
+		for (int i = RANGE; i < RANGE + 20; i++) {
+			set = set.with(i);
+			distinct.add(i);
+		}
+		checkElements(set, distinct);
+	}
+
+	@Test
+	public void testSnapshot() {
+		MultiPrioritySet<Integer> mps = new MultiPrioritySet<Integer>(comparators);
+		for (int i = 0; i < RANGE; i += 3)
+			mps.add(i);
+		PersistentMultiPrioritySet<Integer> snapshot = mps.snapshot();
+		assertSame("The snapshot of a persistent set is not the set itself", snapshot, snapshot.snapshot());
+		ArrayList<Integer> elements = new ArrayList<Integer>(mps);
+		for (int i = 0; i < RANGE; i += 2)
+			mps.remove(i);
+		for (int i = 1; i < RANGE; i += 4)
+			mps.add(i);
+		checkElements(snapshot, elements);
+	}
+
+	@Test
+	public void testSnapshotOrder() {
+		MultiPrioritySet<Integer> mps = new MultiPrioritySet<Integer>(comparators);
+		Random random = new Random(11);
+		for (int i = 0; i < RANGE; i++)
+			mps.add(random.nextInt(RANGE * 5));
+		//Build one order before and one after the modifications, and bulk-insert some elements
+		mps.iterator(1);
+		for (int i = 0; i < RANGE / 2; i++)
+			mps.remove(random.nextInt(RANGE * 5));
+		ArrayList<Integer> added = new ArrayList<Integer>();
+		for (int i = 0; i < RANGE * 2; i++)
+			added.add(random.nextInt(RANGE * 5));
+		mps.addAll(added);
+		PersistentMultiPrioritySet<Integer> snapshot = mps.snapshot();
+		assertEquals("The snapshot has a wrong size", mps.size(), snapshot.size());
+		for (int c = 0; c < mps.dimensions(); c++) {
+			Iterator<Integer> expected = mps.iterator(c), actual = snapshot.iterator(c);
+			for (int k = 0; expected.hasNext(); k++) {
+				assertTrue("The snapshot ends early in order " + c, actual.hasNext());
+				assertEquals("The snapshot differs from the set in order " + c + " at position " + k, expected.next(),
+						actual.next());
+			}
+			assertFalse("The snapshot iterates too many elements in order " + c, actual.hasNext());
+		}
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testImmutable() {
+		PersistentMultiPrioritySet<Integer> set = new PersistentMultiPrioritySet<Integer>(comparators).with(1);
+		set.add(2);
+	}
+
+	/**
+	 * <p>Checks every order of the specified set against the stably sorted elements expected and every position against
+	 * {@link PersistentMultiPrioritySet#select(int, int) select}.</p>
+	 * @param set the set to check
+	 * @param elements the elements expected in the order of insertion
+	 */
+	private void checkElements(PersistentMultiPrioritySet<Integer> set, ArrayList<Integer> elements) {
+		assertEquals("The set has a wrong size", elements.size(), set.size());
+		for (int c = 0; c < set.dimensions(); c++) {
+			ArrayList<Integer> expected = new ArrayList<Integer>(elements);
+			Collections.sort(expected, comparators.get(c));
+			ArrayList<Integer> actual = new ArrayList<Integer>(set.size());
+			for (Iterator<Integer> it = set.iterator(c); it.hasNext();)
+				actual.add(it.next());
+			assertEquals("The set is not ordered as expected by comparator " + c, expected, actual);
+			for (int k = 0; k < actual.size(); k++)
+				assertEquals("Position " + k + " of order " + c + " was not selected as expected", actual.get(k), set.select(c, k));
+		}
+		for (Integer element : elements)
+			assertTrue("The set does not contain " + element, set.contains(element));
+	}
+}